@@ -1,17 +1,30 @@
 package com.shade.lang;
 
 import com.shade.lang.runtime.Machine;
-import com.shade.lang.runtime.frames.Frame;
-import com.shade.lang.runtime.frames.NativeFrame;
-import com.shade.lang.runtime.frames.RuntimeFrame;
+import com.shade.lang.runtime.Profiler;
+import com.shade.lang.runtime.Sampler;
 import com.shade.lang.runtime.objects.function.Function;
+import com.shade.lang.runtime.objects.module.Module;
 import com.shade.lang.runtime.objects.module.NativeModuleProvider;
+import com.shade.lang.tool.CounterDump;
+import com.shade.lang.util.Histogram;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 public class Launcher {
+    private static final String SAMPLER_OUTPUT = System.getProperty("ash.sampler.output");
+    private static final long SAMPLER_INTERVAL = Long.getLong("ash.sampler.interval", Sampler.DEFAULT_INTERVAL_MILLIS);
+
     public static void main(String[] args) {
+        final long allocatedBytes = getAllocatedBytes();
+
         Machine machine = new Machine();
         machine.getSearchRoots().add(Paths.get("src/main/resources"));
 
@@ -19,6 +32,10 @@ public class Launcher {
             machine.load(provider.create(machine));
         }
 
+        if (SAMPLER_OUTPUT != null) {
+            machine.startSampling(SAMPLER_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+
         machine.load("sandbox");
 
         if (!machine.isHalted()) {
@@ -26,8 +43,18 @@ public class Launcher {
             machine.getErr().println("[VM] Execution result: " + result);
         }
 
+        if (SAMPLER_OUTPUT != null) {
+            writeSamplerResults(machine, Objects.requireNonNull(machine.stopSampling()));
+        }
+
+        if (Machine.ENABLE_COUNTERS) {
+            printCounterResults(machine);
+        }
+
         if (Machine.ENABLE_PROFILING) {
             printProfileResults(machine);
+            printAllocationResults(machine, getAllocatedBytes() - allocatedBytes);
+            printCacheResults(machine);
         }
 
         System.exit(machine.getStatus());
@@ -36,31 +63,83 @@ public class Launcher {
     private static void printProfileResults(Machine machine) {
         machine.getOut().println("--- Profile Results ---");
 
-        for (Map.Entry<Frame, List<Long>> entry : machine.getProfilerSamples().entrySet()) {
-            final Frame frame = entry.getKey();
-            final Function function;
+        final List<Profiler.Entry> entries = new ArrayList<>(machine.getProfiler().getEntries());
+        entries.sort(Comparator.comparingLong(Profiler.Entry::getSelfTime).reversed());
 
-            if (frame instanceof RuntimeFrame) {
-                function = ((RuntimeFrame) frame).getFunction();
-            } else if (frame instanceof NativeFrame) {
-                function = ((NativeFrame) frame).getFunction();
-            } else {
-                continue;
-            }
+        for (Profiler.Entry entry : entries) {
+            final Function function = entry.getFunction();
+            final Histogram histogram = entry.getHistogram();
 
-            List<Long> samples = entry.getValue();
+            machine.getOut().printf("- %s/%s%n  [ calls: %d, total: %.2fms, self: %.2fms, p50: %.3fms, p90: %.3fms, p99: %.3fms, max: %.3fms ]%n",
+                function.getModule().getName(),
+                function.getName(),
+                entry.getCalls(),
+                entry.getTotalTime() / 1e6D,
+                entry.getSelfTime() / 1e6D,
+                histogram.getPercentile(50) / 1e6D,
+                histogram.getPercentile(90) / 1e6D,
+                histogram.getPercentile(99) / 1e6D,
+                histogram.getMax() / 1e6D);
+        }
+    }
 
-            if (samples.size() > 0) {
-                LongSummaryStatistics summary = samples.stream().mapToLong(x -> x).summaryStatistics();
+    private static void printCounterResults(Machine machine) {
+        machine.getOut().println("--- Opcode Counters ---");
+        CounterDump.printOpcodes(machine, machine.getOut());
 
-                machine.getOut().printf("- %s/%s%n  [ samples: %d, min: %.2fms, max: %.2fms, avg: %.2fms ]%n",
-                    function.getModule().getName(),
-                    function.getName(),
-                    samples.size(),
-                    summary.getMin() / 1e6D,
-                    summary.getMax() / 1e6D,
-                    summary.getAverage() / 1e6D);
+        machine.getOut().println("--- Instruction Counters ---");
+        for (Module module : machine.getModules().values()) {
+            CounterDump.printModule(module, machine.getOut());
+        }
+    }
+
+    private static void writeSamplerResults(Machine machine, Sampler sampler) {
+        try (Writer writer = Files.newBufferedWriter(Paths.get(SAMPLER_OUTPUT))) {
+            sampler.writeCollapsedStacks(writer);
+            machine.getErr().printf("[VM] Written %d sample(-s) to %s%n", sampler.getSamples(), SAMPLER_OUTPUT);
+        } catch (IOException e) {
+            machine.getErr().println("[VM] Cannot write samples: " + e.getMessage());
+        }
+    }
+
+    private static void printAllocationResults(Machine machine, long allocatedBytes) {
+        final long instructions = machine.getProfilerInstructions();
+
+        machine.getOut().println("--- Allocation Results ---");
+
+        if (allocatedBytes < 0) {
+            machine.getOut().println("- Thread allocation counter is not supported");
+            return;
+        }
+
+        machine.getOut().printf("- allocated: %d bytes, instructions: %d, per instruction: %.2f bytes%n",
+            allocatedBytes,
+            instructions,
+            instructions > 0 ? (double) allocatedBytes / instructions : 0.0D);
+    }
+
+    private static void printCacheResults(Machine machine) {
+        final long hits = machine.getProfilerCacheHits();
+        final long misses = machine.getProfilerCacheMisses();
+
+        machine.getOut().println("--- Inline Cache Results ---");
+        machine.getOut().printf("- hits: %d, misses: %d, hit ratio: %.2f%%%n",
+            hits,
+            misses,
+            hits + misses > 0 ? hits * 100.0D / (hits + misses) : 0.0D);
+    }
+
+    private static long getAllocatedBytes() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
             }
         }
+
+        return -1;
     }
 }
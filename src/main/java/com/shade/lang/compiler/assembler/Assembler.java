@@ -12,6 +12,8 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 public class Assembler {
+    public static final boolean ENABLE_SUPERINSTRUCTIONS = Boolean.parseBoolean(System.getProperty("ash.opt.superinstructions", "true"));
+
     /*
      * List of emitted instructions.
      */
@@ -51,6 +53,14 @@ public class Assembler {
      */
     private int maxStackSize;
 
+    /*
+     * Index of the last instruction that may be
+     * referred from outside (jump destination,
+     * guard boundary, etc.). Such instruction
+     * cannot be fused with its predecessor.
+     */
+    private int barrier;
+
     /**
      * Appends given operation with supplied operands to internal buffer.
      * <p>
@@ -91,12 +101,19 @@ public class Assembler {
         Instruction instruction;
 
         if (operation.isJump()) {
-            instruction = new JumpInstruction(operation);
+            instruction = new JumpInstruction(operation, operands);
         } else {
             instruction = new Instruction(operation, operands);
         }
 
-        instructions.add(instruction);
+        final Instruction fused = fuse(instruction);
+
+        if (fused != null) {
+            instruction = fused;
+            instructions.set(instructions.size() - 1, instruction);
+        } else {
+            instructions.add(instruction);
+        }
 
         if (currentStackSize > maxStackSize) {
             maxStackSize = currentStackSize;
@@ -105,6 +122,46 @@ public class Assembler {
         return instruction;
     }
 
+    /**
+     * Attempts to fuse the last emitted instruction with the supplied
+     * {@code instruction} into a single superinstruction.
+     * <p>
+     * Fused pairs were selected from execution statistics of common
+     * scripts. Pairs are never fused across a position that was
+     * exposed via {@link #getPosition()} or bound by {@link #bind(Label)}.
+     *
+     * @param instruction instruction that is about to be emitted
+     * @return superinstruction that replaces the last emitted instruction and
+     * {@code instruction}, or {@code null} if they cannot be fused
+     */
+    @Nullable
+    private Instruction fuse(@NotNull Instruction instruction) {
+        if (!ENABLE_SUPERINSTRUCTIONS || instructions.isEmpty() || barrier >= instructions.size()) {
+            return null;
+        }
+
+        final Instruction last = instructions.get(instructions.size() - 1);
+        final Operand[] lastOperands = last.getOperands();
+        final Operand[] operands = instruction.getOperands();
+
+        if (last.getOperation() == Operation.GET_LOCAL) {
+            switch (instruction.getOperation()) {
+                case GET_LOCAL:
+                    return new Instruction(Operation.GET_LOCAL2, new Operand[]{lastOperands[0], operands[0]});
+                case PUSH:
+                    return new Instruction(Operation.GET_LOCAL_PUSH, new Operand[]{lastOperands[0], operands[0]});
+                case GET_ATTRIBUTE:
+                    return new Instruction(Operation.GET_LOCAL_ATTRIBUTE, new Operand[]{lastOperands[0], operands[0]});
+            }
+        }
+
+        if (last.getOperation() == Operation.GET_GLOBAL && instruction.getOperation() == Operation.CALL) {
+            return new Instruction(Operation.CALL_GLOBAL, new Operand[]{lastOperands[0], operands[0]});
+        }
+
+        return null;
+    }
+
     /**
      * Appends unresolved jump operation to internal stack.
      * Returns label that refers to emitted jump instruction
@@ -112,21 +169,29 @@ public class Assembler {
      * bound using method {@link Assembler#bind(Label)}.
      * This is useful for forward jumps where resulting offset
      * is unknown.
+     * <p>
+     * The jump offset is always the first operand of a jump
+     * operation and must not be supplied in {@code operands}.
      *
      * @param operation jump operation to be emitted
+     * @param operands  the rest of operands suitable for given {@code operation}
      * @return unresolved label that must be bound using {@link Assembler#bind(Label)}
      * @throws IllegalArgumentException if provided {@code operation} is not a jump operation
      * @see Assembler#bind(Label)
      * @see Operation#isJump()
      */
-    public Label jump(@NotNull Operation operation) {
+    public Label jump(@NotNull Operation operation, @NotNull Operand... operands) {
         if (!operation.isJump()) {
             throw new IllegalArgumentException("Operation expected to be a jump");
         }
 
         int stackSizeBeforeJump = currentStackSize;
 
-        JumpInstruction instruction = (JumpInstruction) emit(operation, Operand.imm16(0xffff));
+        final Operand[] jumpOperands = new Operand[operands.length + 1];
+        jumpOperands[0] = Operand.imm16(0xffff);
+        System.arraycopy(operands, 0, jumpOperands, 1, operands.length);
+
+        JumpInstruction instruction = (JumpInstruction) emit(operation, jumpOperands);
 
         Label label = new Label(instruction, stackSizeBeforeJump);
         labels.add(label);
@@ -180,6 +245,7 @@ public class Assembler {
         }
 
         currentStackSize = label.stack;
+        barrier = instructions.size();
 
         jump.resolve((short) (offset & 0xffff));
     }
@@ -434,10 +500,15 @@ public class Assembler {
 
     /**
      * Returns current position inside internal instruction buffer.
+     * <p>
+     * Since returned position may be used as a jump destination,
+     * instructions emitted after this call are never fused with
+     * ones emitted before it.
      *
      * @return current position inside instruction buffer
      */
     public int getPosition() {
+        barrier = instructions.size();
         return instructions.size();
     }
 
@@ -479,8 +550,8 @@ public class Assembler {
     private static class JumpInstruction extends Instruction {
         private boolean resolved;
 
-        public JumpInstruction(@NotNull Operation operation) {
-            super(operation, new Operand[]{Operand.imm16(0xffff)});
+        public JumpInstruction(@NotNull Operation operation, @NotNull Operand[] operands) {
+            super(operation, operands);
         }
 
         @Override
@@ -3,19 +3,10 @@ package com.shade.lang.compiler.assembler;
 import com.shade.lang.util.annotations.NotNull;
 
 import java.nio.ByteBuffer;
-import java.util.Arrays;
-import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class Disassembler {
-    private static final Map<Byte, Operation> OPERATION_LOOKUP_TABLE = Arrays.stream(Operation.values())
-        .collect(Collectors.toMap(
-            Operation::getOpcode,
-            operation -> operation
-        ));
-
     private final ByteBuffer buffer;
     private final Function<Short, Object> constantSupplier;
 
@@ -32,7 +23,7 @@ public class Disassembler {
 
         final int position = buffer.position();
         final byte opcode = buffer.get();
-        final Operation operation = OPERATION_LOOKUP_TABLE.get(opcode);
+        final Operation operation = Operation.of(opcode);
 
         if (operation == null) {
             throw new DisassemblerException(String.format("Invalid opcode %#02x at position %2$d (%2$#04x)", opcode, position));
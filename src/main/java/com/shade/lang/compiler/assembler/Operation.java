@@ -35,7 +35,10 @@ public enum Operation {
 
     BIND(OperationCode.OP_BIND, new OperandType[]{OperandType.IMM_8}, 2, 0),
     CALL(OperationCode.OP_CALL, new OperandType[]{OperandType.IMM_8}, ops -> ops[0].getImm8() + 1, ops -> 1),
+    CALL_METHOD(OperationCode.OP_CALL_METHOD, new OperandType[]{OperandType.CONSTANT, OperandType.IMM_8}, ops -> ops[1].getImm8() + 1, ops -> 1),
     RETURN(OperationCode.OP_RETURN, new OperandType[0], 1, 0),
+    // Always followed by RETURN that receives the result if the call could not reuse the frame
+    TAIL_CALL(OperationCode.OP_TAIL_CALL, new OperandType[]{OperandType.IMM_8}, ops -> ops[0].getImm8() + 1, ops -> 1),
 
     JUMP(OperationCode.OP_JUMP, new OperandType[]{OperandType.IMM_16}, 0, 0),
     JUMP_IF_TRUE(OperationCode.OP_JUMP_IF_TRUE, new OperandType[]{OperandType.IMM_16}, 1, 0),
@@ -59,7 +62,47 @@ public enum Operation {
     MAKE_FUNCTION(OperationCode.OP_MAKE_FUNCTION, new OperandType[]{OperandType.CONSTANT, OperandType.CONSTANT}, 0, 1),
     MAKE_CLASS(OperationCode.OP_MAKE_CLASS, new OperandType[]{OperandType.CONSTANT, OperandType.CONSTANT, OperandType.IMM_8}, ops -> (int) ops[2].getImm8(), ops -> 1),
 
-    THROW(OperationCode.OP_THROW, new OperandType[]{}, 1, 0);
+    THROW(OperationCode.OP_THROW, new OperandType[]{}, 1, 0),
+
+    // Counted loops, operands are: jump offset, slot of the loop's counter followed by its limit, slot of the loop's variable
+
+    FOR_RANGE_INIT(OperationCode.OP_FOR_RANGE_INIT, new OperandType[]{OperandType.IMM_16, OperandType.IMM_8, OperandType.IMM_8, OperandType.IMM_8}, 2, 0),
+    FOR_RANGE_NEXT(OperationCode.OP_FOR_RANGE_NEXT, new OperandType[]{OperandType.IMM_16, OperandType.IMM_8, OperandType.IMM_8}, 0, 0),
+
+    // Generators, operands of RESUME are: jump offset taken once the generator is exhausted, slot of the generator, slot of the loop's variable
+
+    RESUME(OperationCode.OP_RESUME, new OperandType[]{OperandType.IMM_16, OperandType.IMM_8, OperandType.IMM_8}, 0, 0),
+    YIELD(OperationCode.OP_YIELD, new OperandType[]{}, 1, 0),
+
+    // Concatenates string representations of the specified amount of values, emitted for interpolated strings
+
+    CONCAT(OperationCode.OP_CONCAT, new OperandType[]{OperandType.IMM_8}, ops -> (int) ops[0].getImm8(), ops -> 1),
+
+    // Superinstructions, emitted by the assembler in place of common instruction pairs
+
+    GET_LOCAL2(OperationCode.OP_GET_LOCAL2, new OperandType[]{OperandType.IMM_8, OperandType.IMM_8}, 0, 2),
+    GET_LOCAL_PUSH(OperationCode.OP_GET_LOCAL_PUSH, new OperandType[]{OperandType.IMM_8, OperandType.CONSTANT}, 0, 2),
+    GET_LOCAL_ATTRIBUTE(OperationCode.OP_GET_LOCAL_ATTRIBUTE, new OperandType[]{OperandType.IMM_8, OperandType.CONSTANT}, 0, 1),
+    CALL_GLOBAL(OperationCode.OP_CALL_GLOBAL, new OperandType[]{OperandType.CONSTANT, OperandType.IMM_8}, ops -> (int) ops[1].getImm8(), ops -> 1),
+
+    // Quickened instructions, never emitted by the assembler but written by the machine in place of generic ones
+
+    ADD_INT(OperationCode.OP_ADD_INT, new OperandType[]{}, 2, 1),
+    SUB_INT(OperationCode.OP_SUB_INT, new OperandType[]{}, 2, 1),
+    MUL_INT(OperationCode.OP_MUL_INT, new OperandType[]{}, 2, 1),
+    CMP_EQ_INT(OperationCode.OP_CMP_EQ_INT, new OperandType[]{}, 2, 1),
+    CMP_LT_INT(OperationCode.OP_CMP_LT_INT, new OperandType[]{}, 2, 1),
+    CMP_LE_INT(OperationCode.OP_CMP_LE_INT, new OperandType[]{}, 2, 1),
+    CMP_GT_INT(OperationCode.OP_CMP_GT_INT, new OperandType[]{}, 2, 1),
+    CMP_GE_INT(OperationCode.OP_CMP_GE_INT, new OperandType[]{}, 2, 1);
+
+    private static final Operation[] LOOKUP_TABLE = new Operation[256];
+
+    static {
+        for (Operation operation : values()) {
+            LOOKUP_TABLE[operation.opcode & 0xff] = operation;
+        }
+    }
 
     private final byte opcode;
     private final OperandType[] operands;
@@ -77,6 +120,16 @@ public enum Operation {
         this(opcode, operands, ops -> stackPop, ops -> stackPush);
     }
 
+    /**
+     * Returns an operation with the specified {@code opcode}.
+     *
+     * @param opcode opcode of the operation
+     * @return operation or {@code null} if there's no such operation
+     */
+    public static Operation of(byte opcode) {
+        return LOOKUP_TABLE[opcode & 0xff];
+    }
+
     public boolean isJump() {
         switch (this) {
             case JUMP:
@@ -84,6 +137,9 @@ public enum Operation {
             case JUMP_IF_FALSE:
             case JUMP_IF_TRUE_OR_POP:
             case JUMP_IF_FALSE_OR_POP:
+            case FOR_RANGE_INIT:
+            case FOR_RANGE_NEXT:
+            case RESUME:
                 return true;
             default:
                 return false;
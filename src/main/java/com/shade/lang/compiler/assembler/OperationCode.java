@@ -63,6 +63,32 @@ public class OperationCode {
 
     public static final byte OP_JUMP_IF_TRUE_OR_POP     = 0x2B;
     public static final byte OP_JUMP_IF_FALSE_OR_POP    = 0x2C;
+
+    public static final byte OP_CALL_METHOD     = 0x2D;
+
+    public static final byte OP_GET_LOCAL2          = 0x2E;
+    public static final byte OP_GET_LOCAL_PUSH      = 0x2F;
+    public static final byte OP_GET_LOCAL_ATTRIBUTE = 0x30;
+    public static final byte OP_CALL_GLOBAL         = 0x31;
+
+    public static final byte OP_ADD_INT         = 0x32;
+    public static final byte OP_SUB_INT         = 0x33;
+    public static final byte OP_MUL_INT         = 0x34;
+    public static final byte OP_CMP_EQ_INT      = 0x35;
+    public static final byte OP_CMP_LT_INT      = 0x36;
+    public static final byte OP_CMP_LE_INT      = 0x37;
+    public static final byte OP_CMP_GT_INT      = 0x38;
+    public static final byte OP_CMP_GE_INT      = 0x39;
+
+    public static final byte OP_FOR_RANGE_INIT  = 0x3A;
+    public static final byte OP_FOR_RANGE_NEXT  = 0x3B;
+
+    public static final byte OP_TAIL_CALL       = 0x3C;
+
+    public static final byte OP_RESUME          = 0x3D;
+    public static final byte OP_YIELD           = 0x3E;
+
+    public static final byte OP_CONCAT          = 0x3F;
     // @formatter:on
 
 }
@@ -81,20 +81,29 @@ public class Verifier {
                 case SET_GLOBAL:
                 case GET_ATTRIBUTE:
                 case SET_ATTRIBUTE:
+                case CALL_METHOD:
+                case CALL_GLOBAL:
                 case IMPORT:
-                    if (!(operands[0].getConstant() instanceof String)) {
-                        throw new VerificationException(String.format(
-                            "Constant symbol operand of instruction '%s' expected to be string but found %s (%s)",
-                            instruction,
-                            operands[0].getType(),
-                            operands[0].getValue()
-                        ));
-                    }
+                    verifySymbolOperand(instruction, operands[0]);
+                    break;
+                case GET_LOCAL_ATTRIBUTE:
+                    verifySymbolOperand(instruction, operands[1]);
                     break;
             }
         }
     }
 
+    private void verifySymbolOperand(@NotNull Instruction instruction, @NotNull Operand operand) throws VerificationException {
+        if (!(operand.getConstant() instanceof String)) {
+            throw new VerificationException(String.format(
+                "Constant symbol operand of instruction '%s' expected to be string but found %s (%s)",
+                instruction,
+                operand.getType(),
+                operand.getValue()
+            ));
+        }
+    }
+
     private boolean hasInstructionAt(int requiredPosition) {
         int position = 0;
         for (Instruction instruction : instructions) {
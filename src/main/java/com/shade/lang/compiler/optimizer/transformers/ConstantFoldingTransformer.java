@@ -4,12 +4,16 @@ import com.shade.lang.compiler.optimizer.Transformer;
 import com.shade.lang.compiler.optimizer.TransformerProvider;
 import com.shade.lang.compiler.parser.node.Expression;
 import com.shade.lang.compiler.parser.node.expr.BinaryExpression;
+import com.shade.lang.compiler.parser.node.expr.ConcatExpression;
 import com.shade.lang.compiler.parser.node.expr.LoadConstantExpression;
 import com.shade.lang.compiler.parser.node.expr.LogicalExpression;
 import com.shade.lang.compiler.parser.node.expr.UnaryExpression;
 import com.shade.lang.compiler.parser.token.TokenKind;
 import com.shade.lang.util.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.shade.lang.compiler.optimizer.TransformerUtils.asConst;
 import static com.shade.lang.compiler.optimizer.TransformerUtils.isConst;
 
@@ -105,6 +109,35 @@ public class ConstantFoldingTransformer extends Transformer implements Transform
         return super.leaveBinaryExpression(expression);
     }
 
+    @NotNull
+    @Override
+    public Expression leaveConcatExpression(@NotNull ConcatExpression expression) {
+        final List<Expression> parts = new ArrayList<>();
+
+        for (Expression part : expression.getParts()) {
+            final Expression last = parts.isEmpty() ? null : parts.get(parts.size() - 1);
+
+            if (last != null && isConst(last, String.class) && isConst(part, String.class)) {
+                final String lhs = asConst(last, String.class);
+                final String rhs = asConst(part, String.class);
+
+                parts.set(parts.size() - 1, new LoadConstantExpression<>(lhs + rhs, last.getRegion().until(part.getRegion())));
+            } else {
+                parts.add(part);
+            }
+        }
+
+        if (parts.size() == 1 && isConst(parts.get(0), String.class)) {
+            return new LoadConstantExpression<>(asConst(parts.get(0), String.class), expression.getRegion());
+        }
+
+        if (parts.size() < expression.getParts().size()) {
+            return new ConcatExpression(parts, expression.getRegion());
+        }
+
+        return super.leaveConcatExpression(expression);
+    }
+
     @NotNull
     @Override
     public Expression leaveLogicalExpression(@NotNull LogicalExpression expression) {
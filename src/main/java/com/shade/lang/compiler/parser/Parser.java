@@ -100,7 +100,9 @@ public class Parser {
             case Loop:
                 return parseLoopStatement();
             case For:
-                return parseRangeStatement();
+                return parseForStatement();
+            case Yield:
+                return parseYieldStatement();
             case Continue:
                 return parseContinueStatement();
             case Break:
@@ -155,11 +157,19 @@ public class Parser {
         return new LoopStatement(condition, body, name, start.until(body.getRegion()));
     }
 
-    private BlockStatement parseRangeStatement() throws ScriptException {
+    private Statement parseForStatement() throws ScriptException {
         Region start = expect(For).getRegion();
         Token variable = expect(Symbol);
         expect(In);
         Expression begin = parseExpression();
+        if (!matches(Range, RangeInc)) {
+            String name = null;
+            if (consume(Colon) != null) {
+                name = expect(Symbol).getStringValue();
+            }
+            BlockStatement body = parseBlockStatement();
+            return new ForEachStatement(variable.getStringValue(), begin, body, name, start.until(body.getRegion()));
+        }
         boolean inclusive = expect(Range, RangeInc).getKind() == RangeInc;
         Expression end = parseExpression();
         String name = null;
@@ -167,84 +177,7 @@ public class Parser {
             name = expect(Symbol).getStringValue();
         }
         BlockStatement body = parseBlockStatement();
-        Region region = start.until(body.getRegion());
-
-        {
-            // Probably we need a better solution for codegen.
-            // Maybe use nested parsers with templated code?
-
-            final String variableId = variable.getStringValue();
-            final String rangeId = UUID.randomUUID().toString();
-            final String iteratorId = UUID.randomUUID().toString();
-
-            return new BlockStatement(Arrays.asList(
-                // import 'range;
-                new ImportStatement("range", rangeId, null, false, region),
-
-                // variableId = begin;
-                new DeclareVariableStatement(variableId, begin, variable.getRegion()),
-
-                // let iteratorObjectId = new Range(variableId, end).get_iterator()
-                new DeclareVariableStatement(
-                    iteratorId,
-                    new CallExpression(
-                        new LoadAttributeExpression(
-                            new NewExpression(
-                                new LoadAttributeExpression(
-                                    new LoadSymbolExpression(rangeId, region),
-                                    "Range",
-                                    region
-                                ),
-                                Arrays.asList(
-                                    new LoadSymbolExpression(variableId, start),
-                                    end,
-                                    new LoadConstantExpression<>(inclusive, start)
-                                ),
-                                start
-                            ),
-                            "get_iterator",
-                            start
-                        ),
-                        Collections.emptyList(),
-                        region
-                    ),
-                    start
-                ),
-
-                new LoopStatement(
-                    // iteratorObjectId.has_next()
-                    new CallExpression(
-                        new LoadAttributeExpression(
-                            new LoadSymbolExpression(iteratorId, region),
-                            "has_next",
-                            region
-                        ),
-                        Collections.emptyList(),
-                        region
-                    ),
-
-                    new BlockStatement(Arrays.asList(
-                        // variableId = iteratorObjectId.get_next()
-                        new AssignSymbolStatement(
-                            variableId,
-                            new CallExpression(
-                                new LoadAttributeExpression(
-                                    new LoadSymbolExpression(iteratorId, region),
-                                    "get_next",
-                                    region
-                                ),
-                                Collections.emptyList(),
-                                region
-                            ),
-                            region
-                        ),
-                        body
-                    ), region),
-                    name,
-                    region
-                )
-            ), region);
-        }
+        return new RangeStatement(variable.getStringValue(), begin, end, inclusive, body, name, start.until(body.getRegion()));
     }
 
     private ContinueStatement parseContinueStatement() throws ScriptException {
@@ -320,6 +253,13 @@ public class Parser {
         return new ReturnStatement(value, start.until(end.getRegion()));
     }
 
+    private YieldStatement parseYieldStatement() throws ScriptException {
+        Region start = expect(Yield).getRegion();
+        Expression value = parseExpression();
+        Token end = expect(Semicolon);
+        return new YieldStatement(value, start.until(end.getRegion()));
+    }
+
     private ThrowStatement parseThrowStatement() throws ScriptException {
         Region start = expect(Throw).getRegion();
         Expression value = parseExpression();
@@ -477,7 +417,7 @@ public class Parser {
     }
 
     private Expression parsePrimaryExpression() throws ScriptException {
-        Token token = expect(Symbol, Number, True, False, None, String, StringPart, New, Super, ParenL, BracketL);
+        Token token = expect(Symbol, Number, True, False, None, String, StringPart, New, Super, ParenL, BracketL, BraceL);
         Region start = token.getRegion();
 
         if (token.getKind() == Symbol) {
@@ -505,27 +445,22 @@ public class Parser {
         }
 
         if (token.getKind() == StringPart) {
-            Expression lhs = new LoadConstantExpression<>(token.getStringValue(), start);
-            Expression rhs = parseExpression();
-            Expression string = new BinaryExpression(lhs, rhs, Add, lhs.getRegion().until(rhs.getRegion()));
+            List<Expression> parts = new ArrayList<>();
 
             while (true) {
-                token = expect(String, StringPart);
-
                 if (!token.getStringValue().isEmpty()) {
-                    rhs = new LoadConstantExpression<>(token.getStringValue(), start.until(token.getRegion()));
-                    string = new BinaryExpression(string, rhs, Add, string.getRegion().until(rhs.getRegion()));
+                    parts.add(new LoadConstantExpression<>(token.getStringValue(), token.getRegion()));
                 }
 
                 if (token.getKind() == String) {
                     break;
                 }
 
-                rhs = parseExpression();
-                string = new BinaryExpression(string, rhs, Add, string.getRegion().until(rhs.getRegion()));
+                parts.add(parseExpression());
+                token = expect(String, StringPart);
             }
 
-            return parsePrimaryExpression(string);
+            return parsePrimaryExpression(new ConcatExpression(parts, start.until(token.getRegion())));
         }
 
         if (token.getKind() == New) {
@@ -575,6 +510,27 @@ public class Parser {
             return parsePrimaryExpression(new ArrayExpression(elements, start.until(end)));
         }
 
+        if (token.getKind() == BraceL) {
+            List<Expression> keys = new ArrayList<>();
+            List<Expression> values = new ArrayList<>();
+
+            if (!matches(BraceR)) {
+                keys.add(parseExpression());
+                expect(Colon);
+                values.add(parseExpression());
+
+                while (!matches(BraceR, End)) {
+                    expect(Comma);
+                    keys.add(parseExpression());
+                    expect(Colon);
+                    values.add(parseExpression());
+                }
+            }
+
+            Region end = expect(BraceR).getRegion();
+            return parsePrimaryExpression(new DictExpression(keys, values, start.until(end)));
+        }
+
         throw new AssertionError("Unreachable");
     }
 
@@ -10,11 +10,27 @@ import java.util.List;
 
 public class FunctionContext extends Context {
     private final List<Guard> guards;
+    private final boolean generator;
 
     public FunctionContext(Context parent) {
+        this(parent, false);
+    }
+
+    public FunctionContext(Context parent, boolean generator) {
         super(parent);
         this.nextLocalSlot = 0;
         this.guards = new ArrayList<>();
+        this.generator = generator;
+    }
+
+    /**
+     * Returns whether the function being compiled contains {@code yield}
+     * statements and thus returns a generator when called.
+     *
+     * @return {@code true} if the function is a generator
+     */
+    public boolean isGenerator() {
+        return generator;
     }
 
     public List<Guard> getGuards() {
@@ -31,9 +31,39 @@ public class CallExpression extends Expression {
             argument.compile(context, assembler);
         }
 
+        if (callee instanceof LoadAttributeExpression) {
+            final LoadAttributeExpression attribute = (LoadAttributeExpression) callee;
+
+            attribute.getOwner().compile(context, assembler);
+
+            assembler.emit(Operation.CALL_METHOD, Operand.constant(attribute.getName()), Operand.imm8(arguments.size()));
+            assembler.addLocation(getRegion().getBegin());
+        } else {
+            callee.compile(context, assembler);
+
+            assembler.emit(Operation.CALL, Operand.imm8(arguments.size()));
+            assembler.addLocation(getRegion().getBegin());
+        }
+    }
+
+    /**
+     * Compiles this call as the value of a return statement, letting the callee
+     * reuse the caller's frame. Method calls are compiled as regular calls.
+     * The caller must emit {@code RETURN} right after this call.
+     */
+    public void compileTailCall(Context context, Assembler assembler) throws ScriptException {
+        if (callee instanceof LoadAttributeExpression) {
+            compile(context, assembler);
+            return;
+        }
+
+        for (Expression argument : arguments) {
+            argument.compile(context, assembler);
+        }
+
         callee.compile(context, assembler);
 
-        assembler.emit(Operation.CALL, Operand.imm8(arguments.size()));
+        assembler.emit(Operation.TAIL_CALL, Operand.imm8(arguments.size()));
         assembler.addLocation(getRegion().getBegin());
     }
 
@@ -0,0 +1,87 @@
+package com.shade.lang.compiler.parser.node.expr;
+
+import com.shade.lang.compiler.assembler.Assembler;
+import com.shade.lang.compiler.assembler.Operand;
+import com.shade.lang.compiler.assembler.Operation;
+import com.shade.lang.compiler.parser.ScriptException;
+import com.shade.lang.compiler.parser.node.Expression;
+import com.shade.lang.compiler.parser.node.context.Context;
+import com.shade.lang.compiler.parser.node.visitor.Visitor;
+import com.shade.lang.compiler.parser.token.Region;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Interpolated string, e.g. {@code 'a = \{a}, b = \{b}'}.
+ * <p>
+ * String representations of all parts are concatenated at once
+ * by a single {@link Operation#CONCAT} instead of a chain of
+ * additions that would build every intermediate string.
+ */
+public class ConcatExpression extends Expression {
+    private static final int MAX_PARTS = Byte.MAX_VALUE;
+
+    private final List<Expression> parts;
+
+    public ConcatExpression(List<Expression> parts, Region region) {
+        super(region);
+        this.parts = parts;
+    }
+
+    @Override
+    public void compile(Context context, Assembler assembler) throws ScriptException {
+        int pending = 0;
+
+        for (Expression part : parts) {
+            if (pending == MAX_PARTS) {
+                assembler.emit(Operation.CONCAT, Operand.imm8(pending));
+                pending = 1;
+            }
+
+            part.compile(context, assembler);
+            pending++;
+        }
+
+        assembler.emit(Operation.CONCAT, Operand.imm8(pending));
+    }
+
+    @NotNull
+    @Override
+    public Expression accept(@NotNull Visitor visitor) {
+        if (visitor.enterConcatExpression(this)) {
+            final List<Expression> parts = this.parts
+                .stream()
+                .map(x -> x.accept(visitor))
+                .collect(Collectors.toList());
+
+            if (!parts.equals(this.parts)) {
+                return visitor.leaveConcatExpression(new ConcatExpression(parts, getRegion()));
+            } else {
+                return visitor.leaveConcatExpression(this);
+            }
+        }
+
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConcatExpression that = (ConcatExpression) o;
+        return parts.equals(that.parts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(parts);
+    }
+
+    @NotNull
+    public List<Expression> getParts() {
+        return parts;
+    }
+}
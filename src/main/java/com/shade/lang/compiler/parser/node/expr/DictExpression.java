@@ -0,0 +1,86 @@
+package com.shade.lang.compiler.parser.node.expr;
+
+import com.shade.lang.compiler.assembler.Assembler;
+import com.shade.lang.compiler.parser.ScriptException;
+import com.shade.lang.compiler.parser.node.Expression;
+import com.shade.lang.compiler.parser.node.context.Context;
+import com.shade.lang.compiler.parser.node.visitor.Visitor;
+import com.shade.lang.compiler.parser.token.Region;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Dictionary literal, e.g. {@code {'a': 1, 'b': 2}}.
+ * <p>
+ * Compiles to a call to {@code <builtin>.dict} with keys
+ * and values interleaved, in the order they were written.
+ */
+public class DictExpression extends Expression {
+    private final List<Expression> keys;
+    private final List<Expression> values;
+
+    public DictExpression(List<Expression> keys, List<Expression> values, Region region) {
+        super(region);
+        this.keys = keys;
+        this.values = values;
+    }
+
+    @Override
+    public void compile(Context context, Assembler assembler) throws ScriptException {
+        final List<Expression> arguments = new ArrayList<>(keys.size() * 2);
+
+        for (int index = 0; index < keys.size(); index++) {
+            arguments.add(keys.get(index));
+            arguments.add(values.get(index));
+        }
+
+        Expression call = new CallExpression(
+            new LoadAttributeExpression(
+                new LoadSymbolExpression("<builtin>", getRegion()),
+                "dict",
+                getRegion()
+            ),
+            arguments,
+            getRegion()
+        );
+
+        call.compile(context, assembler);
+    }
+
+    @NotNull
+    @Override
+    public Expression accept(@NotNull Visitor visitor) {
+        if (visitor.enterDictExpression(this)) {
+            final List<Expression> keys = this.keys
+                .stream()
+                .map(x -> x.accept(visitor))
+                .collect(Collectors.toList());
+
+            final List<Expression> values = this.values
+                .stream()
+                .map(x -> x.accept(visitor))
+                .collect(Collectors.toList());
+
+            if (!keys.equals(this.keys) || !values.equals(this.values)) {
+                return visitor.leaveDictExpression(new DictExpression(keys, values, getRegion()));
+            } else {
+                return visitor.leaveDictExpression(this);
+            }
+        }
+
+        return this;
+    }
+
+    @NotNull
+    public List<Expression> getKeys() {
+        return keys;
+    }
+
+    @NotNull
+    public List<Expression> getValues() {
+        return values;
+    }
+}
@@ -64,6 +64,7 @@ public class DeclareClassStatement extends Statement {
             (byte) 0,
             (byte) 0,
             (byte) 0,
+            (short) assembler.getMaxStackSize(),
             new Attribute[] {
                 new LineNumberTableAttribute(assembler.getComputedLocations())
             }
@@ -71,8 +71,14 @@ public class DeclareFunctionStatement extends Statement {
         assembler = new Assembler();
         assembler.addLocation(getRegion().getBegin());
 
+        final boolean generator = YieldStatement.isGenerator(body);
+
+        if (generator && name.equals("<init>")) {
+            throw new ScriptException("Constructor cannot contain 'yield' statements", getRegion());
+        }
+
         final AtomicInteger functionLocalsCount = new AtomicInteger();
-        final FunctionContext functionContext = new FunctionContext(context);
+        final FunctionContext functionContext = new FunctionContext(context, generator);
 
         functionContext.addListener((name, slot) -> {
             if (functionLocalsCount.get() <= slot) {
@@ -105,6 +111,10 @@ public class DeclareFunctionStatement extends Statement {
             functionFlags |= Chunk.FLAG_VARIADIC;
         }
 
+        if (generator) {
+            functionFlags |= Chunk.FLAG_GENERATOR;
+        }
+
         final Chunk chunk = new Chunk(
             assembler.assemble().array(),
             assembler.getConstants().toArray(),
@@ -113,6 +123,7 @@ public class DeclareFunctionStatement extends Statement {
             (byte) arguments.size(),
             (byte) boundArguments.size(),
             (byte) functionLocalsCount.get(),
+            (short) assembler.getMaxStackSize(),
             new Attribute[]{
                 new LineNumberTableAttribute(assembler.getComputedLocations())
             }
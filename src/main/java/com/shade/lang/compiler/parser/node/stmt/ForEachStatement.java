@@ -0,0 +1,110 @@
+package com.shade.lang.compiler.parser.node.stmt;
+
+import com.shade.lang.compiler.assembler.Assembler;
+import com.shade.lang.compiler.assembler.Operand;
+import com.shade.lang.compiler.assembler.Operation;
+import com.shade.lang.compiler.parser.ScriptException;
+import com.shade.lang.compiler.parser.node.Expression;
+import com.shade.lang.compiler.parser.node.Statement;
+import com.shade.lang.compiler.parser.node.context.Context;
+import com.shade.lang.compiler.parser.node.context.LoopContext;
+import com.shade.lang.compiler.parser.node.visitor.Visitor;
+import com.shade.lang.compiler.parser.token.Region;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Loop over values produced by a generator, e.g.
+ * {@code for x in numbers(10) { ... }}.
+ * <p>
+ * The generator is kept in a hidden local slot and is resumed once per
+ * iteration, storing the yielded value directly into the loop's variable.
+ *
+ * @see YieldStatement
+ */
+public class ForEachStatement extends Statement {
+    private final String variable;
+    private final Expression generator;
+    private final BlockStatement body;
+    private final String name;
+
+    public ForEachStatement(String variable, Expression generator, BlockStatement body, String name, Region region) {
+        super(region);
+        this.variable = variable;
+        this.generator = generator;
+        this.body = body;
+        this.name = name;
+    }
+
+    @Override
+    public void compile(Context context, Assembler assembler) throws ScriptException {
+        try (Context inner = context.enter()) {
+            if (inner.hasSlot(variable)) {
+                throw new ScriptException("Local variable '" + variable + "' already declared", getRegion());
+            }
+
+            generator.compile(inner, assembler);
+
+            final int generatorSlot = inner.addSlot(UUID.randomUUID().toString());
+            final int variableSlot = inner.addSlot(variable);
+
+            assembler.emit(Operation.SET_LOCAL, Operand.imm8(generatorSlot));
+
+            final int start = assembler.getPosition();
+            final Assembler.Label exit = assembler.jump(Operation.RESUME, Operand.imm8(generatorSlot), Operand.imm8(variableSlot));
+            assembler.addLocation(getRegion().getBegin());
+
+            final LoopContext loopContext = new LoopContext(inner, name);
+            body.compile(loopContext, assembler);
+
+            assembler.bind(assembler.jump(Operation.JUMP), start);
+
+            for (LoopContext.Canceller canceller : loopContext.getCancellers()) {
+                switch (canceller.getType()) {
+                    case Continue:
+                        assembler.bind(canceller.getLabel(), start);
+                        break;
+                    case Break:
+                        assembler.bind(canceller.getLabel());
+                        break;
+                }
+            }
+
+            assembler.bind(exit);
+        }
+    }
+
+    @NotNull
+    @Override
+    public Statement accept(@NotNull Visitor visitor) {
+        if (visitor.enterForEachStatement(this)) {
+            final Expression generator = this.generator.accept(visitor);
+            final BlockStatement body = (BlockStatement) this.body.accept(visitor);
+
+            if (generator != this.generator || body != this.body) {
+                return visitor.leaveForEachStatement(new ForEachStatement(variable, generator, body, name, getRegion()));
+            } else {
+                return visitor.leaveForEachStatement(this);
+            }
+        }
+
+        return this;
+    }
+
+    public String getVariable() {
+        return variable;
+    }
+
+    public Expression getGenerator() {
+        return generator;
+    }
+
+    public BlockStatement getBody() {
+        return body;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,124 @@
+package com.shade.lang.compiler.parser.node.stmt;
+
+import com.shade.lang.compiler.assembler.Assembler;
+import com.shade.lang.compiler.assembler.Operand;
+import com.shade.lang.compiler.assembler.Operation;
+import com.shade.lang.compiler.parser.ScriptException;
+import com.shade.lang.compiler.parser.node.Expression;
+import com.shade.lang.compiler.parser.node.Statement;
+import com.shade.lang.compiler.parser.node.context.Context;
+import com.shade.lang.compiler.parser.node.context.LoopContext;
+import com.shade.lang.compiler.parser.node.visitor.Visitor;
+import com.shade.lang.compiler.parser.token.Region;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Counted loop over integers between {@code begin} and {@code end}, e.g.
+ * {@code for i in 0..10 { ... }}. The loop counts downwards if {@code begin}
+ * is greater than {@code end}.
+ * <p>
+ * The counter and its limit are kept in two hidden local slots so that
+ * assignments to the loop variable do not affect the iteration.
+ */
+public class RangeStatement extends Statement {
+    private final String variable;
+    private final Expression begin;
+    private final Expression end;
+    private final boolean inclusive;
+    private final BlockStatement body;
+    private final String name;
+
+    public RangeStatement(String variable, Expression begin, Expression end, boolean inclusive, BlockStatement body, String name, Region region) {
+        super(region);
+        this.variable = variable;
+        this.begin = begin;
+        this.end = end;
+        this.inclusive = inclusive;
+        this.body = body;
+        this.name = name;
+    }
+
+    @Override
+    public void compile(Context context, Assembler assembler) throws ScriptException {
+        try (Context inner = context.enter()) {
+            if (inner.hasSlot(variable)) {
+                throw new ScriptException("Local variable '" + variable + "' already declared", getRegion());
+            }
+
+            begin.compile(inner, assembler);
+            end.compile(inner, assembler);
+
+            // The limit is kept in the slot that follows the counter
+            final int counterSlot = inner.addSlot(UUID.randomUUID().toString());
+            inner.addSlot(UUID.randomUUID().toString());
+            final int variableSlot = inner.addSlot(variable);
+
+            final Assembler.Label exit = assembler.jump(Operation.FOR_RANGE_INIT, Operand.imm8(counterSlot), Operand.imm8(variableSlot), Operand.imm8(inclusive ? 1 : 0));
+            assembler.addLocation(getRegion().getBegin());
+
+            final int start = assembler.getPosition();
+            final LoopContext loopContext = new LoopContext(inner, name);
+            body.compile(loopContext, assembler);
+
+            for (LoopContext.Canceller canceller : loopContext.getCancellers()) {
+                if (canceller.getType() == LoopContext.CancelType.Continue) {
+                    assembler.bind(canceller.getLabel());
+                }
+            }
+
+            assembler.bind(assembler.jump(Operation.FOR_RANGE_NEXT, Operand.imm8(counterSlot), Operand.imm8(variableSlot)), start);
+
+            for (LoopContext.Canceller canceller : loopContext.getCancellers()) {
+                if (canceller.getType() == LoopContext.CancelType.Break) {
+                    assembler.bind(canceller.getLabel());
+                }
+            }
+
+            assembler.bind(exit);
+        }
+    }
+
+    @NotNull
+    @Override
+    public Statement accept(@NotNull Visitor visitor) {
+        if (visitor.enterRangeStatement(this)) {
+            final Expression begin = this.begin.accept(visitor);
+            final Expression end = this.end.accept(visitor);
+            final BlockStatement body = (BlockStatement) this.body.accept(visitor);
+
+            if (begin != this.begin || end != this.end || body != this.body) {
+                return visitor.leaveRangeStatement(new RangeStatement(variable, begin, end, inclusive, body, name, getRegion()));
+            } else {
+                return visitor.leaveRangeStatement(this);
+            }
+        }
+
+        return this;
+    }
+
+    public String getVariable() {
+        return variable;
+    }
+
+    public Expression getBegin() {
+        return begin;
+    }
+
+    public Expression getEnd() {
+        return end;
+    }
+
+    public boolean isInclusive() {
+        return inclusive;
+    }
+
+    public BlockStatement getBody() {
+        return body;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -6,9 +6,11 @@ import com.shade.lang.compiler.assembler.Operation;
 import com.shade.lang.compiler.parser.ScriptException;
 import com.shade.lang.compiler.parser.node.Expression;
 import com.shade.lang.compiler.parser.node.Statement;
+import com.shade.lang.compiler.parser.node.expr.CallExpression;
 import com.shade.lang.compiler.parser.node.visitor.Visitor;
 import com.shade.lang.compiler.parser.node.context.Context;
 import com.shade.lang.compiler.parser.node.context.FinallyContext;
+import com.shade.lang.compiler.parser.node.context.FunctionContext;
 import com.shade.lang.compiler.parser.token.Region;
 import com.shade.lang.runtime.objects.value.NoneValue;
 import com.shade.lang.util.annotations.NotNull;
@@ -36,7 +38,14 @@ public class ReturnStatement extends Statement {
             finallyContext.compile(assembler);
         }
 
-        if (value != null) {
+        final FunctionContext functionContext = context.unwrap(FunctionContext.class);
+        final boolean generator = functionContext != null && functionContext.isGenerator();
+
+        if (value instanceof CallExpression && finallyContext == null && !generator) {
+            // Guards of enclosing try statements must still see the caller's frame,
+            // and generators must keep their own frame to be able to finish
+            ((CallExpression) value).compileTailCall(context, assembler);
+        } else if (value != null) {
             value.compile(context, assembler);
         } else {
             assembler.emit(Operation.PUSH, Operand.constant(NoneValue.INSTANCE));
@@ -55,6 +55,7 @@ public class UnitStatement extends Statement {
             (byte) 0,
             (byte) 0,
             (byte) 0,
+            (short) assembler.getMaxStackSize(),
             new Attribute[]{
                 new LineNumberTableAttribute(assembler.getComputedLocations())
             }
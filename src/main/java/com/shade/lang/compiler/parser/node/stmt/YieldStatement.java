@@ -0,0 +1,127 @@
+package com.shade.lang.compiler.parser.node.stmt;
+
+import com.shade.lang.compiler.assembler.Assembler;
+import com.shade.lang.compiler.assembler.Operation;
+import com.shade.lang.compiler.parser.ScriptException;
+import com.shade.lang.compiler.parser.node.Expression;
+import com.shade.lang.compiler.parser.node.Node;
+import com.shade.lang.compiler.parser.node.Statement;
+import com.shade.lang.compiler.parser.node.context.Context;
+import com.shade.lang.compiler.parser.node.context.FunctionContext;
+import com.shade.lang.compiler.parser.node.expr.LambdaExpression;
+import com.shade.lang.compiler.parser.node.visitor.AbstractVisitor;
+import com.shade.lang.compiler.parser.node.visitor.Visitor;
+import com.shade.lang.compiler.parser.token.Region;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Suspends a generator and passes the {@code value} to the loop that resumed it, e.g.
+ * {@code yield x;}. A function containing this statement becomes a generator:
+ * calling it returns a generator object without executing the function's body.
+ *
+ * @see ForEachStatement
+ */
+public class YieldStatement extends Statement {
+    private final Expression value;
+
+    public YieldStatement(@NotNull Expression value, @NotNull Region region) {
+        super(region);
+        this.value = value;
+    }
+
+    /**
+     * Checks whether the supplied {@code body} of a function contains
+     * {@code yield} statements, not counting nested functions and classes.
+     *
+     * @param body body of the function
+     * @return {@code true} if the function is a generator
+     */
+    public static boolean isGenerator(@NotNull Node body) {
+        final boolean[] found = {false};
+
+        body.accept(new AbstractVisitor() {
+            @Override
+            public boolean enterDefault(@NotNull Node node) {
+                return !found[0];
+            }
+
+            @NotNull
+            @Override
+            public <T extends Node> T leaveDefault(@NotNull T node) {
+                return node;
+            }
+
+            @Override
+            public boolean enterDeclareFunctionStatement(@NotNull DeclareFunctionStatement statement) {
+                return false;
+            }
+
+            @Override
+            public boolean enterDeclareClassStatement(@NotNull DeclareClassStatement statement) {
+                return false;
+            }
+
+            @Override
+            public boolean enterLambdaExpression(@NotNull LambdaExpression expression) {
+                return false;
+            }
+
+            @Override
+            public boolean enterYieldStatement(@NotNull YieldStatement statement) {
+                found[0] = true;
+                return false;
+            }
+        });
+
+        return found[0];
+    }
+
+    @Override
+    public void compile(Context context, Assembler assembler) throws ScriptException {
+        final FunctionContext functionContext = context.unwrap(FunctionContext.class);
+
+        if (functionContext == null || !functionContext.isGenerator()) {
+            throw new ScriptException("The 'yield' statement is only allowed inside functions", getRegion());
+        }
+
+        value.compile(context, assembler);
+        assembler.emit(Operation.YIELD);
+        assembler.addLocation(getRegion().getBegin());
+    }
+
+    @NotNull
+    @Override
+    public Statement accept(@NotNull Visitor visitor) {
+        if (visitor.enterYieldStatement(this)) {
+            final Expression value = this.value.accept(visitor);
+
+            if (value != this.value) {
+                return visitor.leaveYieldStatement(new YieldStatement(value, getRegion()));
+            } else {
+                return visitor.leaveYieldStatement(this);
+            }
+        }
+
+        return this;
+    }
+
+    @NotNull
+    public Expression getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        YieldStatement statement = (YieldStatement) o;
+        return Objects.equals(value, statement.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(value);
+    }
+}
@@ -59,6 +59,28 @@ public abstract class AbstractVisitor implements Visitor {
         return leaveDefault(expression);
     }
 
+    @Override
+    public boolean enterConcatExpression(@NotNull ConcatExpression expression) {
+        return enterDefault(expression);
+    }
+
+    @NotNull
+    @Override
+    public Expression leaveConcatExpression(@NotNull ConcatExpression expression) {
+        return leaveDefault(expression);
+    }
+
+    @Override
+    public boolean enterDictExpression(@NotNull DictExpression expression) {
+        return enterDefault(expression);
+    }
+
+    @NotNull
+    @Override
+    public Expression leaveDictExpression(@NotNull DictExpression expression) {
+        return leaveDefault(expression);
+    }
+
     @Override
     public boolean enterLambdaExpression(@NotNull LambdaExpression expression) {
         return enterDefault(expression);
@@ -301,6 +323,17 @@ public abstract class AbstractVisitor implements Visitor {
         return leaveDefault(statement);
     }
 
+    @Override
+    public boolean enterForEachStatement(@NotNull ForEachStatement statement) {
+        return enterDefault(statement);
+    }
+
+    @NotNull
+    @Override
+    public Statement leaveForEachStatement(@NotNull ForEachStatement statement) {
+        return leaveDefault(statement);
+    }
+
     @Override
     public boolean enterImportStatement(@NotNull ImportStatement statement) {
         return enterDefault(statement);
@@ -323,6 +356,17 @@ public abstract class AbstractVisitor implements Visitor {
         return leaveDefault(statement);
     }
 
+    @Override
+    public boolean enterRangeStatement(@NotNull RangeStatement statement) {
+        return enterDefault(statement);
+    }
+
+    @NotNull
+    @Override
+    public Statement leaveRangeStatement(@NotNull RangeStatement statement) {
+        return leaveDefault(statement);
+    }
+
     @Override
     public boolean enterReturnStatement(@NotNull ReturnStatement statement) {
         return enterDefault(statement);
@@ -366,4 +410,15 @@ public abstract class AbstractVisitor implements Visitor {
     public Statement leaveUnitStatement(@NotNull UnitStatement statement) {
         return leaveDefault(statement);
     }
+
+    @Override
+    public boolean enterYieldStatement(@NotNull YieldStatement statement) {
+        return enterDefault(statement);
+    }
+
+    @NotNull
+    @Override
+    public Statement leaveYieldStatement(@NotNull YieldStatement statement) {
+        return leaveDefault(statement);
+    }
 }
@@ -33,6 +33,16 @@ public interface Visitor {
     @NotNull
     Expression leaveCompoundExpression(@NotNull CompoundExpression expression);
 
+    boolean enterConcatExpression(@NotNull ConcatExpression expression);
+
+    @NotNull
+    Expression leaveConcatExpression(@NotNull ConcatExpression expression);
+
+    boolean enterDictExpression(@NotNull DictExpression expression);
+
+    @NotNull
+    Expression leaveDictExpression(@NotNull DictExpression expression);
+
     boolean enterLambdaExpression(@NotNull LambdaExpression expression);
 
     @NotNull
@@ -143,6 +153,11 @@ public interface Visitor {
     @NotNull
     Statement leaveExpressionStatement(@NotNull ExpressionStatement statement);
 
+    boolean enterForEachStatement(@NotNull ForEachStatement statement);
+
+    @NotNull
+    Statement leaveForEachStatement(@NotNull ForEachStatement statement);
+
     boolean enterImportStatement(@NotNull ImportStatement statement);
 
     @NotNull
@@ -153,6 +168,11 @@ public interface Visitor {
     @NotNull
     Statement leaveLoopStatement(@NotNull LoopStatement statement);
 
+    boolean enterRangeStatement(@NotNull RangeStatement statement);
+
+    @NotNull
+    Statement leaveRangeStatement(@NotNull RangeStatement statement);
+
     boolean enterReturnStatement(@NotNull ReturnStatement statement);
 
     @NotNull
@@ -172,4 +192,9 @@ public interface Visitor {
 
     @NotNull
     Statement leaveUnitStatement(@NotNull UnitStatement statement);
+
+    boolean enterYieldStatement(@NotNull YieldStatement statement);
+
+    @NotNull
+    Statement leaveYieldStatement(@NotNull YieldStatement statement);
 }
@@ -38,6 +38,7 @@ public enum TokenKind {
     Super("super", 0, TokenFlag.QUOTED | TokenFlag.KEYWORD),
     Constructor("constructor", 0, TokenFlag.QUOTED | TokenFlag.KEYWORD),
     In("in", 0, TokenFlag.QUOTED | TokenFlag.KEYWORD),
+    Yield("yield", 0, TokenFlag.QUOTED | TokenFlag.KEYWORD),
 
     /* Operators */
     ParenL("(", 0, TokenFlag.QUOTED),
@@ -0,0 +1,98 @@
+package com.shade.lang.engine;
+
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.util.annotations.NotNull;
+import com.shade.lang.util.annotations.Nullable;
+
+/**
+ * Reusable handle of a script function obtained from {@link ScriptEngine#lookup}.
+ * <p>
+ * The function is resolved once per pooled machine, so invoking a handle
+ * neither looks up the module nor the function by name. Arguments and
+ * the result are converted using marshallers chosen upon lookup.
+ * <p>
+ * Handles are thread-safe and are meant to be kept for the lifetime of the engine.
+ *
+ * @param <R> type of the function's result
+ */
+public final class CallHandle<R> {
+    private final ScriptEngine engine;
+    private final int id;
+    private final String module;
+    private final String function;
+    private final Marshaller<R> result;
+    private final Marshaller<?>[] arguments;
+    private final CallMetrics metrics = new CallMetrics();
+
+    CallHandle(@NotNull ScriptEngine engine, int id, @NotNull String module, @NotNull String function, @NotNull Marshaller<R> result, @Nullable Marshaller<?>[] arguments) {
+        this.engine = engine;
+        this.id = id;
+        this.module = module;
+        this.function = function;
+        this.result = result;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Invokes the function on one of the engine's machines, waiting
+     * for a machine to become free if all of them are busy.
+     *
+     * @param args arguments to pass
+     * @return converted result of the function
+     * @throws IllegalArgumentException if arguments do not match the handle's signature
+     * @throws ScriptEngineException    if the function has panicked or the call was rejected
+     */
+    @Nullable
+    public R invoke(Object... args) {
+        if (arguments != null && arguments.length != args.length) {
+            throw new IllegalArgumentException("Function '" + module + '/' + function + "' accepts " + arguments.length + " argument(-s) but " + args.length + " were provided");
+        }
+
+        final ScriptObject[] values = new ScriptObject[args.length];
+
+        for (int index = 0; index < args.length; index++) {
+            final Marshaller<?> marshaller = arguments != null ? arguments[index] : Marshallers.OBJECT;
+            values[index] = marshal(marshaller, args[index]);
+        }
+
+        final ScriptObject value = engine.invoke(this, values);
+
+        try {
+            return result.unmarshal(value);
+        } catch (IllegalArgumentException e) {
+            throw new ScriptEngineException("Cannot convert result of '" + module + '/' + function + "': " + e.getMessage(), e);
+        }
+    }
+
+    @NotNull
+    private static <T> ScriptObject marshal(@NotNull Marshaller<T> marshaller, @Nullable Object value) {
+        if (value != null && !marshaller.getType().isInstance(value)) {
+            throw new IllegalArgumentException("Expected " + marshaller.getType().getSimpleName() + " but got " + value.getClass().getSimpleName());
+        }
+        return marshaller.marshal(marshaller.getType().cast(value));
+    }
+
+    @NotNull
+    public String getModule() {
+        return module;
+    }
+
+    @NotNull
+    public String getFunction() {
+        return function;
+    }
+
+    @NotNull
+    public CallMetrics getMetrics() {
+        return metrics;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "[CallHandle '" + module + '/' + function + "']";
+    }
+}
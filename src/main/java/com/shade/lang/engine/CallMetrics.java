@@ -0,0 +1,84 @@
+package com.shade.lang.engine;
+
+import com.shade.lang.util.Histogram;
+import com.shade.lang.util.annotations.NotNull;
+
+/**
+ * Latency metrics of a single {@link CallHandle}, shared by all threads invoking it.
+ * <p>
+ * Each completed call records the time spent waiting for a machine
+ * and the time spent executing the function, in nanoseconds. Calls
+ * that were rejected because the queue of waiting callers was full
+ * are only counted.
+ */
+public class CallMetrics {
+    private final Histogram waitTime = new Histogram();
+    private final Histogram runTime = new Histogram();
+    private long failed;
+    private long rejected;
+
+    synchronized void record(long waitTime, long runTime, boolean failed) {
+        this.waitTime.record(waitTime);
+        this.runTime.record(runTime);
+
+        if (failed) {
+            this.failed++;
+        }
+    }
+
+    synchronized void reject() {
+        rejected++;
+    }
+
+    /**
+     * Returns a copy of the histogram of time spent waiting for a free machine.
+     *
+     * @return histogram of wait times, in nanoseconds
+     */
+    @NotNull
+    public synchronized Histogram getWaitTime() {
+        return new Histogram(waitTime);
+    }
+
+    /**
+     * Returns a copy of the histogram of time spent executing the function.
+     *
+     * @return histogram of run times, in nanoseconds
+     */
+    @NotNull
+    public synchronized Histogram getRunTime() {
+        return new Histogram(runTime);
+    }
+
+    public synchronized long getCompleted() {
+        return runTime.getCount();
+    }
+
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public synchronized void reset() {
+        waitTime.reset();
+        runTime.reset();
+        failed = 0;
+        rejected = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("[calls: %d, failed: %d, rejected: %d, wait p50: %.3fms, p99: %.3fms, run p50: %.3fms, p99: %.3fms, max: %.3fms]",
+            runTime.getCount(),
+            failed,
+            rejected,
+            waitTime.getPercentile(50) / 1e6D,
+            waitTime.getPercentile(99) / 1e6D,
+            runTime.getPercentile(50) / 1e6D,
+            runTime.getPercentile(99) / 1e6D,
+            runTime.getMax() / 1e6D);
+    }
+}
@@ -0,0 +1,41 @@
+package com.shade.lang.engine;
+
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.util.annotations.NotNull;
+import com.shade.lang.util.annotations.Nullable;
+
+/**
+ * Converts values of a single Java type to script objects and back.
+ *
+ * @param <T> type of Java values
+ * @see Marshallers
+ */
+public interface Marshaller<T> {
+    /**
+     * Returns a type of Java values this marshaller converts.
+     *
+     * @return type of values
+     */
+    @NotNull
+    Class<T> getType();
+
+    /**
+     * Converts the supplied Java {@code value} to a script object.
+     *
+     * @param value value to convert
+     * @return script object representing the value
+     * @throws IllegalArgumentException if the value cannot be converted
+     */
+    @NotNull
+    ScriptObject marshal(@Nullable T value);
+
+    /**
+     * Converts the supplied script {@code object} to a Java value.
+     *
+     * @param object object to convert
+     * @return Java value representing the object
+     * @throws IllegalArgumentException if the object cannot be converted
+     */
+    @Nullable
+    T unmarshal(@NotNull ScriptObject object);
+}
@@ -0,0 +1,131 @@
+package com.shade.lang.engine;
+
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.runtime.objects.value.*;
+import com.shade.lang.util.annotations.NotNull;
+import com.shade.lang.util.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * Marshallers of Java types supported by {@link ScriptEngine}.
+ */
+public final class Marshallers {
+    public static final Marshaller<Integer> INTEGER = new SimpleMarshaller<>(Integer.class, IntegerValue::valueOf, object -> unwrap(object, IntegerValue.class).getValue());
+    public static final Marshaller<Float> FLOAT = new SimpleMarshaller<>(Float.class, FloatValue::new, Marshallers::toFloat);
+    public static final Marshaller<Boolean> BOOLEAN = new SimpleMarshaller<>(Boolean.class, BooleanValue::valueOf, object -> (Boolean) unwrap(object, BooleanValue.class).getValue());
+    public static final Marshaller<String> STRING = new SimpleMarshaller<>(String.class, StringValue::new, object -> unwrap(object, StringValue.class).getValue());
+    public static final Marshaller<ScriptObject> SCRIPT_OBJECT = new SimpleMarshaller<>(ScriptObject.class, object -> object, object -> object);
+    public static final Marshaller<Object> OBJECT = new SimpleMarshaller<>(Object.class, Marshallers::toScript, Marshallers::toJava);
+
+    private Marshallers() {
+    }
+
+    /**
+     * Returns a marshaller of the specified {@code type}.
+     *
+     * @param type type of Java values
+     * @param <T>  type of Java values
+     * @return marshaller of the type
+     * @throws IllegalArgumentException if there's no marshaller of the type
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> Marshaller<T> of(@NotNull Class<T> type) {
+        final Marshaller<?> marshaller;
+
+        if (type == Integer.class || type == int.class) {
+            marshaller = INTEGER;
+        } else if (type == Float.class || type == float.class) {
+            marshaller = FLOAT;
+        } else if (type == Boolean.class || type == boolean.class) {
+            marshaller = BOOLEAN;
+        } else if (type == String.class) {
+            marshaller = STRING;
+        } else if (type == ScriptObject.class) {
+            marshaller = SCRIPT_OBJECT;
+        } else if (type == Object.class) {
+            marshaller = OBJECT;
+        } else {
+            throw new IllegalArgumentException("Unsupported type: " + type.getName());
+        }
+
+        return (Marshaller<T>) marshaller;
+    }
+
+    @NotNull
+    private static ScriptObject toScript(@Nullable Object value) {
+        if (value == null) {
+            return NoneValue.INSTANCE;
+        } else if (value instanceof ScriptObject) {
+            return (ScriptObject) value;
+        } else {
+            return Value.from(value);
+        }
+    }
+
+    @Nullable
+    private static Object toJava(@NotNull ScriptObject object) {
+        if (object instanceof NoneValue) {
+            return null;
+        } else if (object instanceof Value) {
+            return ((Value) object).getValue();
+        } else {
+            return object;
+        }
+    }
+
+    @NotNull
+    private static Float toFloat(@NotNull ScriptObject object) {
+        if (object instanceof IntegerValue) {
+            return (float) ((IntegerValue) object).getValue();
+        }
+        return unwrap(object, FloatValue.class).getValue();
+    }
+
+    @NotNull
+    private static <T extends Value> T unwrap(@NotNull ScriptObject object, @NotNull Class<T> type) {
+        if (!type.isInstance(object)) {
+            throw new IllegalArgumentException("Expected " + type.getSimpleName() + " but got " + object);
+        }
+        return type.cast(object);
+    }
+
+    private static class SimpleMarshaller<T> implements Marshaller<T> {
+        private final Class<T> type;
+        private final Function<T, ScriptObject> marshaller;
+        private final Function<ScriptObject, T> unmarshaller;
+
+        public SimpleMarshaller(@NotNull Class<T> type, @NotNull Function<T, ScriptObject> marshaller, @NotNull Function<ScriptObject, T> unmarshaller) {
+            this.type = type;
+            this.marshaller = marshaller;
+            this.unmarshaller = unmarshaller;
+        }
+
+        @NotNull
+        @Override
+        public Class<T> getType() {
+            return type;
+        }
+
+        @NotNull
+        @Override
+        public ScriptObject marshal(@Nullable T value) {
+            if (value == null && type != Object.class) {
+                throw new IllegalArgumentException("Cannot marshal null as " + type.getSimpleName());
+            }
+            return marshaller.apply(value);
+        }
+
+        @Nullable
+        @Override
+        public T unmarshal(@NotNull ScriptObject object) {
+            return unmarshaller.apply(object);
+        }
+
+        @Override
+        public String toString() {
+            return "[Marshaller " + type.getSimpleName() + "]";
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.shade.lang.engine;
+
+import com.shade.lang.runtime.CodeCache;
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.runtime.objects.function.Function;
+import com.shade.lang.runtime.objects.module.Module;
+import com.shade.lang.runtime.objects.module.NativeModuleProvider;
+import com.shade.lang.util.annotations.NotNull;
+import com.shade.lang.util.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Facade for invoking scripts from Java code running on many threads.
+ * <p>
+ * The engine keeps a pool of machines that have already loaded all native
+ * modules and the modules passed to the constructor. Machines share compiled
+ * code through a single {@link CodeCache}, so functions compiled by the JIT
+ * on behalf of one machine are used by all of them, but each machine has
+ * its own module globals.
+ * <p>
+ * Each call takes a free machine from the pool for its duration. When all
+ * machines are busy, up to {@code queueCapacity} callers wait for one to
+ * become free, and the rest are rejected immediately. A machine that has
+ * panicked is discarded and replaced with a fresh one. If the replacement
+ * cannot be created, the pool and the amount of admitted callers both
+ * shrink by one, and calls fail immediately once no machines are left.
+ * <p>
+ * Closing the engine discards all pooled machines, fails all waiting and
+ * subsequent calls, and discards machines of calls that are still running
+ * once they complete.
+ */
+public class ScriptEngine implements AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(ScriptEngine.class.getName());
+
+    private final CodeCache codeCache = new CodeCache();
+    private final List<Path> searchRoots;
+    private final List<String> modules;
+    private final int poolSize;
+    private final int queueCapacity;
+    private final Deque<Instance> pool;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Semaphore admission;
+    private final AtomicInteger handles = new AtomicInteger();
+    private int machines;
+    private volatile boolean closed;
+
+    static {
+        LOG.setLevel(Machine.ENABLE_LOGGING ? null : Level.OFF);
+    }
+
+    /**
+     * Creates an engine and fills its pool with machines.
+     *
+     * @param searchRoots   paths to look for modules in
+     * @param modules       names of modules to load into every machine
+     * @param poolSize      amount of machines
+     * @param queueCapacity maximum amount of callers waiting for a free machine
+     * @throws ScriptEngineException if any of the modules cannot be loaded
+     */
+    public ScriptEngine(@NotNull List<Path> searchRoots, @NotNull List<String> modules, int poolSize, int queueCapacity) {
+        if (poolSize < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Invalid pool size or queue capacity");
+        }
+
+        this.searchRoots = new ArrayList<>(searchRoots);
+        this.modules = new ArrayList<>(modules);
+        this.poolSize = poolSize;
+        this.queueCapacity = queueCapacity;
+        this.pool = new ArrayDeque<>(poolSize);
+        this.admission = new Semaphore(poolSize + queueCapacity);
+
+        for (int index = 0; index < poolSize; index++) {
+            pool.add(new Instance());
+        }
+
+        this.machines = poolSize;
+    }
+
+    /**
+     * Looks up a function that accepts and returns values of the specified types.
+     *
+     * @param module    name of the module declaring the function
+     * @param function  name of the function
+     * @param result    type of the function's result
+     * @param arguments types of the function's arguments
+     * @param <R>       type of the function's result
+     * @return handle of the function
+     * @throws IllegalArgumentException if any of the types is not supported by {@link Marshallers}
+     * @throws ScriptEngineException    if there's no such function
+     */
+    @NotNull
+    public <R> CallHandle<R> lookup(@NotNull String module, @NotNull String function, @NotNull Class<R> result, @NotNull Class<?>... arguments) {
+        return lookup(module, function, Marshallers.of(result), Arrays.stream(arguments).map(Marshallers::of).toArray(Marshaller<?>[]::new));
+    }
+
+    /**
+     * Looks up a function that accepts any amount of arguments, which are converted
+     * using {@link Marshallers#OBJECT}, as is the result.
+     *
+     * @param module   name of the module declaring the function
+     * @param function name of the function
+     * @return handle of the function
+     * @throws ScriptEngineException if there's no such function
+     */
+    @NotNull
+    public CallHandle<Object> lookup(@NotNull String module, @NotNull String function) {
+        return lookup(module, function, Marshallers.OBJECT, null);
+    }
+
+    @NotNull
+    private <R> CallHandle<R> lookup(@NotNull String module, @NotNull String function, @NotNull Marshaller<R> result, Marshaller<?>[] arguments) {
+        final CallHandle<R> handle = new CallHandle<>(this, handles.getAndIncrement(), module, function, result, arguments);
+        final Instance instance = acquire(handle);
+
+        try {
+            instance.resolve(handle);
+        } finally {
+            release(instance);
+        }
+
+        return handle;
+    }
+
+    @NotNull
+    ScriptObject invoke(@NotNull CallHandle<?> handle, @NotNull ScriptObject[] args) {
+        final long start = System.nanoTime();
+        Instance instance = acquire(handle);
+        final long acquired = System.nanoTime();
+        ScriptObject result = null;
+
+        try {
+            final Function function = instance.resolve(handle);
+
+            instance.err.reset();
+
+            try {
+                result = instance.machine.call(function, args);
+            } catch (RuntimeException e) {
+                instance = replace();
+                throw e;
+            }
+
+            if (result == null) {
+                final String message = instance.getPanicMessage();
+                instance = replace();
+                throw new ScriptEngineException("Call to '" + handle.getModule() + '/' + handle.getFunction() + "' has failed: " + message);
+            }
+
+            return result;
+        } finally {
+            handle.getMetrics().record(acquired - start, System.nanoTime() - acquired, result == null);
+            release(instance);
+        }
+    }
+
+    @NotNull
+    private Instance acquire(@NotNull CallHandle<?> handle) {
+        if (closed) {
+            throw new ScriptEngineException("Engine is closed");
+        }
+
+        if (!admission.tryAcquire()) {
+            handle.getMetrics().reject();
+            throw new ScriptEngineException("Too many pending calls to '" + handle.getModule() + '/' + handle.getFunction() + "'");
+        }
+
+        lock.lock();
+
+        try {
+            while (pool.isEmpty() && machines > 0 && !closed) {
+                available.await();
+            }
+
+            if (closed) {
+                admission.release();
+                throw new ScriptEngineException("Engine is closed");
+            }
+
+            if (pool.isEmpty()) {
+                admission.release();
+                throw new ScriptEngineException("No machines left to call '" + handle.getModule() + '/' + handle.getFunction() + "'");
+            }
+
+            return pool.poll();
+        } catch (InterruptedException e) {
+            admission.release();
+            Thread.currentThread().interrupt();
+            throw new ScriptEngineException("Interrupted while waiting for a free machine", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(@Nullable Instance instance) {
+        if (instance == null) {
+            return;
+        }
+
+        lock.lock();
+
+        try {
+            if (!closed) {
+                pool.add(instance);
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        admission.release();
+    }
+
+    @Nullable
+    private Instance replace() {
+        LOG.info("Replacing a machine that has failed");
+
+        try {
+            return new Instance();
+        } catch (ScriptEngineException e) {
+            LOG.severe("Cannot replace machine, pool will shrink: " + e.getMessage());
+            lock.lock();
+
+            try {
+                machines--;
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+
+        try {
+            closed = true;
+            pool.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @NotNull
+    public CodeCache getCodeCache() {
+        return codeCache;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * A pooled machine along with functions it has resolved for call handles.
+     */
+    private final class Instance {
+        private final Machine machine = new Machine(codeCache);
+        private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+        private Function[] functions = new Function[8];
+
+        Instance() {
+            machine.setErr(new PrintStream(err, true));
+            machine.getSearchRoots().addAll(searchRoots);
+
+            for (NativeModuleProvider provider : ServiceLoader.load(NativeModuleProvider.class)) {
+                machine.load(provider.create(machine));
+            }
+
+            for (String module : modules) {
+                if (machine.load(module) == null || machine.isHalted()) {
+                    throw new ScriptEngineException("Cannot load module '" + module + "': " + getPanicMessage());
+                }
+            }
+        }
+
+        @NotNull
+        Function resolve(@NotNull CallHandle<?> handle) {
+            final int id = handle.getId();
+
+            if (id < functions.length && functions[id] != null) {
+                return functions[id];
+            }
+
+            final Module module = machine.getModules().get(handle.getModule());
+
+            if (module == null) {
+                throw new ScriptEngineException("No such module: " + handle.getModule());
+            }
+
+            final ScriptObject attribute = module.getAttribute(handle.getFunction());
+
+            if (!(attribute instanceof Function)) {
+                throw new ScriptEngineException("No such function: " + handle.getModule() + '/' + handle.getFunction());
+            }
+
+            if (id >= functions.length) {
+                functions = Arrays.copyOf(functions, Math.max(functions.length << 1, id + 1));
+            }
+
+            return functions[id] = (Function) attribute;
+        }
+
+        @NotNull
+        String getPanicMessage() {
+            final String message = err.toString().trim();
+            err.reset();
+            return message.isEmpty() ? "unknown error" : message;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.shade.lang.engine;
+
+/**
+ * Thrown by {@link ScriptEngine} when a script cannot be loaded
+ * or invoked, or when a call cannot be admitted.
+ */
+public class ScriptEngineException extends RuntimeException {
+    public ScriptEngineException(String message) {
+        super(message);
+    }
+
+    public ScriptEngineException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
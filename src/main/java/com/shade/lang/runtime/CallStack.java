@@ -0,0 +1,57 @@
+package com.shade.lang.runtime;
+
+import com.shade.lang.runtime.frames.Frame;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Unsynchronized array-backed stack of execution frames used by the {@link Machine}.
+ */
+public class CallStack {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Frame[] frames;
+    private int size;
+
+    public CallStack() {
+        this.frames = new Frame[INITIAL_CAPACITY];
+    }
+
+    public void push(@NotNull Frame frame) {
+        if (size == frames.length) {
+            frames = Arrays.copyOf(frames, frames.length << 1);
+        }
+        frames[size++] = frame;
+    }
+
+    @NotNull
+    public Frame pop() {
+        final Frame frame = frames[--size];
+        frames[size] = null;
+        return frame;
+    }
+
+    @NotNull
+    public Frame peek() {
+        return frames[size - 1];
+    }
+
+    @NotNull
+    public Frame get(int index) {
+        return frames[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.copyOf(frames, size));
+    }
+}
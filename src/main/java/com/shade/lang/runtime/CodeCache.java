@@ -0,0 +1,69 @@
+package com.shade.lang.runtime;
+
+import com.shade.lang.runtime.objects.Chunk;
+import com.shade.lang.util.annotations.NotNull;
+import com.shade.lang.util.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe cache of compiled module chunks keyed by path
+ * and checksum of the module's source file.
+ * <p>
+ * A single cache may be shared by many {@link Machine}s running on
+ * different threads: each machine that loads a module creates its own
+ * {@link com.shade.lang.runtime.objects.module.Module} with its own
+ * globals, but executes the same chunk, so the source is parsed and
+ * compiled only once.
+ * <p>
+ * Two machines that miss the same module at once may both compile it,
+ * in which case the chunk that was put last is kept.
+ */
+public class CodeCache {
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a cached chunk of the module at the specified {@code path}.
+     *
+     * @param path     path to the module's source file
+     * @param checksum checksum of the module's source file
+     * @return cached chunk or {@code null} if there's no chunk or it was compiled from different source
+     */
+    @Nullable
+    public Chunk get(@NotNull Path path, int checksum) {
+        final Entry entry = entries.get(path.toAbsolutePath());
+        return entry != null && entry.checksum == checksum ? entry.chunk : null;
+    }
+
+    /**
+     * Caches a chunk of the module at the specified {@code path},
+     * replacing a chunk compiled from an older version of the source.
+     *
+     * @param path     path to the module's source file
+     * @param checksum checksum of the module's source file
+     * @param chunk    compiled chunk of the module
+     */
+    public void put(@NotNull Path path, int checksum, @NotNull Chunk chunk) {
+        entries.put(path.toAbsolutePath(), new Entry(checksum, chunk));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final int checksum;
+        private final Chunk chunk;
+
+        private Entry(int checksum, @NotNull Chunk chunk) {
+            this.checksum = checksum;
+            this.chunk = chunk;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.shade.lang.runtime;
+
+import com.shade.lang.runtime.objects.Shape;
+import com.shade.lang.util.annotations.NotNull;
+
+/**
+ * Polymorphic inline cache attached to a single attribute-reading
+ * instruction of a {@link com.shade.lang.runtime.objects.Chunk}.
+ * <p>
+ * Each entry maps a receiver's {@link Shape} to the index of the slot
+ * holding the attribute read by the instruction. Since indices of
+ * attributes never change within a shape, entries never become stale.
+ * When all entries are occupied, the oldest one is replaced.
+ * <p>
+ * Chunks are shared between machines running on different threads.
+ * Entries are immutable and replaced as a whole, so a concurrent
+ * update may only lose an entry, but never mix up two of them.
+ */
+public class InlineCache {
+    public static final int MAX_ENTRIES = 4;
+
+    private final Entry[] entries = new Entry[MAX_ENTRIES];
+    private int next;
+
+    /**
+     * Returns a cached slot index for receivers of the specified {@code shape}.
+     *
+     * @param shape shape of the receiver
+     * @return index of the slot or {@code -1} if there's no such entry
+     */
+    public int get(@NotNull Shape shape) {
+        for (Entry entry : entries) {
+            if (entry != null && entry.shape == shape) {
+                return entry.index;
+            }
+        }
+        return -1;
+    }
+
+    public void put(@NotNull Shape shape, int slot) {
+        final int index = next;
+        next = (index + 1) % MAX_ENTRIES;
+        entries[index] = new Entry(shape, slot);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Entry entry : entries) {
+            if (entry != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static final class Entry {
+        private final Shape shape;
+        private final int index;
+
+        private Entry(@NotNull Shape shape, int index) {
+            this.shape = shape;
+            this.index = index;
+        }
+    }
+}
@@ -8,6 +8,8 @@ import com.shade.lang.compiler.parser.Tokenizer;
 import com.shade.lang.compiler.parser.node.Node;
 import com.shade.lang.compiler.parser.node.context.Context;
 import com.shade.lang.runtime.frames.*;
+import com.shade.lang.runtime.jit.CompiledChunk;
+import com.shade.lang.runtime.jit.JitCompiler;
 import com.shade.lang.runtime.objects.Class;
 import com.shade.lang.runtime.objects.*;
 import com.shade.lang.runtime.objects.extension.Index;
@@ -17,7 +19,10 @@ import com.shade.lang.runtime.objects.function.Function;
 import com.shade.lang.runtime.objects.function.Guard;
 import com.shade.lang.runtime.objects.function.RuntimeFunction;
 import com.shade.lang.runtime.objects.module.Module;
+import com.shade.lang.runtime.objects.value.BooleanValue;
+import com.shade.lang.runtime.objects.value.IntegerValue;
 import com.shade.lang.runtime.objects.value.NoneValue;
+import com.shade.lang.runtime.objects.value.StringValue;
 import com.shade.lang.runtime.objects.value.Value;
 import com.shade.lang.tool.serialization.ModuleSerializer;
 import com.shade.lang.util.annotations.NotNull;
@@ -27,6 +32,8 @@ import java.io.*;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,15 +47,23 @@ public class Machine {
     public static final boolean ENABLE_LOGGING = "true".equals(System.getProperty("ash.logging.enable"));
     public static final boolean ENABLE_CACHING = "true".equals(System.getProperty("ash.caching.enable"));
     public static final boolean ENABLE_VERIFICATION = "true".equals(System.getProperty("ash.verification.enable"));
+    public static final boolean ENABLE_COUNTERS = "true".equals(System.getProperty("ash.counters.enable"));
+    public static final boolean ENABLE_QUICKENING = Boolean.parseBoolean(System.getProperty("ash.opt.quickening", "true"));
 
     private static final Logger LOG = Logger.getLogger(Machine.class.getName());
 
+    private final CodeCache codeCache;
     private final List<Path> searchRoots = new ArrayList<>();
     private final Map<String, Module> modules = new HashMap<>();
-    private final Stack<ScriptObject> operandStack = new Stack<>();
-    private final Stack<Frame> callStack = new Stack<>();
-    private final Map<Frame, List<Long>> profiler = new LinkedHashMap<>();
-    private final Map<Frame, Long> profilerCache = new IdentityHashMap<>();
+    private final OperandStack operandStack = new OperandStack();
+    private final CallStack callStack = new CallStack();
+    private final Profiler profiler = new Profiler();
+    private volatile Sampler sampler;
+    private final long[] opcodeCounters = new long[256];
+    private long profilerInstructions;
+    private long profilerCacheHits;
+    private long profilerCacheMisses;
+    private int compiledFrames;
 
     private PrintStream out = System.out;
     private PrintStream err = System.err;
@@ -60,6 +75,24 @@ public class Machine {
         LOG.setLevel(Machine.ENABLE_LOGGING ? null : Level.OFF);
     }
 
+    /**
+     * Creates a machine with its own private code cache.
+     */
+    public Machine() {
+        this(new CodeCache());
+    }
+
+    /**
+     * Creates a machine that looks up and stores compiled modules in
+     * the supplied {@code codeCache}, which may be shared with other
+     * machines, possibly running on different threads.
+     *
+     * @param codeCache cache of compiled modules
+     */
+    public Machine(@NotNull CodeCache codeCache) {
+        this.codeCache = codeCache;
+    }
+
     public Module load(Path path) {
         String source = path.toAbsolutePath().toString();
         String name = path.getFileName().toString();
@@ -72,15 +105,33 @@ public class Machine {
             return modules.get(name);
         }
 
+        final int checksum;
+
+        try {
+            checksum = ModuleSerializer.readFileChecksum(path.toFile());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        final Chunk cachedChunk = codeCache.get(path, checksum);
+
+        if (cachedChunk != null) {
+            LOG.info("Loading module '" + name + "' from code cache");
+            final Module module = new Module(name, source);
+            module.setChunk(cachedChunk);
+            return load(module);
+        }
+
         if (ENABLE_CACHING) {
             final Path compiledPath = Paths.get(path.toString() + 'c');
 
             if (Files.exists(compiledPath)) {
                 try (DataInputStream is = new DataInputStream(new FileInputStream(compiledPath.toFile()))) {
-                    final Module module = ModuleSerializer.readModule(is, ModuleSerializer.readFileChecksum(path.toFile()));
+                    final Module module = ModuleSerializer.readModule(is, checksum);
 
                     if (module != null) {
                         LOG.info("Loading cached module '" + name + "' from '" + compiledPath + "'");
+                        cacheChunk(path, checksum, module);
                         return load(module);
                     }
                 } catch (IOException e) {
@@ -112,12 +163,13 @@ public class Machine {
 
                 try (DataOutputStream os = new DataOutputStream(new FileOutputStream(compiledPath.toFile()))) {
                     LOG.info("Caching module '" + name + "' from '" + path + "'");
-                    ModuleSerializer.writeModule(os, module, ModuleSerializer.readFileChecksum(path.toFile()));
+                    ModuleSerializer.writeModule(os, module, checksum);
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
             }
 
+            cacheChunk(path, checksum, module);
             return load(module);
         } catch (ScriptException e) {
             callStack.push(new ParserFrame(module, source, e, operandStack.size()));
@@ -128,6 +180,12 @@ public class Machine {
         }
     }
 
+    private void cacheChunk(@NotNull Path path, int checksum, @NotNull Module module) {
+        if (module.getChunk() != null) {
+            codeCache.put(path, checksum, module.getChunk());
+        }
+    }
+
     @NotNull
     public Module load(@NotNull Module module) {
         if (modules.put(module.getName(), module) != null) {
@@ -137,6 +195,7 @@ public class Machine {
         module.setAttribute("<builtin>", modules.get("builtin"));
 
         if (module.getChunk() != null) {
+            operandStack.reserve(module.getChunk().getMaxStack());
             callStack.push(new ModuleFrame(module, operandStack.size()));
             execute();
         }
@@ -167,7 +226,7 @@ public class Machine {
             }
         }
 
-        panic("Cannot find module named '" + name + "'", true);
+        panic(() -> "Cannot find module named '" + name + "'", true);
 
         return null;
     }
@@ -190,6 +249,8 @@ public class Machine {
             throw new RuntimeException("Attribute is not callable: " + attributeName);
         }
 
+        operandStack.reserve(args.length);
+
         for (Object arg : args) {
             if (arg instanceof ScriptObject) {
                 operandStack.push((ScriptObject) arg);
@@ -198,421 +259,1015 @@ public class Machine {
             }
         }
 
-        Function function = (Function) attribute;
-        function.invoke(this, args.length);
+        return invoke((Function) attribute, args.length);
+    }
 
-        if (function instanceof RuntimeFunction) {
-            return execute();
+    /**
+     * Invokes the supplied {@code function} with the supplied
+     * {@code args} and waits until it returns.
+     *
+     * @param function function to invoke
+     * @param args     arguments to pass
+     * @return returned value or {@code null} if the machine has panicked
+     */
+    @Nullable
+    public ScriptObject call(@NotNull Function function, @NotNull ScriptObject... args) {
+        operandStack.reserve(args.length);
+
+        for (ScriptObject arg : args) {
+            operandStack.push(arg);
         }
 
-        if (halted) {
+        return invoke(function, args.length);
+    }
+
+    /**
+     * Invokes the supplied {@code function} with {@code argc} arguments that are
+     * placed at the top of the operand stack and waits until it returns.
+     *
+     * @param function function to invoke
+     * @param argc     amount of arguments on the operand stack
+     * @return returned value or {@code null} if the calling frame was unwound by a panic
+     */
+    @Nullable
+    public ScriptObject invoke(@NotNull Function function, int argc) {
+        final int depth = callStack.size();
+
+        if (depth > MAX_STACK_DEPTH) {
+            panic("Stack overflow", false);
             return null;
         }
 
+        function.invoke(this, argc);
+
+        if (halted || callStack.size() < depth) {
+            return null;
+        }
+
+        if (callStack.size() > depth) {
+            return execute();
+        }
+
         return operandStack.pop();
     }
 
+    /**
+     * Executes the topmost {@code frame} using the supplied compiled {@code chunk}.
+     * Once the frame returns, it's popped and its result is pushed onto the
+     * operand stack as if it was executed by the interpreter.
+     * <p>
+     * If too many compiled frames are already running, the frame is left
+     * for the interpreter to prevent overflowing the JVM's own stack.
+     *
+     * @param frame frame to execute
+     * @param chunk compiled chunk of the frame
+     */
+    public void execute(@NotNull Frame frame, @NotNull CompiledChunk chunk) {
+        if (compiledFrames >= JitCompiler.MAX_DEPTH) {
+            return;
+        }
+
+        if (sampler != null) {
+            safepoint();
+        }
+
+        compiledFrames++;
+        final ScriptObject result = chunk.execute(this, frame);
+        compiledFrames--;
+
+        if (result != null) {
+            callStack.pop();
+            operandStack.truncate(frame.getLocals());
+            profilerEndFrame(frame);
+            operandStack.push(result);
+        }
+    }
+
     @Nullable
-    private Object execute() {
-        final Frame rootFrame = callStack.isEmpty() ? null : callStack.peek();
+    private ScriptObject execute() {
+        final int rootDepth = callStack.size();
 
-        while (!halted) {
+        while (!halted && callStack.size() >= rootDepth) {
             if (callStack.size() > MAX_STACK_DEPTH) {
                 panic("Stack overflow", false);
                 break;
             }
 
+            if (sampler != null) {
+                safepoint();
+            }
+
             final Frame frame = callStack.peek();
-            final byte opcode = frame.getNextImm8();
+
+            if (!dispatch(frame)) {
+                continue;
+            }
+
+            callStack.pop();
+            final ScriptObject result = operandStack.pop();
+            operandStack.truncate(frame.getLocals());
+            profilerEndFrame(frame);
+
+            if (frame instanceof GeneratorFrame) {
+                // The result is dropped and the resuming instruction jumps out of its loop
+                final Generator generator = ((GeneratorFrame) frame).getGenerator();
+                generator.finish();
+                callStack.peek().pc = generator.getResumePc();
+                continue;
+            }
+
+            // The root frame might have been replaced by a tail call
+            if (callStack.size() < rootDepth) {
+                return result;
+            }
+
+            if (callStack.isEmpty()) {
+                return null;
+            }
+
+            operandStack.push(result);
+        }
+
+        return null;
+    }
+
+    /**
+     * Executes instructions of the supplied {@code frame} until it returns
+     * or until another frame becomes the current one, e.g. after a call
+     * or a panic.
+     * <p>
+     * Instructions are read from the {@linkplain Chunk#getDecodedCode() decoded code}
+     * and the position is kept in a local variable. It is written back to the frame
+     * before each instruction that may panic or call a function, so guards and stack
+     * traces see the position that follows the instruction.
+     *
+     * @param frame frame to execute
+     * @return {@code true} if the frame has reached its return instruction, {@code false} otherwise
+     */
+    private boolean dispatch(@NotNull Frame frame) {
+        final Chunk chunk = frame.getChunk();
+        final int[] code = chunk.getDecodedCode();
+        final ScriptObject[] objects = chunk.getConstantObjects();
+        final String[] symbols = chunk.getConstantSymbols();
+        final OperandStack stack = operandStack;
+        final int locals = frame.getLocals();
+        final long[] counters = ENABLE_COUNTERS ? chunk.getExecutionCounters() : null;
+        int pc = frame.pc;
+
+        while (true) {
+            final int opcode = code[pc];
+
+            if (ENABLE_PROFILING) {
+                profilerInstructions++;
+            }
+
+            if (ENABLE_COUNTERS) {
+                counters[pc]++;
+                opcodeCounters[opcode & 0xff]++;
+            }
 
             if (ENABLE_LOGGING) {
-                final StringBuilder sb = new StringBuilder();
-                sb.append("Dispatching (PC: ").append(frame.pc - 1).append(")\n");
-                sb.append("Frame:  ").append(frame.getModule().getName());
-                if (frame instanceof RuntimeFrame) {
-                    sb.append('/').append(((RuntimeFrame) frame).getFunction().getName());
-                } else if (frame instanceof NativeFrame) {
-                    sb.append('/').append(((NativeFrame) frame).getFunction().getName());
-                }
-                sb.append('\n');
-                sb.append("Opcode: ").append(opcode).append(" (").append(Operation.values()[opcode - 1]).append(")\n");
-                sb.append("Stack:  ").append(operandStack);
-                LOG.info(sb.toString());
+                logDispatch(frame, pc, opcode);
             }
 
-            dispatch:
             switch (opcode) {
-                case OP_PUSH: {
-                    operandStack.push(Value.from(frame.getNextConstant()));
+                case OP_PUSH:
+                    stack.push(objects[code[pc + 1]]);
+                    pc += 3;
                     break;
-                }
-                case OP_GET_GLOBAL: {
-                    Module module = frame.getModule();
-                    String name = (String) frame.getNextConstant();
-                    ScriptObject value = module.getAttribute(name);
-                    if (value == null) {
-                        panic("Module '" + module.getName() + "' has no such global '" + name + "'", true);
-                        break;
+                case OP_DUP:
+                    stack.push(stack.peek());
+                    pc += 1;
+                    break;
+                case OP_DUP_AT:
+                    stack.push(stack.get(stack.size() + code[pc + 1]));
+                    pc += 2;
+                    break;
+                case OP_POP:
+                    stack.pop();
+                    pc += 1;
+                    break;
+                case OP_GET_GLOBAL:
+                    frame.pc = pc + 3;
+                    if (!loadGlobal(frame, chunk.getInlineCache(pc + 1), symbols[code[pc + 1]])) {
+                        return false;
                     }
-                    operandStack.push(value);
+                    pc += 3;
                     break;
-                }
-                case OP_SET_GLOBAL: {
-                    Module module = frame.getModule();
-                    module.setAttribute((String) frame.getNextConstant(), operandStack.pop());
+                case OP_SET_GLOBAL:
+                    frame.getModule().setAttribute(symbols[code[pc + 1]], stack.pop());
+                    pc += 3;
                     break;
-                }
-                case OP_GET_LOCAL: {
-                    operandStack.push(frame.getLocals()[frame.getNextImm8()]);
+                case OP_GET_LOCAL:
+                    stack.push(stack.get(locals + code[pc + 1]));
+                    pc += 2;
                     break;
-                }
-                case OP_SET_LOCAL: {
-                    frame.getLocals()[frame.getNextImm8()] = operandStack.pop();
+                case OP_SET_LOCAL:
+                    stack.set(locals + code[pc + 1], stack.pop());
+                    pc += 2;
                     break;
-                }
-                case OP_GET_ATTRIBUTE: {
-                    String name = (String) frame.getNextConstant();
-                    ScriptObject target = operandStack.pop();
-                    ScriptObject object = target.getAttribute(name);
-                    if (object == null) {
-                        panic("Object '" + target + "' has no such attribute '" + name + "'", true);
-                        break;
+                case OP_GET_ATTRIBUTE:
+                    frame.pc = pc + 3;
+                    if (!loadAttribute(chunk.getInlineCache(pc + 1), stack.pop(), symbols[code[pc + 1]])) {
+                        return false;
                     }
-                    operandStack.push(object);
+                    pc += 3;
                     break;
-                }
-                case OP_SET_ATTRIBUTE: {
-                    ScriptObject value = operandStack.pop();
-                    ScriptObject target = operandStack.pop();
-                    String name = (String) frame.getNextConstant();
-                    if (target.isImmutable()) {
-                        panic("Cannot assign attribute to immutable object '" + target + "'", true);
-                        break;
+                case OP_SET_ATTRIBUTE:
+                    frame.pc = pc + 3;
+                    if (!storeAttribute(symbols[code[pc + 1]])) {
+                        return false;
                     }
-                    target.setAttribute(name, value);
+                    pc += 3;
                     break;
-                }
-                case OP_GET_INDEX: {
-                    ScriptObject index = operandStack.pop();
-                    ScriptObject object = operandStack.pop();
-                    if (!(object instanceof Index)) {
-                        panic("Object '" + object + "' does not support index accessing", true);
-                        break;
-                    }
-                    ScriptObject result = ((Index) object).getIndex(this, index);
-                    if (result != null) {
-                        operandStack.push(result);
+                case OP_GET_INDEX:
+                    frame.pc = pc + 1;
+                    if (!loadIndex()) {
+                        return false;
                     }
+                    pc += 1;
                     break;
-                }
-                case OP_SET_INDEX: {
-                    ScriptObject value = operandStack.pop();
-                    ScriptObject index = operandStack.pop();
-                    ScriptObject object = operandStack.pop();
-                    if (!(object instanceof MutableIndex)) {
-                        panic("Object '" + object + "' does not support index assignment", true);
-                        break;
-                    }
-                    if (object.isImmutable()) {
-                        panic("Cannot assign index to immutable object '" + object + "'", true);
-                        break;
+                case OP_SET_INDEX:
+                    frame.pc = pc + 1;
+                    if (!storeIndex(frame, pc + 1)) {
+                        return false;
                     }
-                    ((MutableIndex) object).setIndex(this, index, value);
+                    pc += 1;
                     break;
-                }
-                case OP_ADD: {
-                    Value b = (Value) operandStack.pop();
-                    Value a = (Value) operandStack.pop();
-                    Value result = a.add(this, b);
-                    if (result != null) {
-                        operandStack.push(result);
+                case OP_ADD:
+                case OP_SUB:
+                case OP_MUL:
+                case OP_DIV:
+                case OP_CMP_LT:
+                case OP_CMP_LE:
+                case OP_CMP_GT:
+                case OP_CMP_GE:
+                    frame.pc = pc + 1;
+                    if (!binary(chunk, pc, opcode)) {
+                        return false;
                     }
+                    pc += 1;
                     break;
-                }
-                case OP_SUB: {
-                    Value b = (Value) operandStack.pop();
-                    Value a = (Value) operandStack.pop();
-                    Value result = a.sub(this, b);
-                    if (result != null) {
-                        operandStack.push(result);
+                case OP_CMP_EQ: {
+                    final ScriptObject b = stack.pop();
+                    final ScriptObject a = stack.pop();
+                    if (a instanceof IntegerValue && b instanceof IntegerValue) {
+                        quicken(chunk, pc, OP_CMP_EQ_INT);
                     }
+                    stack.push(BooleanValue.valueOf(a.equals(b)));
+                    pc += 1;
                     break;
                 }
-                case OP_MUL: {
-                    Value b = (Value) operandStack.pop();
-                    Value a = (Value) operandStack.pop();
-                    Value result = a.mul(this, b);
-                    if (result != null) {
-                        operandStack.push(result);
-                    }
+                case OP_CMP_NE: {
+                    final ScriptObject b = stack.pop();
+                    final ScriptObject a = stack.pop();
+                    stack.push(BooleanValue.valueOf(!a.equals(b)));
+                    pc += 1;
                     break;
                 }
-                case OP_DIV: {
-                    Value b = (Value) operandStack.pop();
-                    Value a = (Value) operandStack.pop();
-                    Value result = a.div(this, b);
-                    if (result != null) {
-                        operandStack.push(result);
+                case OP_ADD_INT:
+                case OP_SUB_INT:
+                case OP_MUL_INT:
+                case OP_CMP_EQ_INT:
+                case OP_CMP_LT_INT:
+                case OP_CMP_LE_INT:
+                case OP_CMP_GT_INT:
+                case OP_CMP_GE_INT:
+                    if (binaryInt(chunk, pc, opcode)) {
+                        pc += 1;
                     }
                     break;
-                }
-                case OP_JUMP: {
-                    short offset = frame.getNextImm16();
-                    frame.pc += offset;
+                case OP_CONCAT: {
+                    final ScriptObject[] values = new ScriptObject[code[pc + 1]];
+                    stack.pop(values, 0, values.length);
+                    stack.push(StringValue.concat(values));
+                    pc += 2;
                     break;
                 }
-                case OP_JUMP_IF_TRUE: {
-                    Value value = (Value) operandStack.pop();
-                    short offset = frame.getNextImm16();
-                    if (value.getBoolean(this) == Boolean.TRUE) {
-                        frame.pc += offset;
+                case OP_NOT: {
+                    final int test = test(frame, pc + 1, stack.pop());
+                    if (test < 0) {
+                        return false;
                     }
+                    stack.push(BooleanValue.valueOf(test == 0));
+                    pc += 1;
                     break;
                 }
-                case OP_JUMP_IF_TRUE_OR_POP: {
-                    final Value value = (Value) operandStack.peek();
-                    final short offset = frame.getNextImm16();
-                    if (value.getBoolean(this) == Boolean.TRUE) {
-                        frame.pc += offset;
-                    } else {
-                        operandStack.pop();
+                case OP_JUMP: {
+                    final int offset = code[pc + 1];
+                    pc += 3 + offset;
+                    if (JitCompiler.ENABLE_JIT && offset < 0) {
+                        chunk.incrementHotness();
+                    }
+                    if (sampler != null && offset < 0) {
+                        frame.pc = pc;
+                        safepoint();
                     }
                     break;
                 }
+                case OP_JUMP_IF_TRUE:
                 case OP_JUMP_IF_FALSE: {
-                    Value value = (Value) operandStack.pop();
-                    int offset = frame.getNextImm16();
-                    if (value.getBoolean(this) == Boolean.FALSE) {
-                        frame.pc += offset;
+                    final int test = test(frame, pc + 3, stack.pop());
+                    if (test < 0) {
+                        return false;
                     }
+                    pc += (test > 0) == (opcode == OP_JUMP_IF_TRUE) ? 3 + code[pc + 1] : 3;
                     break;
                 }
+                case OP_JUMP_IF_TRUE_OR_POP:
                 case OP_JUMP_IF_FALSE_OR_POP: {
-                    final Value value = (Value) operandStack.peek();
-                    final int offset = frame.getNextImm16();
-                    if (value.getBoolean(this) == Boolean.FALSE) {
-                        frame.pc += offset;
+                    final int test = test(frame, pc + 3, stack.peek());
+                    if (test < 0) {
+                        return false;
+                    }
+                    if ((test > 0) == (opcode == OP_JUMP_IF_TRUE_OR_POP)) {
+                        pc += 3 + code[pc + 1];
                     } else {
-                        operandStack.pop();
+                        stack.pop();
+                        pc += 3;
                     }
                     break;
                 }
-                case OP_CMP_EQ: {
-                    ScriptObject b = operandStack.pop();
-                    ScriptObject a = operandStack.pop();
-                    operandStack.push(Value.from(a.equals(b)));
-                    break;
-                }
-                case OP_CMP_NE: {
-                    ScriptObject b = operandStack.pop();
-                    ScriptObject a = operandStack.pop();
-                    operandStack.push(Value.from(!a.equals(b)));
-                    break;
-                }
-                case OP_CMP_LT: {
-                    Value b = (Value) operandStack.pop();
-                    Value a = (Value) operandStack.pop();
-                    Integer result = a.compare(this, b);
-                    if (result != null) {
-                        operandStack.push(Value.from(result < 0));
+                case OP_CALL:
+                    frame.pc = pc + 2;
+                    if (!call(frame, pc + 2, code[pc + 1])) {
+                        return false;
                     }
+                    pc += 2;
                     break;
-                }
-                case OP_CMP_LE: {
-                    Value b = (Value) operandStack.pop();
-                    Value a = (Value) operandStack.pop();
-                    Integer result = a.compare(this, b);
-                    if (result != null) {
-                        operandStack.push(Value.from(result <= 0));
+                case OP_CALL_METHOD:
+                    frame.pc = pc + 4;
+                    if (!callMethod(frame, pc + 4, chunk.getInlineCache(pc + 1), symbols[code[pc + 1]], code[pc + 2])) {
+                        return false;
                     }
+                    pc += 4;
                     break;
-                }
-                case OP_CMP_GT: {
-                    Value b = (Value) operandStack.pop();
-                    Value a = (Value) operandStack.pop();
-                    Integer result = a.compare(this, b);
-                    if (result != null) {
-                        operandStack.push(Value.from(result > 0));
+                case OP_CALL_GLOBAL:
+                    frame.pc = pc + 4;
+                    if (!callGlobal(frame, pc + 4, chunk.getInlineCache(pc + 1), symbols[code[pc + 1]], code[pc + 2])) {
+                        return false;
                     }
+                    pc += 4;
                     break;
-                }
-                case OP_CMP_GE: {
-                    Value b = (Value) operandStack.pop();
-                    Value a = (Value) operandStack.pop();
-                    Integer result = a.compare(this, b);
-                    if (result != null) {
-                        operandStack.push(Value.from(result >= 0));
-                    }
+                case OP_GET_LOCAL2:
+                    stack.push(stack.get(locals + code[pc + 1]));
+                    stack.push(stack.get(locals + code[pc + 2]));
+                    pc += 3;
                     break;
-                }
-                case OP_CALL: {
-                    byte argc = frame.getNextImm8();
-                    Object object = operandStack.pop();
-                    if (!(object instanceof Function)) {
-                        panic("Object '" + object + "' is not callable", true);
-                        break;
-                    }
-                    Function function = (Function) object;
-                    function.invoke(this, argc);
+                case OP_GET_LOCAL_PUSH:
+                    stack.push(stack.get(locals + code[pc + 1]));
+                    stack.push(objects[code[pc + 2]]);
+                    pc += 4;
                     break;
-                }
-                case OP_RETURN: {
-                    final Frame oldFrame = callStack.pop();
-                    while (oldFrame.getStackSize() < operandStack.size() - 1) {
-                        operandStack.removeElementAt(operandStack.size() - 2);
-                    }
-                    profilerEndFrame(oldFrame);
-                    if (oldFrame == rootFrame) {
-                        return operandStack.pop();
-                    }
-                    if (callStack.empty()) {
-                        return null;
+                case OP_GET_LOCAL_ATTRIBUTE:
+                    frame.pc = pc + 4;
+                    if (!loadAttribute(chunk.getInlineCache(pc + 1), stack.get(locals + code[pc + 1]), symbols[code[pc + 2]])) {
+                        return false;
                     }
+                    pc += 4;
                     break;
-                }
-                case OP_POP: {
-                    operandStack.pop();
+                case OP_RETURN:
+                    return true;
+                case OP_TAIL_CALL:
+                    frame.pc = pc + 2;
+                    if (!tailCall(frame, pc + 2, code[pc + 1])) {
+                        return false;
+                    }
+                    pc += 2;
                     break;
-                }
-                case OP_DUP: {
-                    operandStack.push(operandStack.peek());
+                case OP_BIND: {
+                    final ScriptObject value = stack.pop();
+                    final BoundFunction function = (BoundFunction) stack.pop();
+                    function.getBoundArguments()[code[pc + 1]] = value;
+                    pc += 2;
                     break;
                 }
-                case OP_DUP_AT: {
-                    operandStack.push(operandStack.get(operandStack.size() + frame.getNextImm8()));
+                case OP_ASSERT:
+                    frame.pc = pc + 5;
+                    if (!assertTrue(frame, pc + 5, symbols[code[pc + 1]], objects[code[pc + 2]])) {
+                        return false;
+                    }
+                    pc += 5;
                     break;
-                }
-                case OP_BIND: {
-                    final ScriptObject value = operandStack.pop();
-                    final BoundFunction function = (BoundFunction) operandStack.pop();
-                    function.getBoundArguments()[frame.getNextImm8()] = value;
+                case OP_IMPORT:
+                    frame.pc = pc + 3;
+                    if (!importModule(frame, symbols[code[pc + 1]])) {
+                        return false;
+                    }
+                    pc += 3;
                     break;
-                }
-                case OP_NOT: {
-                    Value value = (Value) operandStack.pop();
-                    operandStack.push(Value.from(value.getBoolean(this) == Boolean.FALSE));
+                case OP_NEW:
+                    frame.pc = pc + 1;
+                    if (!instantiate()) {
+                        return false;
+                    }
+                    pc += 1;
                     break;
-                }
-                case OP_ASSERT: {
-                    Value value = (Value) operandStack.pop();
-                    String source = (String) frame.getNextConstant();
-                    Object message = frame.getNextConstant();
-                    if (value.getBoolean(this) == Boolean.FALSE) {
-                        if (message == NoneValue.INSTANCE) {
-                            panic("Assertion failed '" + source + "'", true);
-                        } else {
-                            panic("Assertion failed '" + source + "': " + message, true);
-                        }
+                case OP_SUPER:
+                    frame.pc = pc + 1;
+                    if (!superOf()) {
+                        return false;
                     }
+                    pc += 1;
                     break;
-                }
-                case OP_IMPORT: {
-                    final String name = (String) frame.getNextConstant();
-                    final Module module = load(name);
-                    if (module != null) {
-                        if (module == frame.getModule()) {
-                            panic("Cannot import itself", true);
-                            break;
-                        }
-                        operandStack.push(module);
+                case OP_INSTANCE_OF:
+                    frame.pc = pc + 1;
+                    if (!instanceOf()) {
+                        return false;
                     }
+                    pc += 1;
                     break;
-                }
-                case OP_NEW: {
-                    ScriptObject object = operandStack.pop();
-                    if (!(object instanceof Class)) {
-                        panic("Cannot instantiate a non-class value", true);
+                case OP_MAKE_FUNCTION:
+                    stack.push(makeFunction(frame, symbols[code[pc + 1]], (Chunk) objects[code[pc + 2]]));
+                    pc += 5;
+                    break;
+                case OP_MAKE_CLASS:
+                    frame.pc = pc + 6;
+                    makeClass(frame, symbols[code[pc + 1]], (Chunk) objects[code[pc + 2]], code[pc + 3]);
+                    return false;
+                case OP_THROW:
+                    frame.pc = pc + 1;
+                    raise(stack.pop());
+                    return false;
+                case OP_FOR_RANGE_INIT: {
+                    final ScriptObject end = stack.pop();
+                    final ScriptObject begin = stack.pop();
+                    if (!(begin instanceof IntegerValue && end instanceof IntegerValue)) {
+                        frame.pc = pc + 6;
+                        panic(() -> "Range bounds must be integers, got '" + begin + "' and '" + end + "'", true);
+                        return false;
+                    }
+                    final int first = ((IntegerValue) begin).intValue();
+                    final int last = ((IntegerValue) end).intValue();
+                    final boolean inclusive = code[pc + 4] != 0;
+                    if (isRangeEmpty(first, last, inclusive)) {
+                        pc += 6 + code[pc + 1];
                         break;
                     }
-                    Class clazz = (Class) object;
-                    operandStack.push(clazz.instantiate());
+                    stack.set(locals + code[pc + 2], begin);
+                    stack.set(locals + code[pc + 2] + 1, IntegerValue.valueOf(getRangeLast(first, last, inclusive)));
+                    stack.set(locals + code[pc + 3], begin);
+                    pc += 6;
                     break;
                 }
-                case OP_SUPER: {
-                    final ScriptObject instance = operandStack.pop();
-                    final ScriptObject base = operandStack.pop();
-                    if (!(instance instanceof Instance)) {
-                        panic("Object '" + instance + "' must be class instance", true);
+                case OP_FOR_RANGE_NEXT: {
+                    final int counter = locals + code[pc + 2];
+                    final int value = ((IntegerValue) stack.get(counter)).intValue();
+                    final int last = ((IntegerValue) stack.get(counter + 1)).intValue();
+                    if (value == last) {
+                        pc += 5;
                         break;
                     }
-                    if (!(base instanceof Class)) {
-                        panic("Object '" + instance + "' must be class", true);
-                        break;
+                    final IntegerValue current = IntegerValue.valueOf(value < last ? value + 1 : value - 1);
+                    stack.set(counter, current);
+                    stack.set(locals + code[pc + 3], current);
+                    pc += 5 + code[pc + 1];
+                    if (JitCompiler.ENABLE_JIT) {
+                        chunk.incrementHotness();
                     }
-                    if (!((Class) base).isInstance((Instance) instance)) {
-                        panic("Object '" + instance + "' is not an instance of '" + base + "'", true);
+                    if (sampler != null) {
+                        frame.pc = pc;
+                        safepoint();
                     }
-                    operandStack.push(new Proxy((Instance) instance, (Class) base));
                     break;
                 }
-                case OP_INSTANCE_OF: {
-                    final ScriptObject clazz = operandStack.pop();
-                    final ScriptObject object = operandStack.pop();
-                    if (!(object instanceof Instance)) {
-                        panic("Left operand of an 'is' operator must be class instance", true);
-                        break;
+                case OP_RESUME: {
+                    final ScriptObject generator = stack.get(locals + code[pc + 2]);
+                    if (!(generator instanceof Generator)) {
+                        frame.pc = pc + 5;
+                        panic(() -> "Object '" + generator + "' is not a generator", true);
+                        return false;
                     }
-                    if (!(clazz instanceof Class)) {
-                        panic("Right operand of an 'is' operator must be class", true);
+                    if (((Generator) generator).isFinished()) {
+                        pc += 5 + code[pc + 1];
                         break;
                     }
-                    operandStack.push(Value.from(((Class) clazz).isInstance((Instance) object)));
-                    break;
+                    if (((Generator) generator).isRunning()) {
+                        frame.pc = pc + 5;
+                        panic(() -> "Generator '" + generator + "' is already running", true);
+                        return false;
+                    }
+                    frame.pc = pc + 5;
+                    ((Generator) generator).resume(this, locals + code[pc + 3], pc);
+                    return false;
+                }
+                case OP_YIELD: {
+                    frame.pc = pc + 1;
+                    final GeneratorFrame generatorFrame = (GeneratorFrame) frame;
+                    generatorFrame.getGenerator().suspend(this, generatorFrame);
+                    return false;
                 }
-                case OP_MAKE_FUNCTION: {
-                    final String name = (String) frame.getNextConstant();
-                    final Chunk chunk = (Chunk) frame.getNextConstant();
-                    final Function function = new RuntimeFunction(frame.getModule(), name, chunk);
+                default:
+                    frame.pc = pc + 1;
+                    panic(String.format("Not implemented opcode: %#04x", (byte) opcode), false);
+                    return false;
+            }
+        }
+    }
 
-                    if (chunk.getBoundArguments() > 0) {
-                        operandStack.push(new BoundFunction(function, function.getArity(), new ScriptObject[chunk.getBoundArguments()]));
-                    } else {
-                        operandStack.push(function);
-                    }
+    private void logDispatch(@NotNull Frame frame, int pc, int opcode) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Dispatching (PC: ").append(pc).append(")\n");
+        sb.append("Frame:  ").append(frame.getModule().getName());
+        if (frame instanceof RuntimeFrame) {
+            sb.append('/').append(((RuntimeFrame) frame).getFunction().getName());
+        } else if (frame instanceof NativeFrame) {
+            sb.append('/').append(((NativeFrame) frame).getFunction().getName());
+        }
+        sb.append('\n');
+        sb.append("Opcode: ").append(opcode).append(" (").append(Operation.of((byte) opcode)).append(")\n");
+        sb.append("Stack:  ").append(operandStack);
+        LOG.info(sb.toString());
+    }
 
-                    break;
-                }
-                case OP_MAKE_CLASS: {
-                    final String name = (String) frame.getNextConstant();
-                    final Chunk chunk = (Chunk) frame.getNextConstant();
-                    final Class[] bases = new Class[frame.getNextImm8()];
+    /**
+     * Checks whether the supplied {@code frame} is still the current one
+     * and is about to execute an instruction at {@code pc}, i.e. the last
+     * instruction neither panicked nor pushed another frame.
+     */
+    private boolean isCurrent(@NotNull Frame frame, int pc) {
+        return !halted && callStack.peek() == frame && frame.pc == pc;
+    }
 
-                    for (int index = bases.length - 1; index >= 0; index--) {
-                        final ScriptObject object = operandStack.pop();
+    /**
+     * Tests truthiness of the supplied {@code value} the same way conditional jumps do.
+     *
+     * @param frame frame that executes the instruction
+     * @param next  position of the next instruction
+     * @param value value to test
+     * @return {@code 1} if value is true, {@code 0} if value is false, or {@code -1} if it has no truthiness
+     */
+    private int test(@NotNull Frame frame, int next, @NotNull ScriptObject value) {
+        if (value == BooleanValue.TRUE) {
+            return 1;
+        }
+        if (value == BooleanValue.FALSE) {
+            return 0;
+        }
+        frame.pc = next;
+        final Boolean result = ((Value) value).getBoolean(this);
+        return result == null ? -1 : result ? 1 : 0;
+    }
 
-                        if (!(object instanceof Class)) {
-                            panic("Class '" + name + "' cannot inherit from non-class object '" + object + "'", false);
-                            break dispatch;
-                        }
+    private boolean loadGlobal(@NotNull Frame frame, @NotNull InlineCache cache, @NotNull String name) {
+        final Module module = frame.getModule();
+        final ScriptObject value = getAttribute(cache, module, name);
+        if (value == null) {
+            panic(() -> "Module '" + module.getName() + "' has no such global '" + name + "'", true);
+            return false;
+        }
+        operandStack.push(value);
+        return true;
+    }
 
-                        for (int nested = bases.length - 1; nested > index; nested--) {
-                            if (object.equals(bases[nested])) {
-                                panic("Class '" + name + "' has duplicated base class '" + ((Class) object).getName() + "'", false);
-                                break dispatch;
-                            }
-                        }
+    private boolean loadAttribute(@NotNull InlineCache cache, @NotNull ScriptObject target, @NotNull String name) {
+        final ScriptObject object = getAttribute(cache, target, name);
+        if (object == null) {
+            panic(() -> "Object '" + target + "' has no such attribute '" + name + "'", true);
+            return false;
+        }
+        operandStack.push(object);
+        return true;
+    }
 
-                        bases[index] = (Class) object;
-                    }
+    private boolean storeAttribute(@NotNull String name) {
+        final ScriptObject value = operandStack.pop();
+        final ScriptObject target = operandStack.pop();
+        if (target.isImmutable()) {
+            panic(() -> "Cannot assign attribute to immutable object '" + target + "'", true);
+            return false;
+        }
+        if (target.isComputedAttribute(name)) {
+            panic(() -> "Cannot assign computed attribute '" + name + "' of object '" + target + "'", true);
+            return false;
+        }
+        target.setAttribute(name, value);
+        return true;
+    }
 
-                    callStack.push(new ClassFrame(frame.getModule(), new Class(name, bases), chunk, operandStack.size()));
-                    break;
+    private boolean loadIndex() {
+        final ScriptObject index = operandStack.pop();
+        final ScriptObject object = operandStack.pop();
+        if (!(object instanceof Index)) {
+            panic(() -> "Object '" + object + "' does not support index accessing", true);
+            return false;
+        }
+        final ScriptObject result = ((Index) object).getIndex(this, index);
+        if (result == null) {
+            return false;
+        }
+        operandStack.push(result);
+        return true;
+    }
+
+    private boolean storeIndex(@NotNull Frame frame, int next) {
+        final ScriptObject value = operandStack.pop();
+        final ScriptObject index = operandStack.pop();
+        final ScriptObject object = operandStack.pop();
+        if (!(object instanceof MutableIndex)) {
+            panic(() -> "Object '" + object + "' does not support index assignment", true);
+            return false;
+        }
+        if (object.isImmutable()) {
+            panic(() -> "Cannot assign index to immutable object '" + object + "'", true);
+            return false;
+        }
+        ((MutableIndex) object).setIndex(this, index, value);
+        return isCurrent(frame, next);
+    }
+
+    /**
+     * Executes a generic arithmetic or comparison instruction, quickening
+     * it if both operands are integers.
+     *
+     * @return {@code false} if the instruction has panicked
+     */
+    private boolean binary(@NotNull Chunk chunk, int pc, int opcode) {
+        final Value b = (Value) operandStack.pop();
+        final Value a = (Value) operandStack.pop();
+        final boolean integers = a instanceof IntegerValue && b instanceof IntegerValue;
+        final ScriptObject result;
+
+        switch (opcode) {
+            case OP_ADD:
+                if (integers) {
+                    quicken(chunk, pc, OP_ADD_INT);
+                }
+                result = a.add(this, b);
+                break;
+            case OP_SUB:
+                if (integers) {
+                    quicken(chunk, pc, OP_SUB_INT);
+                }
+                result = a.sub(this, b);
+                break;
+            case OP_MUL:
+                if (integers) {
+                    quicken(chunk, pc, OP_MUL_INT);
                 }
-                case OP_THROW: {
-                    final ScriptObject payload = operandStack.pop();
-                    if (payload == NoneValue.INSTANCE) {
-                        panic("Cannot throw 'none' as a payload", true);
+                result = a.mul(this, b);
+                break;
+            case OP_DIV:
+                result = a.div(this, b);
+                break;
+            default: {
+                final Integer order = a.compare(this, b);
+                if (order == null) {
+                    return false;
+                }
+                switch (opcode) {
+                    case OP_CMP_LT:
+                        if (integers) {
+                            quicken(chunk, pc, OP_CMP_LT_INT);
+                        }
+                        result = BooleanValue.valueOf(order < 0);
+                        break;
+                    case OP_CMP_LE:
+                        if (integers) {
+                            quicken(chunk, pc, OP_CMP_LE_INT);
+                        }
+                        result = BooleanValue.valueOf(order <= 0);
+                        break;
+                    case OP_CMP_GT:
+                        if (integers) {
+                            quicken(chunk, pc, OP_CMP_GT_INT);
+                        }
+                        result = BooleanValue.valueOf(order > 0);
+                        break;
+                    default:
+                        if (integers) {
+                            quicken(chunk, pc, OP_CMP_GE_INT);
+                        }
+                        result = BooleanValue.valueOf(order >= 0);
                         break;
-                    }
-                    panic(payload, true);
-                    break;
                 }
-                default:
-                    panic(String.format("Not implemented opcode: %#04x", frame.getChunk().getCode()[frame.pc - 1]), false);
             }
         }
 
-        return null;
+        if (result == null) {
+            return false;
+        }
+
+        operandStack.push(result);
+        return true;
+    }
+
+    /**
+     * Executes a quickened integer instruction. If any of the operands is not
+     * an integer, the instruction is deoptimized and left to be executed again.
+     *
+     * @return {@code false} if the instruction was deoptimized
+     */
+    private boolean binaryInt(@NotNull Chunk chunk, int pc, int opcode) {
+        final ScriptObject b = operandStack.peek();
+        final ScriptObject a = operandStack.get(operandStack.size() - 2);
+
+        if (!(a instanceof IntegerValue && b instanceof IntegerValue)) {
+            deoptimize(chunk, pc, opcode);
+            return false;
+        }
+
+        final int y = ((IntegerValue) b).intValue();
+        final int x = ((IntegerValue) a).intValue();
+        final ScriptObject result;
+
+        switch (opcode) {
+            // @formatter:off
+            case OP_ADD_INT:    result = IntegerValue.valueOf(x + y); break;
+            case OP_SUB_INT:    result = IntegerValue.valueOf(x - y); break;
+            case OP_MUL_INT:    result = IntegerValue.valueOf(x * y); break;
+            case OP_CMP_EQ_INT: result = BooleanValue.valueOf(x == y); break;
+            case OP_CMP_LT_INT: result = BooleanValue.valueOf(x < y);  break;
+            case OP_CMP_LE_INT: result = BooleanValue.valueOf(x <= y); break;
+            case OP_CMP_GT_INT: result = BooleanValue.valueOf(x > y);  break;
+            default:            result = BooleanValue.valueOf(x >= y); break;
+            // @formatter:on
+        }
+
+        operandStack.pop();
+        operandStack.set(operandStack.size() - 1, result);
+        return true;
+    }
+
+    private boolean call(@NotNull Frame frame, int next, int argc) {
+        final ScriptObject object = operandStack.pop();
+        if (!(object instanceof Function)) {
+            panic(() -> "Object '" + object + "' is not callable", true);
+            return false;
+        }
+        ((Function) object).invoke(this, argc);
+        return isCurrent(frame, next);
+    }
+
+    /**
+     * Calls a function in place of the supplied {@code frame} if possible.
+     * Otherwise, performs a regular call and leaves its result for the
+     * {@code RETURN} instruction that follows.
+     */
+    private boolean tailCall(@NotNull Frame frame, int next, int argc) {
+        final ScriptObject object = operandStack.peek();
+        if (object instanceof RuntimeFunction && ((RuntimeFunction) object).canInvokeTail(frame)) {
+            operandStack.pop();
+            ((RuntimeFunction) object).invokeTail(this, (RuntimeFrame) frame, argc);
+            return false;
+        }
+        return call(frame, next, argc);
+    }
+
+    private boolean callMethod(@NotNull Frame frame, int next, @NotNull InlineCache cache, @NotNull String name, int argc) {
+        final ScriptObject target = operandStack.pop();
+        if (target instanceof Instance) {
+            final Function method = ((Instance) target).getMethod(name);
+            if (method != null) {
+                operandStack.insert(target, argc);
+                method.invoke(this, argc + 1);
+                return isCurrent(frame, next);
+            }
+        }
+        final ScriptObject object = getAttribute(cache, target, name);
+        if (object == null) {
+            panic(() -> "Object '" + target + "' has no such attribute '" + name + "'", true);
+            return false;
+        }
+        if (!(object instanceof Function)) {
+            panic(() -> "Object '" + object + "' is not callable", true);
+            return false;
+        }
+        ((Function) object).invoke(this, argc);
+        return isCurrent(frame, next);
+    }
+
+    private boolean callGlobal(@NotNull Frame frame, int next, @NotNull InlineCache cache, @NotNull String name, int argc) {
+        final Module module = frame.getModule();
+        final ScriptObject object = getAttribute(cache, module, name);
+        if (object == null) {
+            panic(() -> "Module '" + module.getName() + "' has no such global '" + name + "'", true);
+            return false;
+        }
+        if (!(object instanceof Function)) {
+            panic(() -> "Object '" + object + "' is not callable", true);
+            return false;
+        }
+        ((Function) object).invoke(this, argc);
+        return isCurrent(frame, next);
+    }
+
+    private boolean assertTrue(@NotNull Frame frame, int next, @NotNull String source, @NotNull ScriptObject message) {
+        final int test = test(frame, next, operandStack.pop());
+        if (test < 0) {
+            return false;
+        }
+        if (test == 0) {
+            if (message == NoneValue.INSTANCE) {
+                panic(() -> "Assertion failed '" + source + "'", true);
+            } else {
+                panic(() -> "Assertion failed '" + source + "': " + message, true);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private boolean importModule(@NotNull Frame frame, @NotNull String name) {
+        final Module module = load(name);
+        if (module == null) {
+            return false;
+        }
+        if (module == frame.getModule()) {
+            panic("Cannot import itself", true);
+            return false;
+        }
+        operandStack.push(module);
+        return true;
+    }
+
+    private boolean instantiate() {
+        final ScriptObject object = operandStack.pop();
+        if (!(object instanceof Class)) {
+            panic("Cannot instantiate a non-class value", true);
+            return false;
+        }
+        operandStack.push(((Class) object).instantiate());
+        return true;
+    }
+
+    private boolean superOf() {
+        final ScriptObject instance = operandStack.pop();
+        final ScriptObject base = operandStack.pop();
+        if (!(instance instanceof Instance)) {
+            panic(() -> "Object '" + instance + "' must be class instance", true);
+            return false;
+        }
+        if (!(base instanceof Class)) {
+            panic(() -> "Object '" + instance + "' must be class", true);
+            return false;
+        }
+        if (!((Class) base).isInstance((Instance) instance)) {
+            panic(() -> "Object '" + instance + "' is not an instance of '" + base + "'", true);
+            return false;
+        }
+        operandStack.push(new Proxy((Instance) instance, (Class) base));
+        return true;
+    }
+
+    private boolean instanceOf() {
+        final ScriptObject clazz = operandStack.pop();
+        final ScriptObject object = operandStack.pop();
+        if (!(object instanceof Instance)) {
+            panic("Left operand of an 'is' operator must be class instance", true);
+            return false;
+        }
+        if (!(clazz instanceof Class)) {
+            panic("Right operand of an 'is' operator must be class", true);
+            return false;
+        }
+        operandStack.push(BooleanValue.valueOf(((Class) clazz).isInstance((Instance) object)));
+        return true;
+    }
+
+    @NotNull
+    private static ScriptObject makeFunction(@NotNull Frame frame, @NotNull String name, @NotNull Chunk chunk) {
+        final Function function = new RuntimeFunction(frame.getModule(), name, chunk);
+        if (chunk.getBoundArguments() > 0) {
+            return new BoundFunction(function, function.getArity(), new ScriptObject[chunk.getBoundArguments()]);
+        }
+        return function;
+    }
+
+    private void makeClass(@NotNull Frame frame, @NotNull String name, @NotNull Chunk chunk, int count) {
+        final Class[] bases = new Class[count];
+
+        for (int index = bases.length - 1; index >= 0; index--) {
+            final ScriptObject object = operandStack.pop();
+
+            if (!(object instanceof Class)) {
+                panic("Class '" + name + "' cannot inherit from non-class object '" + object + "'", false);
+                return;
+            }
+
+            for (int nested = bases.length - 1; nested > index; nested--) {
+                if (object.equals(bases[nested])) {
+                    panic("Class '" + name + "' has duplicated base class '" + ((Class) object).getName() + "'", false);
+                    return;
+                }
+            }
+
+            bases[index] = (Class) object;
+        }
+
+        final int locals = operandStack.size();
+        operandStack.reserve(chunk.getMaxStack() + 1);
+        operandStack.push(new Class(name, bases));
+        callStack.push(new ClassFrame(frame.getModule(), chunk, locals, operandStack.size()));
+    }
+
+    private void raise(@NotNull ScriptObject payload) {
+        if (payload == NoneValue.INSTANCE) {
+            panic("Cannot throw 'none' as a payload", true);
+        } else {
+            panic(payload, true);
+        }
+    }
+
+    /**
+     * Checks whether a counted loop from {@code begin} to {@code end} has no iterations.
+     *
+     * @param begin     first value of the loop
+     * @param end       last value of the loop
+     * @param inclusive whether {@code end} itself is included
+     * @return {@code true} if the loop has no iterations
+     */
+    public static boolean isRangeEmpty(int begin, int end, boolean inclusive) {
+        return !inclusive && begin == end;
+    }
+
+    /**
+     * Returns the last value of the counter of a non-empty counted loop from {@code begin} to {@code end}.
+     * The loop counts upwards if {@code begin} is less than {@code end} and downwards otherwise.
+     * <p>
+     * The loop stops once the counter reaches this value rather than the next one,
+     * so ranges that end at {@link Integer#MAX_VALUE} or {@link Integer#MIN_VALUE}
+     * do not overflow.
+     *
+     * @param begin     first value of the loop
+     * @param end       last value of the loop
+     * @param inclusive whether {@code end} itself is included
+     * @return value of the counter at which the loop stops
+     */
+    public static int getRangeLast(int begin, int end, boolean inclusive) {
+        if (inclusive) {
+            return end;
+        }
+        return begin < end ? end - 1 : end + 1;
+    }
+
+    /**
+     * Rewrites the generic instruction at {@code pc} with its specialized version.
+     * The instruction must not have any operands.
+     *
+     * @param chunk  chunk that contains the instruction
+     * @param pc     position of the instruction
+     * @param opcode opcode of the specialized instruction
+     */
+    private static void quicken(@NotNull Chunk chunk, int pc, byte opcode) {
+        if (ENABLE_QUICKENING) {
+            chunk.setOpcode(pc, opcode);
+        }
+    }
+
+    /**
+     * Rewrites the specialized instruction at {@code pc} back
+     * with the generic version it was quickened from.
+     *
+     * @param chunk  chunk that contains the instruction
+     * @param pc     position of the instruction
+     * @param opcode opcode of the specialized instruction
+     */
+    private static void deoptimize(@NotNull Chunk chunk, int pc, int opcode) {
+        switch (opcode) {
+            // @formatter:off
+            case OP_ADD_INT:    chunk.setOpcode(pc, OP_ADD);    break;
+            case OP_SUB_INT:    chunk.setOpcode(pc, OP_SUB);    break;
+            case OP_MUL_INT:    chunk.setOpcode(pc, OP_MUL);    break;
+            case OP_CMP_EQ_INT: chunk.setOpcode(pc, OP_CMP_EQ); break;
+            case OP_CMP_LT_INT: chunk.setOpcode(pc, OP_CMP_LT); break;
+            case OP_CMP_LE_INT: chunk.setOpcode(pc, OP_CMP_LE); break;
+            case OP_CMP_GT_INT: chunk.setOpcode(pc, OP_CMP_GT); break;
+            case OP_CMP_GE_INT: chunk.setOpcode(pc, OP_CMP_GE); break;
+            // @formatter:on
+            default:
+                throw new IllegalArgumentException("Not a quickened opcode: " + opcode);
+        }
+    }
+
+    /**
+     * Reads an attribute with the specified {@code name} from the {@code target}
+     * using the inline {@code cache} of the instruction that performs the read.
+     *
+     * @param cache  inline cache of the instruction
+     * @param target object to read attribute from
+     * @param name   name of the attribute
+     * @return attribute or {@code null} if there's no such attribute
+     */
+    @Nullable
+    public ScriptObject getAttribute(@NotNull InlineCache cache, @NotNull ScriptObject target, @NotNull String name) {
+        final Shape shape = target.getShape();
+        int slot = cache.get(shape);
+
+        if (slot >= 0) {
+            profilerCacheHit();
+            return target.getSlot(slot);
+        }
+
+        profilerCacheMiss();
+
+        final ScriptObject object = target.getAttribute(name);
+
+        if (object != null && (slot = shape.indexOf(name)) >= 0) {
+            cache.put(shape, slot);
+        }
+
+        return object;
     }
 
     public void panic(Object payload, boolean recoverable) {
@@ -620,51 +1275,84 @@ public class Machine {
     }
 
     public void panic(ScriptObject payload, boolean recoverable) {
-        int lastFrameRepeated = 0;
-        Frame lastFrame = null;
+        unwind(payload, null, recoverable);
+    }
 
-        StringBuilder builder = new StringBuilder();
-        builder.append("Panicking: ").append(payload).append('\n');
+    /**
+     * Panics with a message that is only built if it's needed: either
+     * a suitable guard binds the payload to a variable, or the panic
+     * cannot be recovered and the message is printed.
+     * <p>
+     * Runtime errors that are likely to be recovered, such as unsupported
+     * operands or mismatched arguments, should prefer this method to
+     * avoid formatting messages that are never seen.
+     *
+     * @param message     supplier of the panic's message
+     * @param recoverable {@code true} if the panic can be recovered by a guard
+     */
+    public void panic(@NotNull Supplier<String> message, boolean recoverable) {
+        unwind(null, message, recoverable);
+    }
 
+    private void unwind(@Nullable ScriptObject payload, @Nullable Supplier<String> message, boolean recoverable) {
         if (ENABLE_LOGGING && !callStack.isEmpty()) {
-            LOG.info("Panicking with payload '" + payload + "' in " + callStack.peek());
+            LOG.info("Panicking with payload '" + getPanicPayload(payload, message) + "' in " + callStack.peek());
         }
 
-        while (!callStack.empty()) {
+        List<Frame> unwound = null;
+
+        while (!callStack.isEmpty()) {
             Frame currentFrame = callStack.peek();
 
-            while (currentFrame.getStackSize() < operandStack.size()) {
-                operandStack.pop();
-            }
+            operandStack.truncate(currentFrame.getStackSize());
 
             if (recoverable && currentFrame instanceof RuntimeFrame) {
-                RuntimeFunction function = ((RuntimeFrame) currentFrame).getFunction();
+                final Guard guard = ((RuntimeFrame) currentFrame).getFunction().getChunk().findGuard(currentFrame.pc);
 
-                LOG.info("Checking for suitable guards in '" + function.getName() + "'...");
-
-                for (Guard guard : function.getChunk().getGuards()) {
-                    if (currentFrame.pc > guard.getStart() && currentFrame.pc <= guard.getEnd()) {
-                        LOG.info("Got suitable guard, recovering");
-
-                        if (guard.hasSlot()) {
-                            currentFrame.getLocals()[guard.getSlot()] = payload;
-                        }
+                if (guard != null) {
+                    if (ENABLE_LOGGING) {
+                        LOG.info("Got suitable guard in '" + ((RuntimeFrame) currentFrame).getFunction().getName() + "', recovering");
+                    }
 
-                        currentFrame.pc = guard.getOffset();
-                        return;
+                    if (guard.hasSlot()) {
+                        operandStack.set(currentFrame.getLocals() + guard.getSlot(), getPanicPayload(payload, message));
                     }
+
+                    currentFrame.pc = guard.getOffset();
+                    return;
                 }
             }
 
-            if (currentFrame.equals(lastFrame)) {
-                lastFrameRepeated++;
+            if (currentFrame instanceof GeneratorFrame) {
+                ((GeneratorFrame) currentFrame).getGenerator().finish();
             }
 
-            if (lastFrameRepeated < MAX_STACK_REPETITIONS) {
-                builder.append("    at ").append(currentFrame).append('\n');
+            if (unwound == null) {
+                unwound = new ArrayList<>();
             }
 
-            lastFrame = callStack.pop();
+            unwound.add(callStack.pop());
+            profilerEndFrame(currentFrame);
+        }
+
+        int lastFrameRepeated = 0;
+        Frame lastFrame = null;
+
+        StringBuilder builder = new StringBuilder();
+        builder.append("Panicking: ").append(getPanicPayload(payload, message)).append('\n');
+
+        if (unwound != null) {
+            for (Frame currentFrame : unwound) {
+                if (currentFrame.equals(lastFrame)) {
+                    lastFrameRepeated++;
+                }
+
+                if (lastFrameRepeated < MAX_STACK_REPETITIONS) {
+                    builder.append("    at ").append(currentFrame).append('\n');
+                }
+
+                lastFrame = currentFrame;
+            }
         }
 
         if (lastFrameRepeated > MAX_STACK_REPETITIONS) {
@@ -676,44 +1364,164 @@ public class Machine {
         halt(-1);
     }
 
+    @Nullable
+    private static ScriptObject getPanicPayload(@Nullable ScriptObject payload, @Nullable Supplier<String> message) {
+        return message != null ? Value.from(message.get()) : payload;
+    }
+
     public void halt(int status) {
         this.halted = true;
         this.status = status;
         LOG.info("Halting with status " + status);
     }
 
-    public Map<Frame, List<Long>> getProfilerSamples() {
+    /**
+     * Returns the per-function profiler of this machine.
+     * Frames are profiled only if profiling is enabled.
+     *
+     * @return profiler of this machine
+     */
+    @NotNull
+    public Profiler getProfiler() {
         return profiler;
     }
 
-    public void profilerBeginFrame(Frame frame) {
+    /**
+     * Returns the total amount of instructions executed by this
+     * machine. Instructions are counted only if profiling is enabled.
+     *
+     * @return amount of executed instructions
+     */
+    public long getProfilerInstructions() {
+        return profilerInstructions;
+    }
+
+    /**
+     * Returns the amount of executed instructions per opcode, indexed by
+     * {@link com.shade.lang.compiler.assembler.OperationCode}. Quickened
+     * instructions are counted under their own opcodes. Instructions
+     * are counted only if counters are enabled.
+     *
+     * @return amount of executed instructions per opcode
+     * @see Chunk#getExecutionCounters()
+     */
+    @NotNull
+    public long[] getOpcodeCounters() {
+        return opcodeCounters;
+    }
+
+    /**
+     * Returns the amount of attribute and global reads that were satisfied
+     * by an {@link InlineCache}. Reads are counted only if profiling is enabled.
+     *
+     * @return amount of inline cache hits
+     */
+    public long getProfilerCacheHits() {
+        return profilerCacheHits;
+    }
+
+    /**
+     * Returns the amount of attribute and global reads that required
+     * a full lookup. Reads are counted only if profiling is enabled.
+     *
+     * @return amount of inline cache misses
+     */
+    public long getProfilerCacheMisses() {
+        return profilerCacheMisses;
+    }
+
+    public void profilerCacheHit() {
         if (ENABLE_PROFILING) {
-            profilerCache.put(frame, System.nanoTime());
+            profilerCacheHits++;
         }
     }
 
-    public void profilerEndFrame(Frame frame) {
-        if (!ENABLE_PROFILING) {
-            return;
+    public void profilerCacheMiss() {
+        if (ENABLE_PROFILING) {
+            profilerCacheMisses++;
         }
+    }
+
+    /**
+     * Starts sampling the call stack of this machine once per {@code interval}.
+     * A sampler that is already running is stopped.
+     * <p>
+     * This method may be called from any thread.
+     *
+     * @param interval sampling interval
+     * @param unit     unit of the {@code interval}
+     * @return started sampler
+     * @see Sampler
+     */
+    @NotNull
+    public synchronized Sampler startSampling(long interval, @NotNull TimeUnit unit) {
+        stopSampling();
+        final Sampler sampler = new Sampler(interval, unit);
+        sampler.start();
+        return this.sampler = sampler;
+    }
 
-        long time = System.nanoTime();
+    /**
+     * Starts sampling the call stack of this machine
+     * once per {@link Sampler#DEFAULT_INTERVAL_MILLIS}.
+     *
+     * @return started sampler
+     */
+    @NotNull
+    public Sampler startSampling() {
+        return startSampling(Sampler.DEFAULT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
 
-        if (!profilerCache.containsKey(frame)) {
-            LOG.warning("Invalid record for frame " + frame);
-            return;
+    /**
+     * Stops sampling the call stack of this machine. Collected
+     * samples remain available through the returned sampler.
+     * <p>
+     * This method may be called from any thread.
+     *
+     * @return stopped sampler or {@code null} if sampling was not started
+     */
+    @Nullable
+    public synchronized Sampler stopSampling() {
+        final Sampler sampler = this.sampler;
+
+        if (sampler != null) {
+            sampler.stop();
+            this.sampler = null;
         }
 
-        profiler
-            .computeIfAbsent(frame, x -> new ArrayList<>())
-            .add(time - profilerCache.remove(frame));
+        return sampler;
+    }
+
+    @Nullable
+    public Sampler getSampler() {
+        return sampler;
     }
 
-    public Stack<ScriptObject> getOperandStack() {
+    private void safepoint() {
+        final Sampler sampler = this.sampler;
+
+        if (sampler != null && sampler.isRequested()) {
+            sampler.sample(callStack);
+        }
+    }
+
+    public void profilerBeginFrame(Frame frame) {
+        if (ENABLE_PROFILING) {
+            profiler.begin(frame);
+        }
+    }
+
+    public void profilerEndFrame(Frame frame) {
+        if (ENABLE_PROFILING) {
+            profiler.end(frame);
+        }
+    }
+
+    public OperandStack getOperandStack() {
         return operandStack;
     }
 
-    public Stack<Frame> getCallStack() {
+    public CallStack getCallStack() {
         return callStack;
     }
 
@@ -749,6 +1557,11 @@ public class Machine {
         return searchRoots;
     }
 
+    @NotNull
+    public CodeCache getCodeCache() {
+        return codeCache;
+    }
+
     private static class ImportFileVisitor extends SimpleFileVisitor<Path> {
         private final String name;
         private Path result;
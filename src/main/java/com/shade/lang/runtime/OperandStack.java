@@ -0,0 +1,169 @@
+package com.shade.lang.runtime;
+
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Unsynchronized array-backed operand stack used by the {@link Machine}.
+ * <p>
+ * Every frame reserves enough space for its chunk's maximum stack
+ * depth upon entering (see {@link #reserve(int)}), so that pushes
+ * performed while executing this frame never need to grow the
+ * underlying array.
+ * <p>
+ * Local variables of a frame live on this stack as well: arguments
+ * passed to a function stay in place and become its first locals,
+ * the rest of locals are reserved directly above them, and the
+ * frame's operands follow.
+ */
+public class OperandStack {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private ScriptObject[] values;
+    private int size;
+
+    public OperandStack() {
+        this.values = new ScriptObject[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Makes sure that at least {@code count} more values
+     * can be pushed without growing the underlying array.
+     *
+     * @param count amount of values to reserve
+     */
+    public void reserve(int count) {
+        if (size + count > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length << 1, size + count));
+        }
+    }
+
+    public void push(@NotNull ScriptObject value) {
+        if (size == values.length) {
+            reserve(1);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Pushes {@code count} values from {@code source} starting at {@code offset},
+     * preserving their order.
+     *
+     * @param source array to push values from
+     * @param offset position inside {@code source} of the first value to push
+     * @param count  amount of values to push
+     */
+    public void push(@NotNull ScriptObject[] source, int offset, int count) {
+        reserve(count);
+        System.arraycopy(source, offset, values, size, count);
+        size += count;
+    }
+
+    @NotNull
+    public ScriptObject pop() {
+        final ScriptObject value = values[--size];
+        values[size] = null;
+        return value;
+    }
+
+    /**
+     * Pops {@code count} topmost values from this stack and stores them into
+     * {@code destination} starting at {@code offset}, preserving their order.
+     *
+     * @param destination array to store values into
+     * @param offset      position inside {@code destination} to store the first value at
+     * @param count       amount of values to pop
+     */
+    public void pop(@NotNull ScriptObject[] destination, int offset, int count) {
+        System.arraycopy(values, size - count, destination, offset, count);
+        truncate(size - count);
+    }
+
+    /**
+     * Inserts supplied {@code values} below {@code depth} topmost values of this stack.
+     *
+     * @param values values to insert
+     * @param depth  amount of topmost values to insert below
+     */
+    public void insert(@NotNull ScriptObject[] values, int depth) {
+        reserve(values.length);
+        System.arraycopy(this.values, size - depth, this.values, size - depth + values.length, depth);
+        System.arraycopy(values, 0, this.values, size - depth, values.length);
+        size += values.length;
+    }
+
+    /**
+     * Inserts supplied {@code value} below {@code depth} topmost values of this stack.
+     *
+     * @param value value to insert
+     * @param depth amount of topmost values to insert below
+     */
+    public void insert(@NotNull ScriptObject value, int depth) {
+        reserve(1);
+        System.arraycopy(values, size - depth, values, size - depth + 1, depth);
+        values[size - depth] = value;
+        size++;
+    }
+
+    /**
+     * Pushes {@code count} empty slots onto this stack. The caller
+     * must {@link #reserve(int)} enough space beforehand.
+     *
+     * @param count amount of slots to push
+     */
+    public void extend(int count) {
+        size += count;
+    }
+
+    /**
+     * Moves {@code count} topmost values of this stack so they start at {@code index}
+     * and removes everything above them.
+     *
+     * @param index position to move values to
+     * @param count amount of topmost values to move
+     */
+    public void moveTop(int index, int count) {
+        System.arraycopy(values, size - count, values, index, count);
+        truncate(index + count);
+    }
+
+    @NotNull
+    public ScriptObject peek() {
+        return values[size - 1];
+    }
+
+    public ScriptObject get(int index) {
+        return values[index];
+    }
+
+    public void set(int index, @NotNull ScriptObject value) {
+        values[index] = value;
+    }
+
+    /**
+     * Removes all values above {@code size} from this stack.
+     *
+     * @param size new size of this stack
+     */
+    public void truncate(int size) {
+        if (size < this.size) {
+            Arrays.fill(values, size, this.size, null);
+            this.size = size;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.copyOf(values, size));
+    }
+}
@@ -0,0 +1,204 @@
+package com.shade.lang.runtime;
+
+import com.shade.lang.runtime.frames.Frame;
+import com.shade.lang.runtime.frames.NativeFrame;
+import com.shade.lang.runtime.frames.RuntimeFrame;
+import com.shade.lang.runtime.objects.function.Function;
+import com.shade.lang.util.Histogram;
+import com.shade.lang.util.annotations.NotNull;
+import com.shade.lang.util.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-function profiler of a single {@link Machine}.
+ * <p>
+ * Each function gets an {@link Entry} holding its call count, total and
+ * self time and a {@link Histogram} of call durations, so memory used by
+ * the profiler depends on the amount of called functions rather than on
+ * the amount of calls. Frames that are currently executing are tracked
+ * in a shadow stack of primitive arrays.
+ * <p>
+ * Self time of a call is its duration without durations of calls it made.
+ * Total time of a recursive function only counts its outermost calls.
+ *
+ * @see Machine#ENABLE_PROFILING
+ */
+public class Profiler {
+    private final Map<Function, Entry> entries = new IdentityHashMap<>();
+    private final List<Entry> order = new ArrayList<>();
+    private Frame[] frames = new Frame[64];
+    private Entry[] frameEntries = new Entry[64];
+    private long[] starts = new long[64];
+    private long[] children = new long[64];
+    private int depth;
+
+    /**
+     * Starts timing the specified {@code frame}.
+     *
+     * @param frame frame that was pushed onto the call stack
+     */
+    public void begin(@NotNull Frame frame) {
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth << 1);
+            frameEntries = Arrays.copyOf(frameEntries, depth << 1);
+            starts = Arrays.copyOf(starts, depth << 1);
+            children = Arrays.copyOf(children, depth << 1);
+        }
+
+        final Entry entry = getEntry(frame);
+
+        if (entry != null) {
+            entry.active++;
+        }
+
+        frames[depth] = frame;
+        frameEntries[depth] = entry;
+        children[depth] = 0;
+        starts[depth++] = System.nanoTime();
+    }
+
+    /**
+     * Stops timing the specified {@code frame} and records its duration.
+     * Frames above it that were not ended are discarded.
+     * Frames that were not started are ignored.
+     *
+     * @param frame frame that was popped from the call stack
+     */
+    public void end(@NotNull Frame frame) {
+        final long time = System.nanoTime();
+        int index = depth - 1;
+
+        while (index >= 0 && frames[index] != frame) {
+            index--;
+        }
+
+        if (index < 0) {
+            return;
+        }
+
+        while (depth > index + 1) {
+            pop(time);
+        }
+
+        pop(time);
+    }
+
+    private void pop(long time) {
+        final int index = --depth;
+        final Entry entry = frameEntries[index];
+        final long elapsed = time - starts[index];
+
+        if (entry != null) {
+            entry.calls++;
+            entry.selfTime += elapsed - children[index];
+            entry.histogram.record(elapsed);
+
+            if (--entry.active == 0) {
+                entry.totalTime += elapsed;
+            }
+        }
+
+        if (index > 0) {
+            children[index - 1] += elapsed;
+        }
+
+        frames[index] = null;
+        frameEntries[index] = null;
+    }
+
+    /**
+     * Returns entries of all profiled functions in order of their first call.
+     *
+     * @return profiled functions
+     */
+    @NotNull
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(order);
+    }
+
+    public void reset() {
+        entries.clear();
+        order.clear();
+        Arrays.fill(frames, 0, depth, null);
+        Arrays.fill(frameEntries, 0, depth, null);
+        depth = 0;
+    }
+
+    @Nullable
+    private Entry getEntry(@NotNull Frame frame) {
+        final Function function;
+
+        if (frame instanceof RuntimeFrame) {
+            function = ((RuntimeFrame) frame).getFunction();
+        } else if (frame instanceof NativeFrame) {
+            function = ((NativeFrame) frame).getFunction();
+        } else {
+            return null;
+        }
+
+        Entry entry = entries.get(function);
+
+        if (entry == null) {
+            entries.put(function, entry = new Entry(function));
+            order.add(entry);
+        }
+
+        return entry;
+    }
+
+    public static final class Entry {
+        private final Function function;
+        private final Histogram histogram = new Histogram();
+        private long calls;
+        private long totalTime;
+        private long selfTime;
+        private int active;
+
+        private Entry(@NotNull Function function) {
+            this.function = function;
+        }
+
+        @NotNull
+        public Function getFunction() {
+            return function;
+        }
+
+        /**
+         * Returns the histogram of durations of calls of this function, in nanoseconds.
+         *
+         * @return histogram of call durations
+         */
+        @NotNull
+        public Histogram getHistogram() {
+            return histogram;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * Returns time spent in this function including calls it made, in nanoseconds.
+         *
+         * @return total time
+         */
+        public long getTotalTime() {
+            return totalTime;
+        }
+
+        /**
+         * Returns time spent in this function excluding calls it made, in nanoseconds.
+         *
+         * @return self time
+         */
+        public long getSelfTime() {
+            return selfTime;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.shade.lang.runtime;
+
+import com.shade.lang.runtime.frames.Frame;
+import com.shade.lang.runtime.frames.NativeFrame;
+import com.shade.lang.runtime.frames.RuntimeFrame;
+import com.shade.lang.runtime.objects.Chunk;
+import com.shade.lang.tool.serialization.attributes.LineNumberTableAttribute;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sampling profiler of a single {@link Machine}.
+ * <p>
+ * A daemon thread requests a sample once per interval, and the machine takes
+ * it at the next safe point: upon entering or leaving a frame and upon a
+ * backward jump. The request is dropped if the machine does not reach a safe
+ * point within an interval, e.g. when it's idle. Loops inside compiled code
+ * reach safe points only when they call a function.
+ * <p>
+ * Each sample is a call stack, from the outermost frame to the innermost
+ * one, where each frame is written as {@code module/function:line}. Samples
+ * are aggregated into the collapsed stack format, one unique stack with
+ * its count per line, that is read by flame graph tools.
+ *
+ * @see Machine#startSampling(long, TimeUnit)
+ */
+public class Sampler {
+    public static final long DEFAULT_INTERVAL_MILLIS = 10;
+
+    private final Map<String, Long> stacks = new TreeMap<>();
+    private final long interval;
+    private final Thread thread;
+    private volatile long requested;
+    private volatile boolean running;
+    private long samples;
+
+    Sampler(long interval, @NotNull TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Sampling interval must be positive");
+        }
+
+        this.interval = unit.toNanos(interval);
+        this.thread = new Thread(this::run, "ash-sampler");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        running = true;
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        requested = 0;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Checks whether a sample was requested. Called by
+     * the machine at safe points, so it must be cheap.
+     *
+     * @return {@code true} if a sample should be taken
+     */
+    boolean isRequested() {
+        return requested != 0;
+    }
+
+    /**
+     * Records the current {@code callStack} if the request is still fresh.
+     *
+     * @param callStack call stack of the machine
+     */
+    void sample(@NotNull CallStack callStack) {
+        final long time = requested;
+        requested = 0;
+
+        if (time == 0 || System.nanoTime() - time > interval || callStack.isEmpty()) {
+            return;
+        }
+
+        final StringBuilder builder = new StringBuilder();
+
+        for (int index = 0; index < callStack.size(); index++) {
+            if (index > 0) {
+                builder.append(';');
+            }
+
+            appendFrame(builder, callStack.get(index));
+        }
+
+        synchronized (stacks) {
+            stacks.merge(builder.toString(), 1L, Long::sum);
+            samples++;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, interval);
+
+            if (running) {
+                requested = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Writes collected samples in the collapsed stack format.
+     *
+     * @param output destination of collapsed stacks
+     */
+    public void writeCollapsedStacks(@NotNull Appendable output) {
+        synchronized (stacks) {
+            try {
+                for (Map.Entry<String, Long> entry : stacks.entrySet()) {
+                    output.append(entry.getKey()).append(' ').append(String.valueOf(entry.getValue())).append('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @NotNull
+    public String getCollapsedStacks() {
+        final StringBuilder builder = new StringBuilder();
+        writeCollapsedStacks(builder);
+        return builder.toString();
+    }
+
+    public long getSamples() {
+        synchronized (stacks) {
+            return samples;
+        }
+    }
+
+    public long getInterval(@NotNull TimeUnit unit) {
+        return unit.convert(interval, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void reset() {
+        synchronized (stacks) {
+            stacks.clear();
+            samples = 0;
+        }
+    }
+
+    private static void appendFrame(@NotNull StringBuilder builder, @NotNull Frame frame) {
+        builder.append(frame.getModule().getName());
+
+        if (frame instanceof RuntimeFrame) {
+            builder.append('/').append(((RuntimeFrame) frame).getFunction().getName());
+        } else if (frame instanceof NativeFrame) {
+            builder.append('/').append(((NativeFrame) frame).getFunction().getName());
+            return;
+        }
+
+        final Chunk chunk = frame.getChunk();
+        final LineNumberTableAttribute attribute = chunk != null ? chunk.getSingleAttribute(LineNumberTableAttribute.DESCRIPTOR) : null;
+        final LineNumberTableAttribute.Location location = attribute != null ? attribute.getNearestLocation(frame.pc) : null;
+
+        if (location != null) {
+            builder.append(':').append(location.getLine());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.shade.lang.runtime.frames;
+
+import com.shade.lang.runtime.objects.Generator;
+import com.shade.lang.runtime.objects.function.RuntimeFunction;
+import com.shade.lang.runtime.objects.module.Module;
+import com.shade.lang.util.annotations.NotNull;
+
+/**
+ * Frame of a resumed {@link Generator}. It's popped each time the generator
+ * yields a value and pushed again, with its locals and operands restored,
+ * when the generator is resumed.
+ */
+public class GeneratorFrame extends RuntimeFrame {
+    private final Generator generator;
+
+    public GeneratorFrame(@NotNull Module module, @NotNull RuntimeFunction function, @NotNull Generator generator, int locals, int stack) {
+        super(module, function, locals, stack);
+        this.generator = generator;
+    }
+
+    @NotNull
+    public Generator getGenerator() {
+        return generator;
+    }
+}
@@ -7,7 +7,7 @@ import com.shade.lang.tool.serialization.attributes.LineNumberTableAttribute;
 
 public class ModuleFrame extends Frame {
     public ModuleFrame(@NotNull Module module, int stack) {
-        super(module, module.getChunk(), null, stack);
+        super(module, module.getChunk(), stack, stack);
     }
 
     @Override
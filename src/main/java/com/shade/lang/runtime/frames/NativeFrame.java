@@ -10,7 +10,7 @@ public class NativeFrame extends Frame {
     private final NativeFunction function;
 
     public NativeFrame(@NotNull Module module, @NotNull NativeFunction function, int stack) {
-        super(module, null, null, stack);
+        super(module, null, stack, stack);
         this.function = function;
     }
 
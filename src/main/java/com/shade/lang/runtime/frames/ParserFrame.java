@@ -9,7 +9,7 @@ public class ParserFrame extends Frame {
     private final ScriptException exception;
 
     public ParserFrame(@NotNull Module module, @NotNull String source, @NotNull ScriptException exception, int stack) {
-        super(module, null, null, stack);
+        super(module, null, stack, stack);
         this.source = source;
         this.exception = exception;
     }
@@ -1,6 +1,5 @@
 package com.shade.lang.runtime.frames;
 
-import com.shade.lang.runtime.objects.ScriptObject;
 import com.shade.lang.runtime.objects.function.RuntimeFunction;
 import com.shade.lang.runtime.objects.module.Module;
 import com.shade.lang.util.annotations.NotNull;
@@ -12,7 +11,7 @@ import java.util.Objects;
 public class RuntimeFrame extends Frame {
     private final RuntimeFunction function;
 
-    public RuntimeFrame(@NotNull Module module, @NotNull RuntimeFunction function, @Nullable ScriptObject[] locals, int stack) {
+    public RuntimeFrame(@NotNull Module module, @NotNull RuntimeFunction function, int locals, int stack) {
         super(module, function.getChunk(), locals, stack);
         this.function = function;
     }
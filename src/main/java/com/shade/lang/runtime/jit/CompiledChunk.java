@@ -0,0 +1,43 @@
+package com.shade.lang.runtime.jit;
+
+import com.shade.lang.runtime.InlineCache;
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.frames.Frame;
+import com.shade.lang.runtime.objects.Chunk;
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.util.annotations.NotNull;
+import com.shade.lang.util.annotations.Nullable;
+
+/**
+ * Base class of JVM classes generated by the {@link JitCompiler}
+ * from a single {@link Chunk}.
+ * <p>
+ * Generated classes keep frame locals and operands in JVM locals, so
+ * the machine's operand stack is touched only when passing arguments
+ * to other functions.
+ */
+public abstract class CompiledChunk {
+    protected final ScriptObject[] objects;
+    protected final String[] symbols;
+    protected final InlineCache[] caches;
+
+    protected CompiledChunk(@NotNull Chunk chunk, @NotNull InlineCache[] caches) {
+        this.objects = chunk.getConstantObjects();
+        this.symbols = chunk.getConstantSymbols();
+        this.caches = caches;
+    }
+
+    /**
+     * Executes the chunk in the supplied {@code frame} until it returns.
+     * <p>
+     * The frame must be at the top of the call stack and its arguments
+     * must be placed in its local slots. This method leaves both the frame
+     * and its locals in place, see {@link Machine#execute(Frame, CompiledChunk)}.
+     *
+     * @param machine machine to execute the chunk on
+     * @param frame   frame to execute the chunk in
+     * @return returned value or {@code null} if the frame was unwound by a panic or replaced by a tail call
+     */
+    @Nullable
+    public abstract ScriptObject execute(@NotNull Machine machine, @NotNull Frame frame);
+}
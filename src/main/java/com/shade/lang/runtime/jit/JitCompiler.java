@@ -0,0 +1,906 @@
+package com.shade.lang.runtime.jit;
+
+import com.shade.lang.compiler.assembler.OperandType;
+import com.shade.lang.compiler.assembler.Operation;
+import com.shade.lang.runtime.InlineCache;
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.OperandStack;
+import com.shade.lang.runtime.frames.Frame;
+import com.shade.lang.runtime.objects.Chunk;
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.runtime.objects.function.RuntimeFunction;
+import com.shade.lang.util.ClassDefiner;
+import com.shade.lang.util.annotations.NotNull;
+import com.shade.lang.util.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Translates hot chunks of {@link RuntimeFunction} into JVM classes
+ * so that they are executed without going through the interpreter's
+ * dispatch loop and can be further optimized by the JVM itself.
+ * <p>
+ * A chunk becomes hot once the sum of its invocations and backward jumps
+ * taken by the interpreter reaches {@link #THRESHOLD}. Compilation happens
+ * on the next invocation of the chunk; chunks that are already running in
+ * the interpreter stay there until they return.
+ * <p>
+ * Chunks that declare guards or contain instructions that manipulate the
+ * call stack on their own (such as {@code IMPORT} or {@code MAKE_CLASS})
+ * are never compiled and always run in the interpreter.
+ * <p>
+ * Compilation is disabled while {@link Machine#ENABLE_COUNTERS} is set,
+ * because compiled code does not update execution counters.
+ */
+public final class JitCompiler {
+    public static final boolean ENABLE_JIT = Boolean.parseBoolean(System.getProperty("ash.jit.enable", "true")) && !Machine.ENABLE_COUNTERS;
+    public static final int THRESHOLD = Integer.getInteger("ash.jit.threshold", 1000);
+    public static final int MAX_DEPTH = Integer.getInteger("ash.jit.depth", 256);
+
+    private static final Logger LOG = Logger.getLogger(JitCompiler.class.getName());
+
+    private static final String RUNTIME = Type.getInternalName(JitRuntime.class);
+    private static final String COMPILED_CHUNK = Type.getInternalName(CompiledChunk.class);
+    private static final String OPERAND_STACK = Type.getInternalName(OperandStack.class);
+    private static final String FRAME = Type.getInternalName(Frame.class);
+    private static final String MACHINE = Type.getDescriptor(Machine.class);
+    private static final String OBJECT = Type.getDescriptor(ScriptObject.class);
+    private static final String CACHE = Type.getDescriptor(InlineCache.class);
+    private static final String STRING = Type.getDescriptor(String.class);
+
+    // JVM local slots of the generated method
+    private static final int SLOT_THIS = 0;
+    private static final int SLOT_MACHINE = 1;
+    private static final int SLOT_FRAME = 2;
+    private static final int SLOT_STACK = 3;
+    private static final int SLOT_LOCALS = 4;
+
+    static {
+        LOG.setLevel(Machine.ENABLE_LOGGING ? null : Level.OFF);
+    }
+
+    private final Chunk chunk;
+    private final String name;
+    private final List<Instruction> instructions = new ArrayList<>();
+    private final List<InlineCache> caches = new ArrayList<>();
+    private int[] indices;
+    private int maxDepth;
+    private int scratch;
+
+    private JitCompiler(@NotNull Chunk chunk, @NotNull String name) {
+        this.chunk = chunk;
+        this.name = name;
+    }
+
+    /**
+     * Counts an invocation of the supplied {@code function} and returns
+     * its compiled chunk, compiling it first if the chunk became hot.
+     *
+     * @param function function that is being invoked
+     * @return compiled chunk or {@code null} if the function must be interpreted
+     */
+    @Nullable
+    public static CompiledChunk getCompiledChunk(@NotNull RuntimeFunction function) {
+        final Chunk chunk = function.getChunk();
+        final CompiledChunk compiled = chunk.getCompiledChunk();
+
+        if (compiled != null || chunk.incrementHotness() < THRESHOLD) {
+            return compiled;
+        }
+
+        final CompiledChunk result = compile(chunk, function.getName());
+
+        if (result == null) {
+            chunk.setHotness(Integer.MIN_VALUE);
+        }
+
+        chunk.setCompiledChunk(result);
+
+        return result;
+    }
+
+    /**
+     * Compiles the supplied {@code chunk} into a JVM class.
+     *
+     * @param chunk chunk to compile
+     * @param name  name of the function the chunk belongs to
+     * @return compiled chunk or {@code null} if the chunk cannot be compiled
+     */
+    @Nullable
+    public static CompiledChunk compile(@NotNull Chunk chunk, @NotNull String name) {
+        if (chunk.getGuards().length > 0) {
+            LOG.info("Chunk of '" + name + "' declares guards, leaving it interpreted");
+            return null;
+        }
+
+        final JitCompiler compiler = new JitCompiler(chunk, name);
+
+        try {
+            final byte[] bytes = compiler.compile0();
+
+            if (bytes == null) {
+                return null;
+            }
+
+            final Class<?> clazz = ClassDefiner.defineAnonymousClass(JitCompiler.class, bytes);
+            final InlineCache[] caches = compiler.caches.toArray(new InlineCache[0]);
+
+            LOG.info("Compiled chunk of '" + name + "' (" + chunk.getCode().length + " bytes of code into " + bytes.length + " bytes of class)");
+
+            return (CompiledChunk) clazz.getConstructor(Chunk.class, InlineCache[].class).newInstance(chunk, caches);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            LOG.log(Level.WARNING, "Failed to compile chunk of '" + name + "'", e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private byte[] compile0() {
+        if (!decode() || !computeStackDepths()) {
+            return null;
+        }
+
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+        cw.visit(
+            V1_5,
+            ACC_PUBLIC | ACC_FINAL | ACC_SYNTHETIC,
+            Type.getInternalName(JitCompiler.class).replace("JitCompiler", "Compiled$") + name.replaceAll("\\W", "_"),
+            null,
+            COMPILED_CHUNK,
+            null
+        );
+
+        {
+            final String descriptor = "(" + Type.getDescriptor(Chunk.class) + "[" + CACHE + ")V";
+            final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", descriptor, null, null);
+            mv.visitCode();
+
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitMethodInsn(INVOKESPECIAL, COMPILED_CHUNK, "<init>", descriptor, false);
+            mv.visitInsn(RETURN);
+
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        {
+            final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "execute", "(" + MACHINE + Type.getDescriptor(Frame.class) + ")" + OBJECT, null, null);
+            mv.visitCode();
+            emitMethod(mv);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    private boolean decode() {
+        final byte[] code = chunk.getCode();
+
+        indices = new int[code.length + 1];
+        Arrays.fill(indices, -1);
+
+        for (int pc = 0; pc < code.length; ) {
+            final Operation operation = Operation.of(code[pc]);
+
+            if (operation == null || !isSupported(operation)) {
+                LOG.info("Chunk of '" + name + "' contains unsupported instruction " + (operation != null ? operation : code[pc]) + ", leaving it interpreted");
+                return false;
+            }
+
+            final OperandType[] types = operation.getOperands();
+            final int[] operands = new int[types.length];
+            int position = pc + 1;
+
+            for (int index = 0; index < types.length; index++) {
+                switch (types[index]) {
+                    case IMM_8:
+                        operands[index] = code[position];
+                        break;
+                    case IMM_16:
+                        operands[index] = (short) ((code[position] & 0xff) << 8 | code[position + 1] & 0xff);
+                        break;
+                    case CONSTANT:
+                        operands[index] = (code[position] & 0xff) << 8 | code[position + 1] & 0xff;
+                        break;
+                    default:
+                        return false;
+                }
+                position += types[index].getSize();
+            }
+
+            indices[pc] = instructions.size();
+            instructions.add(new Instruction(operation, operands, pc, position));
+            pc = position;
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes the operand stack depth before each reachable instruction
+     * so operands can be mapped onto JVM locals. Fails if the depth is
+     * inconsistent or if a jump points in-between instructions.
+     */
+    private boolean computeStackDepths() {
+        final Deque<Instruction> queue = new ArrayDeque<>();
+
+        if (instructions.isEmpty()) {
+            return false;
+        }
+
+        instructions.get(0).depth = 0;
+        queue.add(instructions.get(0));
+
+        while (!queue.isEmpty()) {
+            final Instruction instruction = queue.poll();
+            final int depth = instruction.depth;
+            final int after = depth + getStackEffect(instruction);
+
+            if (depth < getStackInput(instruction) || after < 0) {
+                return false;
+            }
+
+            maxDepth = Math.max(maxDepth, Math.max(depth, after));
+
+            switch (instruction.operation) {
+                case RETURN:
+                case THROW:
+                    break;
+                case JUMP:
+                    if (!flow(queue, instruction.getTarget(), depth)) {
+                        return false;
+                    }
+                    break;
+                case JUMP_IF_TRUE:
+                case JUMP_IF_FALSE:
+                    if (!flow(queue, instruction.getTarget(), depth - 1) || !flow(queue, instruction.next, depth - 1)) {
+                        return false;
+                    }
+                    break;
+                case JUMP_IF_TRUE_OR_POP:
+                case JUMP_IF_FALSE_OR_POP:
+                    if (!flow(queue, instruction.getTarget(), depth) || !flow(queue, instruction.next, depth - 1)) {
+                        return false;
+                    }
+                    break;
+                case FOR_RANGE_INIT:
+                case FOR_RANGE_NEXT:
+                    if (!flow(queue, instruction.getTarget(), after) || !flow(queue, instruction.next, after)) {
+                        return false;
+                    }
+                    break;
+                default:
+                    if (!flow(queue, instruction.next, after)) {
+                        return false;
+                    }
+                    break;
+            }
+        }
+
+        scratch = SLOT_LOCALS + chunk.getLocals() + maxDepth;
+
+        return true;
+    }
+
+    private boolean flow(@NotNull Deque<Instruction> queue, int pc, int depth) {
+        if (pc < 0 || pc >= indices.length || indices[pc] < 0) {
+            return false;
+        }
+
+        final Instruction target = instructions.get(indices[pc]);
+
+        if (target.depth < 0) {
+            target.depth = depth;
+            queue.add(target);
+            return true;
+        }
+
+        return target.depth == depth;
+    }
+
+    private void emitMethod(@NotNull MethodVisitor mv) {
+        final Label bail = new Label();
+
+        for (Instruction instruction : instructions) {
+            instruction.label = new Label();
+        }
+
+        // Copy locals from the machine's operand stack into JVM locals
+
+        mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+        mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Machine.class), "getOperandStack", "()L" + OPERAND_STACK + ";", false);
+        mv.visitVarInsn(ASTORE, SLOT_STACK);
+
+        for (int index = 0; index < chunk.getLocals(); index++) {
+            mv.visitVarInsn(ALOAD, SLOT_STACK);
+            mv.visitVarInsn(ALOAD, SLOT_FRAME);
+            mv.visitMethodInsn(INVOKEVIRTUAL, FRAME, "getLocals", "()I", false);
+            emitInt(mv, index);
+            mv.visitInsn(IADD);
+            mv.visitMethodInsn(INVOKEVIRTUAL, OPERAND_STACK, "get", "(I)" + OBJECT, false);
+            mv.visitVarInsn(ASTORE, SLOT_LOCALS + index);
+        }
+
+        for (Instruction instruction : instructions) {
+            mv.visitLabel(instruction.label);
+
+            if (instruction.depth >= 0) {
+                emitInstruction(mv, instruction, bail);
+            }
+        }
+
+        mv.visitLabel(bail);
+        mv.visitInsn(ACONST_NULL);
+        mv.visitInsn(ARETURN);
+    }
+
+    private void emitInstruction(@NotNull MethodVisitor mv, @NotNull Instruction instruction, @NotNull Label bail) {
+        final int[] args = instruction.operands;
+        final int depth = instruction.depth;
+
+        switch (instruction.operation) {
+            case PUSH:
+                emitConstantObject(mv, args[0]);
+                mv.visitVarInsn(ASTORE, operand(depth));
+                break;
+            case DUP:
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                mv.visitVarInsn(ASTORE, operand(depth));
+                break;
+            case DUP_AT:
+                mv.visitVarInsn(ALOAD, operand(depth + args[0]));
+                mv.visitVarInsn(ASTORE, operand(depth));
+                break;
+            case POP:
+                break;
+            case GET_GLOBAL:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, SLOT_FRAME);
+                emitCache(mv, instruction);
+                emitSymbol(mv, args[0]);
+                emitCall(mv, "getGlobal", "(" + MACHINE + "L" + FRAME + ";" + CACHE + STRING + ")" + OBJECT);
+                emitStoreOrBail(mv, operand(depth), bail);
+                break;
+            case SET_GLOBAL:
+                mv.visitVarInsn(ALOAD, SLOT_FRAME);
+                emitSymbol(mv, args[0]);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitCall(mv, "setGlobal", "(L" + FRAME + ";" + STRING + OBJECT + ")V");
+                break;
+            case GET_LOCAL:
+                mv.visitVarInsn(ALOAD, SLOT_LOCALS + args[0]);
+                mv.visitVarInsn(ASTORE, operand(depth));
+                break;
+            case SET_LOCAL:
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                mv.visitVarInsn(ASTORE, SLOT_LOCALS + args[0]);
+                break;
+            case GET_ATTRIBUTE:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                emitCache(mv, instruction);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitSymbol(mv, args[0]);
+                emitCall(mv, "getAttribute", "(" + MACHINE + CACHE + OBJECT + STRING + ")" + OBJECT);
+                emitStoreOrBail(mv, operand(depth - 1), bail);
+                break;
+            case SET_ATTRIBUTE:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, operand(depth - 2));
+                emitSymbol(mv, args[0]);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitCall(mv, "setAttribute", "(" + MACHINE + OBJECT + STRING + OBJECT + ")Z");
+                mv.visitJumpInsn(IFEQ, bail);
+                break;
+            case GET_INDEX:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, operand(depth - 2));
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitCall(mv, "getIndex", "(" + MACHINE + OBJECT + OBJECT + ")" + OBJECT);
+                emitStoreOrBail(mv, operand(depth - 2), bail);
+                break;
+            case SET_INDEX:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, SLOT_FRAME);
+                mv.visitVarInsn(ALOAD, operand(depth - 3));
+                mv.visitVarInsn(ALOAD, operand(depth - 2));
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitCall(mv, "setIndex", "(" + MACHINE + "L" + FRAME + ";" + OBJECT + OBJECT + OBJECT + ")Z");
+                mv.visitJumpInsn(IFEQ, bail);
+                break;
+            case ADD:
+            case ADD_INT:
+                emitBinary(mv, instruction, "add", bail);
+                break;
+            case SUB:
+            case SUB_INT:
+                emitBinary(mv, instruction, "sub", bail);
+                break;
+            case MUL:
+            case MUL_INT:
+                emitBinary(mv, instruction, "mul", bail);
+                break;
+            case DIV:
+                emitBinary(mv, instruction, "div", bail);
+                break;
+            case CMP_EQ:
+            case CMP_EQ_INT:
+                mv.visitVarInsn(ALOAD, operand(depth - 2));
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitCall(mv, "equal", "(" + OBJECT + OBJECT + ")" + OBJECT);
+                mv.visitVarInsn(ASTORE, operand(depth - 2));
+                break;
+            case CMP_NE:
+                mv.visitVarInsn(ALOAD, operand(depth - 2));
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitCall(mv, "notEqual", "(" + OBJECT + OBJECT + ")" + OBJECT);
+                mv.visitVarInsn(ASTORE, operand(depth - 2));
+                break;
+            case CMP_LT:
+            case CMP_LT_INT:
+                emitBinary(mv, instruction, "less", bail);
+                break;
+            case CMP_LE:
+            case CMP_LE_INT:
+                emitBinary(mv, instruction, "lessEqual", bail);
+                break;
+            case CMP_GT:
+            case CMP_GT_INT:
+                emitBinary(mv, instruction, "greater", bail);
+                break;
+            case CMP_GE:
+            case CMP_GE_INT:
+                emitBinary(mv, instruction, "greaterEqual", bail);
+                break;
+            case CONCAT:
+                emitArguments(mv, depth - args[0], args[0]);
+                mv.visitVarInsn(ALOAD, SLOT_STACK);
+                emitInt(mv, args[0]);
+                emitCall(mv, "concat", "(L" + OPERAND_STACK + ";I)" + OBJECT);
+                mv.visitVarInsn(ASTORE, operand(depth - args[0]));
+                break;
+            case NOT:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitCall(mv, "not", "(" + MACHINE + OBJECT + ")" + OBJECT);
+                emitStoreOrBail(mv, operand(depth - 1), bail);
+                break;
+            case JUMP:
+                mv.visitJumpInsn(GOTO, getTarget(instruction));
+                break;
+            case JUMP_IF_TRUE:
+            case JUMP_IF_TRUE_OR_POP:
+                emitTest(mv, instruction, bail);
+                mv.visitJumpInsn(IFNE, getTarget(instruction));
+                break;
+            case JUMP_IF_FALSE:
+            case JUMP_IF_FALSE_OR_POP:
+                emitTest(mv, instruction, bail);
+                mv.visitJumpInsn(IFEQ, getTarget(instruction));
+                break;
+            case FOR_RANGE_INIT:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, operand(depth - 2));
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitInt(mv, args[3]);
+                emitCall(mv, "rangeLimit", "(" + MACHINE + OBJECT + OBJECT + "I)" + OBJECT);
+                emitStoreOrBail(mv, SLOT_LOCALS + args[1] + 1, bail);
+                mv.visitVarInsn(ALOAD, operand(depth - 2));
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitInt(mv, args[3]);
+                emitCall(mv, "isRangeEmpty", "(" + OBJECT + OBJECT + "I)Z");
+                mv.visitJumpInsn(IFNE, getTarget(instruction));
+                mv.visitVarInsn(ALOAD, operand(depth - 2));
+                mv.visitVarInsn(ASTORE, SLOT_LOCALS + args[1]);
+                mv.visitVarInsn(ALOAD, SLOT_LOCALS + args[1]);
+                mv.visitVarInsn(ASTORE, SLOT_LOCALS + args[2]);
+                break;
+            case FOR_RANGE_NEXT: {
+                final Label done = new Label();
+                mv.visitVarInsn(ALOAD, SLOT_LOCALS + args[1]);
+                mv.visitVarInsn(ALOAD, SLOT_LOCALS + args[1] + 1);
+                emitCall(mv, "rangeNext", "(" + OBJECT + OBJECT + ")" + OBJECT);
+                mv.visitInsn(DUP);
+                mv.visitJumpInsn(IFNULL, done);
+                mv.visitInsn(DUP);
+                mv.visitVarInsn(ASTORE, SLOT_LOCALS + args[1]);
+                mv.visitVarInsn(ASTORE, SLOT_LOCALS + args[2]);
+                mv.visitJumpInsn(GOTO, getTarget(instruction));
+                mv.visitLabel(done);
+                mv.visitInsn(POP);
+                break;
+            }
+            case TAIL_CALL: {
+                final Label call = new Label();
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_FRAME);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitInt(mv, args[0]);
+                emitCall(mv, "isSelfCall", "(L" + FRAME + ";" + OBJECT + "I)Z");
+                mv.visitJumpInsn(IFEQ, call);
+                // Restart the chunk with new arguments instead of calling itself
+                for (int index = 0; index < chunk.getLocals(); index++) {
+                    if (index < args[0]) {
+                        mv.visitVarInsn(ALOAD, operand(depth - 1 - args[0] + index));
+                    } else {
+                        mv.visitInsn(ACONST_NULL);
+                    }
+                    mv.visitVarInsn(ASTORE, SLOT_LOCALS + index);
+                }
+                mv.visitJumpInsn(GOTO, instructions.get(0).label);
+                mv.visitLabel(call);
+                emitArguments(mv, depth - 1 - args[0], args[0]);
+                // Leave the interpreter to run the function that has replaced this frame
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, SLOT_FRAME);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitInt(mv, args[0]);
+                emitCall(mv, "tailCall", "(" + MACHINE + "L" + FRAME + ";" + OBJECT + "I)Z");
+                mv.visitJumpInsn(IFNE, bail);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitInt(mv, args[0]);
+                emitCall(mv, "call", "(" + MACHINE + OBJECT + "I)" + OBJECT);
+                emitStoreOrBail(mv, operand(depth - 1 - args[0]), bail);
+                break;
+            }
+            case CALL:
+                emitPosition(mv, instruction);
+                emitArguments(mv, depth - 1 - args[0], args[0]);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitInt(mv, args[0]);
+                emitCall(mv, "call", "(" + MACHINE + OBJECT + "I)" + OBJECT);
+                emitStoreOrBail(mv, operand(depth - 1 - args[0]), bail);
+                break;
+            case CALL_METHOD:
+                emitPosition(mv, instruction);
+                emitArguments(mv, depth - 1 - args[1], args[1]);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                emitCache(mv, instruction);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitSymbol(mv, args[0]);
+                emitInt(mv, args[1]);
+                emitCall(mv, "callMethod", "(" + MACHINE + CACHE + OBJECT + STRING + "I)" + OBJECT);
+                emitStoreOrBail(mv, operand(depth - 1 - args[1]), bail);
+                break;
+            case CALL_GLOBAL:
+                emitPosition(mv, instruction);
+                emitArguments(mv, depth - args[1], args[1]);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, SLOT_FRAME);
+                emitCache(mv, instruction);
+                emitSymbol(mv, args[0]);
+                emitInt(mv, args[1]);
+                emitCall(mv, "callGlobal", "(" + MACHINE + "L" + FRAME + ";" + CACHE + STRING + "I)" + OBJECT);
+                emitStoreOrBail(mv, operand(depth - args[1]), bail);
+                break;
+            case GET_LOCAL2:
+                mv.visitVarInsn(ALOAD, SLOT_LOCALS + args[0]);
+                mv.visitVarInsn(ASTORE, operand(depth));
+                mv.visitVarInsn(ALOAD, SLOT_LOCALS + args[1]);
+                mv.visitVarInsn(ASTORE, operand(depth + 1));
+                break;
+            case GET_LOCAL_PUSH:
+                mv.visitVarInsn(ALOAD, SLOT_LOCALS + args[0]);
+                mv.visitVarInsn(ASTORE, operand(depth));
+                emitConstantObject(mv, args[1]);
+                mv.visitVarInsn(ASTORE, operand(depth + 1));
+                break;
+            case GET_LOCAL_ATTRIBUTE:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                emitCache(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_LOCALS + args[0]);
+                emitSymbol(mv, args[1]);
+                emitCall(mv, "getAttribute", "(" + MACHINE + CACHE + OBJECT + STRING + ")" + OBJECT);
+                emitStoreOrBail(mv, operand(depth), bail);
+                break;
+            case RETURN:
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                mv.visitInsn(ARETURN);
+                break;
+            case BIND:
+                mv.visitVarInsn(ALOAD, operand(depth - 2));
+                emitInt(mv, args[0]);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitCall(mv, "bind", "(" + OBJECT + "I" + OBJECT + ")V");
+                break;
+            case ASSERT:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitSymbol(mv, args[0]);
+                emitConstantObject(mv, args[1]);
+                emitCall(mv, "assertTrue", "(" + MACHINE + OBJECT + STRING + OBJECT + ")Z");
+                mv.visitJumpInsn(IFEQ, bail);
+                break;
+            case NEW:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitCall(mv, "instantiate", "(" + MACHINE + OBJECT + ")" + OBJECT);
+                emitStoreOrBail(mv, operand(depth - 1), bail);
+                break;
+            case SUPER:
+                emitBinary(mv, instruction, "superOf", bail);
+                break;
+            case INSTANCE_OF:
+                emitBinary(mv, instruction, "instanceOf", bail);
+                break;
+            case MAKE_FUNCTION:
+                mv.visitVarInsn(ALOAD, SLOT_FRAME);
+                emitSymbol(mv, args[0]);
+                emitConstantObject(mv, args[1]);
+                emitCall(mv, "makeFunction", "(L" + FRAME + ";" + STRING + OBJECT + ")" + OBJECT);
+                mv.visitVarInsn(ASTORE, operand(depth));
+                break;
+            case THROW:
+                emitPosition(mv, instruction);
+                mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+                mv.visitVarInsn(ALOAD, operand(depth - 1));
+                emitCall(mv, "raise", "(" + MACHINE + OBJECT + ")V");
+                mv.visitJumpInsn(GOTO, bail);
+                break;
+            default:
+                throw new IllegalStateException("Unsupported instruction: " + instruction.operation);
+        }
+    }
+
+    private void emitBinary(@NotNull MethodVisitor mv, @NotNull Instruction instruction, @NotNull String handler, @NotNull Label bail) {
+        emitPosition(mv, instruction);
+        mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+        mv.visitVarInsn(ALOAD, operand(instruction.depth - 2));
+        mv.visitVarInsn(ALOAD, operand(instruction.depth - 1));
+        emitCall(mv, handler, "(" + MACHINE + OBJECT + OBJECT + ")" + OBJECT);
+        emitStoreOrBail(mv, operand(instruction.depth - 2), bail);
+    }
+
+    private void emitTest(@NotNull MethodVisitor mv, @NotNull Instruction instruction, @NotNull Label bail) {
+        emitPosition(mv, instruction);
+        mv.visitVarInsn(ALOAD, SLOT_MACHINE);
+        mv.visitVarInsn(ALOAD, operand(instruction.depth - 1));
+        emitCall(mv, "test", "(" + MACHINE + OBJECT + ")I");
+        mv.visitVarInsn(ISTORE, scratch);
+        mv.visitVarInsn(ILOAD, scratch);
+        mv.visitJumpInsn(IFLT, bail);
+        mv.visitVarInsn(ILOAD, scratch);
+    }
+
+    private void emitArguments(@NotNull MethodVisitor mv, int first, int count) {
+        for (int index = 0; index < count; index++) {
+            mv.visitVarInsn(ALOAD, SLOT_STACK);
+            mv.visitVarInsn(ALOAD, operand(first + index));
+            mv.visitMethodInsn(INVOKEVIRTUAL, OPERAND_STACK, "push", "(" + OBJECT + ")V", false);
+        }
+    }
+
+    private static void emitStoreOrBail(@NotNull MethodVisitor mv, int slot, @NotNull Label bail) {
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ASTORE, slot);
+        mv.visitJumpInsn(IFNULL, bail);
+    }
+
+    /**
+     * Stores the position of the next instruction into the frame, so panics
+     * raised by the instruction report the same location as the interpreter.
+     */
+    private static void emitPosition(@NotNull MethodVisitor mv, @NotNull Instruction instruction) {
+        mv.visitVarInsn(ALOAD, SLOT_FRAME);
+        emitInt(mv, instruction.next);
+        mv.visitFieldInsn(PUTFIELD, FRAME, "pc", "I");
+    }
+
+    private static void emitConstantObject(@NotNull MethodVisitor mv, int index) {
+        mv.visitVarInsn(ALOAD, SLOT_THIS);
+        mv.visitFieldInsn(GETFIELD, COMPILED_CHUNK, "objects", "[" + OBJECT);
+        emitInt(mv, index);
+        mv.visitInsn(AALOAD);
+    }
+
+    private static void emitSymbol(@NotNull MethodVisitor mv, int index) {
+        mv.visitVarInsn(ALOAD, SLOT_THIS);
+        mv.visitFieldInsn(GETFIELD, COMPILED_CHUNK, "symbols", "[" + STRING);
+        emitInt(mv, index);
+        mv.visitInsn(AALOAD);
+    }
+
+    private void emitCache(@NotNull MethodVisitor mv, @NotNull Instruction instruction) {
+        mv.visitVarInsn(ALOAD, SLOT_THIS);
+        mv.visitFieldInsn(GETFIELD, COMPILED_CHUNK, "caches", "[" + CACHE);
+        emitInt(mv, caches.size());
+        mv.visitInsn(AALOAD);
+        caches.add(chunk.getInlineCache(instruction.pc + 1));
+    }
+
+    private static void emitCall(@NotNull MethodVisitor mv, @NotNull String handler, @NotNull String descriptor) {
+        mv.visitMethodInsn(INVOKESTATIC, RUNTIME, handler, descriptor, false);
+    }
+
+    private static void emitInt(@NotNull MethodVisitor mv, int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    @NotNull
+    private Label getTarget(@NotNull Instruction instruction) {
+        return instructions.get(indices[instruction.getTarget()]).label;
+    }
+
+    private int operand(int depth) {
+        return SLOT_LOCALS + chunk.getLocals() + depth;
+    }
+
+    private static boolean isSupported(@NotNull Operation operation) {
+        switch (operation) {
+            case IMPORT:
+            case MAKE_CLASS:
+            case AND:
+            case OR:
+            case XOR:
+            case SHL:
+            case SHR:
+            case RESUME:
+            case YIELD:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns the minimal amount of operands the
+     * supplied {@code instruction} requires on the stack.
+     */
+    private static int getStackInput(@NotNull Instruction instruction) {
+        final int[] args = instruction.operands;
+
+        switch (instruction.operation) {
+            case PUSH:
+            case GET_GLOBAL:
+            case GET_LOCAL:
+            case GET_LOCAL2:
+            case GET_LOCAL_PUSH:
+            case GET_LOCAL_ATTRIBUTE:
+            case MAKE_FUNCTION:
+            case JUMP:
+            case FOR_RANGE_NEXT:
+                return 0;
+            case DUP_AT:
+                return -args[0];
+            case SET_INDEX:
+                return 3;
+            case CALL:
+            case TAIL_CALL:
+                return args[0] + 1;
+            case CALL_METHOD:
+                return args[1] + 1;
+            case CALL_GLOBAL:
+                return args[1];
+            case CONCAT:
+                return args[0];
+            case SET_ATTRIBUTE:
+            case GET_INDEX:
+            case BIND:
+            case SUPER:
+            case INSTANCE_OF:
+            case FOR_RANGE_INIT:
+            case ADD:
+            case SUB:
+            case MUL:
+            case DIV:
+            case CMP_EQ:
+            case CMP_NE:
+            case CMP_LT:
+            case CMP_LE:
+            case CMP_GT:
+            case CMP_GE:
+            case ADD_INT:
+            case SUB_INT:
+            case MUL_INT:
+            case CMP_EQ_INT:
+            case CMP_LT_INT:
+            case CMP_LE_INT:
+            case CMP_GT_INT:
+            case CMP_GE_INT:
+                return 2;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Returns the difference between operand stack depth after
+     * and before the supplied {@code instruction} is executed.
+     * For conditional jumps, the difference on fall-through is returned.
+     */
+    private static int getStackEffect(@NotNull Instruction instruction) {
+        final int[] args = instruction.operands;
+
+        switch (instruction.operation) {
+            case PUSH:
+            case DUP:
+            case DUP_AT:
+            case GET_GLOBAL:
+            case GET_LOCAL:
+            case GET_LOCAL_ATTRIBUTE:
+            case MAKE_FUNCTION:
+                return 1;
+            case GET_LOCAL2:
+            case GET_LOCAL_PUSH:
+                return 2;
+            case GET_ATTRIBUTE:
+            case NOT:
+            case NEW:
+            case JUMP:
+            case FOR_RANGE_NEXT:
+                return 0;
+            case SET_ATTRIBUTE:
+            case BIND:
+            case FOR_RANGE_INIT:
+                return -2;
+            case SET_INDEX:
+                return -3;
+            case CALL:
+            case CALL_METHOD:
+            case TAIL_CALL:
+                return -args[args.length - 1];
+            case CALL_GLOBAL:
+            case CONCAT:
+                return 1 - args[args.length - 1];
+            default:
+                return -1;
+        }
+    }
+
+    private static class Instruction {
+        private final Operation operation;
+        private final int[] operands;
+        private final int pc;
+        private final int next;
+        private Label label;
+        private int depth = -1;
+
+        public Instruction(@NotNull Operation operation, @NotNull int[] operands, int pc, int next) {
+            this.operation = operation;
+            this.operands = operands;
+            this.pc = pc;
+            this.next = next;
+        }
+
+        public int getTarget() {
+            return next + operands[0];
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.shade.lang.runtime.jit;
+
+import com.shade.lang.runtime.InlineCache;
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.OperandStack;
+import com.shade.lang.runtime.frames.Frame;
+import com.shade.lang.runtime.frames.RuntimeFrame;
+import com.shade.lang.runtime.objects.Chunk;
+import com.shade.lang.runtime.objects.Class;
+import com.shade.lang.runtime.objects.Instance;
+import com.shade.lang.runtime.objects.Proxy;
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.runtime.objects.extension.Index;
+import com.shade.lang.runtime.objects.extension.MutableIndex;
+import com.shade.lang.runtime.objects.function.BoundFunction;
+import com.shade.lang.runtime.objects.function.Function;
+import com.shade.lang.runtime.objects.function.RuntimeFunction;
+import com.shade.lang.runtime.objects.module.Module;
+import com.shade.lang.runtime.objects.value.BooleanValue;
+import com.shade.lang.runtime.objects.value.IntegerValue;
+import com.shade.lang.runtime.objects.value.NoneValue;
+import com.shade.lang.runtime.objects.value.StringValue;
+import com.shade.lang.runtime.objects.value.Value;
+import com.shade.lang.util.annotations.NotNull;
+import com.shade.lang.util.annotations.Nullable;
+
+/**
+ * Instruction handlers invoked by classes generated by the {@link JitCompiler}.
+ * <p>
+ * Each handler mirrors the corresponding case of the machine's interpreter loop.
+ * Handlers that may panic return {@code null} (or {@code false}, or a negative
+ * number) once they did, so the generated code can leave the unwound frame.
+ */
+final class JitRuntime {
+    private JitRuntime() {
+    }
+
+    static boolean isActive(@NotNull Machine machine, @NotNull Frame frame) {
+        return !machine.isHalted() && machine.getCallStack().peek() == frame;
+    }
+
+    @Nullable
+    static ScriptObject getGlobal(@NotNull Machine machine, @NotNull Frame frame, @NotNull InlineCache cache, @NotNull String name) {
+        final Module module = frame.getModule();
+        final ScriptObject value = machine.getAttribute(cache, module, name);
+        if (value == null) {
+            machine.panic(() -> "Module '" + module.getName() + "' has no such global '" + name + "'", true);
+        }
+        return value;
+    }
+
+    static void setGlobal(@NotNull Frame frame, @NotNull String name, @NotNull ScriptObject value) {
+        frame.getModule().setAttribute(name, value);
+    }
+
+    @Nullable
+    static ScriptObject getAttribute(@NotNull Machine machine, @NotNull InlineCache cache, @NotNull ScriptObject target, @NotNull String name) {
+        final ScriptObject object = machine.getAttribute(cache, target, name);
+        if (object == null) {
+            machine.panic(() -> "Object '" + target + "' has no such attribute '" + name + "'", true);
+        }
+        return object;
+    }
+
+    static boolean setAttribute(@NotNull Machine machine, @NotNull ScriptObject target, @NotNull String name, @NotNull ScriptObject value) {
+        if (target.isImmutable()) {
+            machine.panic(() -> "Cannot assign attribute to immutable object '" + target + "'", true);
+            return false;
+        }
+        if (target.isComputedAttribute(name)) {
+            machine.panic(() -> "Cannot assign computed attribute '" + name + "' of object '" + target + "'", true);
+            return false;
+        }
+        target.setAttribute(name, value);
+        return true;
+    }
+
+    @Nullable
+    static ScriptObject getIndex(@NotNull Machine machine, @NotNull ScriptObject object, @NotNull ScriptObject index) {
+        if (!(object instanceof Index)) {
+            machine.panic(() -> "Object '" + object + "' does not support index accessing", true);
+            return null;
+        }
+        return ((Index) object).getIndex(machine, index);
+    }
+
+    static boolean setIndex(@NotNull Machine machine, @NotNull Frame frame, @NotNull ScriptObject object, @NotNull ScriptObject index, @NotNull ScriptObject value) {
+        if (!(object instanceof MutableIndex)) {
+            machine.panic(() -> "Object '" + object + "' does not support index assignment", true);
+            return false;
+        }
+        if (object.isImmutable()) {
+            machine.panic(() -> "Cannot assign index to immutable object '" + object + "'", true);
+            return false;
+        }
+        ((MutableIndex) object).setIndex(machine, index, value);
+        return isActive(machine, frame);
+    }
+
+    @Nullable
+    static ScriptObject add(@NotNull Machine machine, @NotNull ScriptObject a, @NotNull ScriptObject b) {
+        if (a instanceof IntegerValue && b instanceof IntegerValue) {
+            return IntegerValue.valueOf(((IntegerValue) a).intValue() + ((IntegerValue) b).intValue());
+        }
+        return ((Value) a).add(machine, (Value) b);
+    }
+
+    @Nullable
+    static ScriptObject sub(@NotNull Machine machine, @NotNull ScriptObject a, @NotNull ScriptObject b) {
+        if (a instanceof IntegerValue && b instanceof IntegerValue) {
+            return IntegerValue.valueOf(((IntegerValue) a).intValue() - ((IntegerValue) b).intValue());
+        }
+        return ((Value) a).sub(machine, (Value) b);
+    }
+
+    @Nullable
+    static ScriptObject mul(@NotNull Machine machine, @NotNull ScriptObject a, @NotNull ScriptObject b) {
+        if (a instanceof IntegerValue && b instanceof IntegerValue) {
+            return IntegerValue.valueOf(((IntegerValue) a).intValue() * ((IntegerValue) b).intValue());
+        }
+        return ((Value) a).mul(machine, (Value) b);
+    }
+
+    @Nullable
+    static ScriptObject div(@NotNull Machine machine, @NotNull ScriptObject a, @NotNull ScriptObject b) {
+        return ((Value) a).div(machine, (Value) b);
+    }
+
+    @NotNull
+    static ScriptObject concat(@NotNull OperandStack stack, int count) {
+        final ScriptObject[] values = new ScriptObject[count];
+        stack.pop(values, 0, count);
+        return StringValue.concat(values);
+    }
+
+    @NotNull
+    static ScriptObject equal(@NotNull ScriptObject a, @NotNull ScriptObject b) {
+        if (a instanceof IntegerValue && b instanceof IntegerValue) {
+            return BooleanValue.valueOf(((IntegerValue) a).intValue() == ((IntegerValue) b).intValue());
+        }
+        return BooleanValue.valueOf(a.equals(b));
+    }
+
+    @NotNull
+    static ScriptObject notEqual(@NotNull ScriptObject a, @NotNull ScriptObject b) {
+        return BooleanValue.valueOf(!a.equals(b));
+    }
+
+    /**
+     * Compares two values the same way relational instructions do.
+     *
+     * @param machine machine to compare values on
+     * @param a       left operand
+     * @param b       right operand
+     * @return comparison result or {@code null} if values are not comparable
+     */
+    @Nullable
+    static Integer compare(@NotNull Machine machine, @NotNull ScriptObject a, @NotNull ScriptObject b) {
+        if (a instanceof IntegerValue && b instanceof IntegerValue) {
+            return Integer.compare(((IntegerValue) a).intValue(), ((IntegerValue) b).intValue());
+        }
+        return ((Value) a).compare(machine, (Value) b);
+    }
+
+    @Nullable
+    static ScriptObject less(@NotNull Machine machine, @NotNull ScriptObject a, @NotNull ScriptObject b) {
+        final Integer result = compare(machine, a, b);
+        return result != null ? BooleanValue.valueOf(result < 0) : null;
+    }
+
+    @Nullable
+    static ScriptObject lessEqual(@NotNull Machine machine, @NotNull ScriptObject a, @NotNull ScriptObject b) {
+        final Integer result = compare(machine, a, b);
+        return result != null ? BooleanValue.valueOf(result <= 0) : null;
+    }
+
+    @Nullable
+    static ScriptObject greater(@NotNull Machine machine, @NotNull ScriptObject a, @NotNull ScriptObject b) {
+        final Integer result = compare(machine, a, b);
+        return result != null ? BooleanValue.valueOf(result > 0) : null;
+    }
+
+    @Nullable
+    static ScriptObject greaterEqual(@NotNull Machine machine, @NotNull ScriptObject a, @NotNull ScriptObject b) {
+        final Integer result = compare(machine, a, b);
+        return result != null ? BooleanValue.valueOf(result >= 0) : null;
+    }
+
+    /**
+     * Tests truthiness of the supplied {@code value} the same way conditional jumps do.
+     *
+     * @param machine machine to test value on
+     * @param value   value to test
+     * @return {@code 1} if value is true, {@code 0} if value is false, or {@code -1} if it has no truthiness
+     */
+    static int test(@NotNull Machine machine, @NotNull ScriptObject value) {
+        if (value == BooleanValue.TRUE) {
+            return 1;
+        }
+        if (value == BooleanValue.FALSE) {
+            return 0;
+        }
+        final Boolean result = ((Value) value).getBoolean(machine);
+        return result == null ? -1 : result ? 1 : 0;
+    }
+
+    @Nullable
+    static ScriptObject not(@NotNull Machine machine, @NotNull ScriptObject value) {
+        final int result = test(machine, value);
+        return result < 0 ? null : BooleanValue.valueOf(result == 0);
+    }
+
+    /**
+     * Invokes the supplied {@code callee} with {@code argc} arguments
+     * that are placed at the top of the machine's operand stack.
+     *
+     * @param machine machine to invoke the callee on
+     * @param callee  object to invoke
+     * @param argc    amount of arguments on the operand stack
+     * @return returned value or {@code null} if the calling frame was unwound by a panic
+     */
+    @Nullable
+    static ScriptObject call(@NotNull Machine machine, @NotNull ScriptObject callee, int argc) {
+        if (!(callee instanceof Function)) {
+            machine.panic(() -> "Object '" + callee + "' is not callable", true);
+            return null;
+        }
+        return machine.invoke((Function) callee, argc);
+    }
+
+    /**
+     * Checks whether a tail call of the supplied {@code callee} can restart the
+     * chunk that is being executed in the {@code frame} instead of calling it.
+     *
+     * @param frame  frame of the calling chunk
+     * @param callee object that is being called
+     * @param argc   amount of arguments
+     * @return {@code true} if callee is the frame's own non-variadic function called with exactly its arity
+     */
+    static boolean isSelfCall(@NotNull Frame frame, @NotNull ScriptObject callee, int argc) {
+        if (!(frame instanceof RuntimeFrame) || ((RuntimeFrame) frame).getFunction() != callee) {
+            return false;
+        }
+        final Function function = (Function) callee;
+        return (function.getFlags() & Chunk.FLAG_VARIADIC) == 0 && function.getArity() == argc;
+    }
+
+    /**
+     * Invokes the supplied {@code callee} in place of the {@code frame} if it's
+     * a runtime function. Its arguments must be placed at the top of the
+     * machine's operand stack.
+     *
+     * @return {@code true} if the frame was replaced and must be left to the interpreter
+     */
+    static boolean tailCall(@NotNull Machine machine, @NotNull Frame frame, @NotNull ScriptObject callee, int argc) {
+        if (!(callee instanceof RuntimeFunction) || !((RuntimeFunction) callee).canInvokeTail(frame)) {
+            return false;
+        }
+        ((RuntimeFunction) callee).invokeTail(machine, (RuntimeFrame) frame, argc);
+        return true;
+    }
+
+    @Nullable
+    static ScriptObject callMethod(@NotNull Machine machine, @NotNull InlineCache cache, @NotNull ScriptObject target, @NotNull String name, int argc) {
+        if (target instanceof Instance) {
+            final Function method = ((Instance) target).getMethod(name);
+            if (method != null) {
+                machine.getOperandStack().insert(target, argc);
+                return machine.invoke(method, argc + 1);
+            }
+        }
+        final ScriptObject object = getAttribute(machine, cache, target, name);
+        if (object == null) {
+            return null;
+        }
+        return call(machine, object, argc);
+    }
+
+    @Nullable
+    static ScriptObject callGlobal(@NotNull Machine machine, @NotNull Frame frame, @NotNull InlineCache cache, @NotNull String name, int argc) {
+        final ScriptObject object = getGlobal(machine, frame, cache, name);
+        if (object == null) {
+            return null;
+        }
+        return call(machine, object, argc);
+    }
+
+    static void bind(@NotNull ScriptObject function, int index, @NotNull ScriptObject value) {
+        ((BoundFunction) function).getBoundArguments()[index] = value;
+    }
+
+    static boolean assertTrue(@NotNull Machine machine, @NotNull ScriptObject value, @NotNull String source, @NotNull ScriptObject message) {
+        final int result = test(machine, value);
+        if (result < 0) {
+            return false;
+        }
+        if (result == 0) {
+            if (message == NoneValue.INSTANCE) {
+                machine.panic(() -> "Assertion failed '" + source + "'", true);
+            } else {
+                machine.panic(() -> "Assertion failed '" + source + "': " + message, true);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Nullable
+    static ScriptObject instantiate(@NotNull Machine machine, @NotNull ScriptObject object) {
+        if (!(object instanceof Class)) {
+            machine.panic("Cannot instantiate a non-class value", true);
+            return null;
+        }
+        return ((Class) object).instantiate();
+    }
+
+    @Nullable
+    static ScriptObject superOf(@NotNull Machine machine, @NotNull ScriptObject base, @NotNull ScriptObject instance) {
+        if (!(instance instanceof Instance)) {
+            machine.panic(() -> "Object '" + instance + "' must be class instance", true);
+            return null;
+        }
+        if (!(base instanceof Class)) {
+            machine.panic(() -> "Object '" + instance + "' must be class", true);
+            return null;
+        }
+        if (!((Class) base).isInstance((Instance) instance)) {
+            machine.panic(() -> "Object '" + instance + "' is not an instance of '" + base + "'", true);
+            return null;
+        }
+        return new Proxy((Instance) instance, (Class) base);
+    }
+
+    @Nullable
+    static ScriptObject instanceOf(@NotNull Machine machine, @NotNull ScriptObject object, @NotNull ScriptObject clazz) {
+        if (!(object instanceof Instance)) {
+            machine.panic("Left operand of an 'is' operator must be class instance", true);
+            return null;
+        }
+        if (!(clazz instanceof Class)) {
+            machine.panic("Right operand of an 'is' operator must be class", true);
+            return null;
+        }
+        return BooleanValue.valueOf(((Class) clazz).isInstance((Instance) object));
+    }
+
+    @NotNull
+    static ScriptObject makeFunction(@NotNull Frame frame, @NotNull String name, @NotNull ScriptObject object) {
+        final Chunk chunk = (Chunk) object;
+        final Function function = new RuntimeFunction(frame.getModule(), name, chunk);
+        if (chunk.getBoundArguments() > 0) {
+            return new BoundFunction(function, function.getArity(), new ScriptObject[chunk.getBoundArguments()]);
+        }
+        return function;
+    }
+
+    /**
+     * Computes the last value of a counted loop the same way {@code FOR_RANGE_INIT} does.
+     *
+     * @param machine   machine to panic on if bounds are not integers
+     * @param begin     first value of the loop
+     * @param end       last value of the loop
+     * @param inclusive {@code 1} if {@code end} is included, {@code 0} otherwise
+     * @return value of the counter at which the loop stops or {@code null} if bounds are not integers
+     */
+    @Nullable
+    static ScriptObject rangeLimit(@NotNull Machine machine, @NotNull ScriptObject begin, @NotNull ScriptObject end, int inclusive) {
+        if (!(begin instanceof IntegerValue && end instanceof IntegerValue)) {
+            machine.panic(() -> "Range bounds must be integers, got '" + begin + "' and '" + end + "'", true);
+            return null;
+        }
+        return IntegerValue.valueOf(Machine.getRangeLast(((IntegerValue) begin).intValue(), ((IntegerValue) end).intValue(), inclusive != 0));
+    }
+
+    static boolean isRangeEmpty(@NotNull ScriptObject begin, @NotNull ScriptObject end, int inclusive) {
+        return Machine.isRangeEmpty(((IntegerValue) begin).intValue(), ((IntegerValue) end).intValue(), inclusive != 0);
+    }
+
+    /**
+     * Advances the counter of a counted loop the same way {@code FOR_RANGE_NEXT} does.
+     *
+     * @return next value of the counter or {@code null} if the loop is done
+     */
+    @Nullable
+    static ScriptObject rangeNext(@NotNull ScriptObject counter, @NotNull ScriptObject limit) {
+        final int value = ((IntegerValue) counter).intValue();
+        final int last = ((IntegerValue) limit).intValue();
+        if (value == last) {
+            return null;
+        }
+        return IntegerValue.valueOf(value < last ? value + 1 : value - 1);
+    }
+
+    static void raise(@NotNull Machine machine, @NotNull ScriptObject payload) {
+        if (payload == NoneValue.INSTANCE) {
+            machine.panic("Cannot throw 'none' as a payload", true);
+        } else {
+            machine.panic(payload, true);
+        }
+    }
+}
@@ -1,38 +1,66 @@
 package com.shade.lang.runtime.objects;
 
+import com.shade.lang.compiler.assembler.OperandType;
+import com.shade.lang.compiler.assembler.Operation;
+import com.shade.lang.runtime.InlineCache;
+import com.shade.lang.runtime.jit.CompiledChunk;
 import com.shade.lang.runtime.objects.function.Guard;
+import com.shade.lang.runtime.objects.value.Value;
 import com.shade.lang.util.annotations.NotNull;
 import com.shade.lang.util.annotations.Nullable;
 import com.shade.lang.tool.serialization.attributes.Attribute;
 import com.shade.lang.tool.serialization.attributes.AttributeDescriptor;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
+/**
+ * Compiled code of a function, class or module body.
+ * <p>
+ * Chunks are immutable apart from data derived lazily by the interpreter:
+ * decoded code, materialized constants, inline caches and compiled code.
+ * These are published safely and may be rebuilt by racing threads, so a
+ * single chunk can be executed by many machines at once.
+ *
+ * @see com.shade.lang.runtime.CodeCache
+ */
 public class Chunk extends ScriptObject {
     // @formatter:off
-    public static final byte FLAG_VARIADIC = 1;
-    public static final byte FLAG_MODULE   = 1 << 1;
-    public static final byte FLAG_CLASS    = 1 << 2;
+    public static final byte FLAG_VARIADIC  = 1;
+    public static final byte FLAG_MODULE    = 1 << 1;
+    public static final byte FLAG_CLASS     = 1 << 2;
+    public static final byte FLAG_GENERATOR = 1 << 3;
     // @formatter:on
 
     private final byte[] code;
     private final Object[] constants;
     private final Guard[] guards;
+    private final int[] guardParents;
     private final byte flags;
     private final byte arguments;
     private final byte boundArguments;
     private final byte locals;
+    private final short maxStack;
     private final Attribute<?>[] attributes;
+    private volatile int[] decodedCode;
+    private volatile ScriptObject[] objects;
+    private volatile String[] symbols;
+    private volatile InlineCache[] caches;
+    private volatile CompiledChunk compiledChunk;
+    private volatile long[] executionCounters;
+    private int hotness;
 
-    public Chunk(@NotNull byte[] code, @NotNull Object[] constants, @NotNull Guard[] guards, byte flags, byte arguments, byte boundArguments, byte locals, @NotNull Attribute<?>[] attributes) {
+    public Chunk(@NotNull byte[] code, @NotNull Object[] constants, @NotNull Guard[] guards, byte flags, byte arguments, byte boundArguments, byte locals, short maxStack, @NotNull Attribute<?>[] attributes) {
         super(true);
         this.code = code;
         this.constants = constants;
-        this.guards = guards;
+        this.guards = sortGuards(guards);
+        this.guardParents = linkGuards(this.guards);
         this.flags = flags;
         this.arguments = arguments;
         this.boundArguments = boundArguments;
         this.locals = locals;
+        this.maxStack = maxStack;
         this.attributes = attributes;
     }
 
@@ -41,16 +69,227 @@ public class Chunk extends ScriptObject {
         return code;
     }
 
+    /**
+     * Returns code of this chunk decoded into integers, so the interpreter
+     * does not need to assemble operands from bytes on every dispatch.
+     * <p>
+     * Each instruction starts at the same position as in {@link #getCode()}
+     * and is followed by its operands, one element per operand. Signed
+     * operands are sign-extended and constant indices are unsigned.
+     * The array is built once, upon the first call.
+     *
+     * @return decoded code
+     */
+    @NotNull
+    public int[] getDecodedCode() {
+        int[] decodedCode = this.decodedCode;
+        if (decodedCode == null) {
+            decodedCode = this.decodedCode = decode(code);
+        }
+        return decodedCode;
+    }
+
+    /**
+     * Rewrites the opcode of the instruction at the specified {@code pc}
+     * in both raw and decoded code. The new instruction must have the
+     * same operands as the old one.
+     *
+     * @param pc     position of the instruction
+     * @param opcode new opcode of the instruction
+     */
+    public void setOpcode(int pc, byte opcode) {
+        final int[] decodedCode = this.decodedCode;
+        code[pc] = opcode;
+        if (decodedCode != null) {
+            decodedCode[pc] = opcode;
+        }
+    }
+
     @NotNull
     public Object[] getConstants() {
         return constants;
     }
 
+    /**
+     * Returns constants of this chunk converted into {@link ScriptObject}s,
+     * so the interpreter can push them by reference. The array is
+     * built once, upon the first call.
+     *
+     * @return materialized constants
+     * @see #materializeConstants()
+     */
+    @NotNull
+    public ScriptObject[] getConstantObjects() {
+        final ScriptObject[] objects = this.objects;
+        if (objects == null) {
+            materializeConstants();
+            return this.objects;
+        }
+        return objects;
+    }
+
+    /**
+     * Returns interned string constants of this chunk, used as
+     * symbol names by the interpreter. Entries for constants that
+     * are not strings are {@code null}.
+     *
+     * @return interned symbol names
+     * @see #materializeConstants()
+     */
+    @NotNull
+    public String[] getConstantSymbols() {
+        final String[] symbols = this.symbols;
+        if (symbols == null) {
+            materializeConstants();
+            return this.symbols;
+        }
+        return symbols;
+    }
+
+    /**
+     * Builds arrays returned by {@link #getConstantObjects()}
+     * and {@link #getConstantSymbols()} from raw constants.
+     */
+    public void materializeConstants() {
+        final ScriptObject[] objects = new ScriptObject[constants.length];
+        final String[] symbols = new String[constants.length];
+
+        for (int index = 0; index < constants.length; index++) {
+            final Object constant = constants[index];
+
+            if (constant instanceof String) {
+                symbols[index] = ((String) constant).intern();
+            }
+
+            if (constant instanceof ScriptObject) {
+                objects[index] = (ScriptObject) constant;
+            } else {
+                objects[index] = Value.from(constant);
+            }
+        }
+
+        this.objects = objects;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Returns an inline cache of the instruction
+     * whose operands start at the specified {@code pc}.
+     *
+     * @param pc position of the instruction's operands
+     * @return inline cache of the instruction
+     */
+    @NotNull
+    public InlineCache getInlineCache(int pc) {
+        InlineCache[] caches = this.caches;
+        if (caches == null) {
+            caches = this.caches = new InlineCache[code.length];
+        }
+        InlineCache cache = caches[pc];
+        if (cache == null) {
+            cache = caches[pc] = new InlineCache();
+        }
+        return cache;
+    }
+
+    /**
+     * Returns execution counters of this chunk, one element per position
+     * in {@link #getCode()}. The interpreter increments the element at the
+     * position of each instruction it executes if
+     * {@link com.shade.lang.runtime.Machine#ENABLE_COUNTERS} is set.
+     * <p>
+     * Counters are shared by all machines executing this chunk
+     * and are not synchronized, so concurrent updates may be lost.
+     * The array is allocated upon the first call.
+     *
+     * @return execution counters
+     */
+    @NotNull
+    public long[] getExecutionCounters() {
+        long[] executionCounters = this.executionCounters;
+        if (executionCounters == null) {
+            executionCounters = this.executionCounters = new long[code.length];
+        }
+        return executionCounters;
+    }
+
+    /**
+     * Increments the amount of invocations and backward jumps
+     * of this chunk that is used to decide when to compile it.
+     *
+     * @return new hotness of this chunk
+     * @see com.shade.lang.runtime.jit.JitCompiler
+     */
+    public int incrementHotness() {
+        return ++hotness;
+    }
+
+    public void setHotness(int hotness) {
+        this.hotness = hotness;
+    }
+
+    @Nullable
+    public CompiledChunk getCompiledChunk() {
+        return compiledChunk;
+    }
+
+    public void setCompiledChunk(@Nullable CompiledChunk compiledChunk) {
+        this.compiledChunk = compiledChunk;
+    }
+
+    /**
+     * Returns guards of this chunk sorted by the start of their
+     * regions and, for regions starting at the same position,
+     * from the outermost to the innermost one.
+     *
+     * @return sorted guards
+     */
     @NotNull
     public Guard[] getGuards() {
         return guards;
     }
 
+    /**
+     * Finds the innermost guard whose region covers the specified {@code pc}.
+     * <p>
+     * Guard regions are either nested or disjoint, so the innermost guard is
+     * either the last one starting before {@code pc} or one of its enclosing
+     * guards. The former is found using binary search, and the latter are
+     * visited from the innermost to the outermost one.
+     *
+     * @param pc position of the instruction following the one that has panicked
+     * @return suitable guard or {@code null} if there's none
+     */
+    @Nullable
+    public Guard findGuard(int pc) {
+        int low = 0;
+        int high = guards.length - 1;
+        int index = -1;
+
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+
+            if (guards[middle].getStart() < pc) {
+                index = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        while (index >= 0) {
+            final Guard guard = guards[index];
+
+            if (pc <= guard.getEnd()) {
+                return guard;
+            }
+
+            index = guardParents[index];
+        }
+
+        return null;
+    }
+
     public byte getFlags() {
         return flags;
     }
@@ -67,6 +306,17 @@ public class Chunk extends ScriptObject {
         return locals;
     }
 
+    /**
+     * Returns the max peak of operand stack size that
+     * this chunk requires during its execution.
+     *
+     * @return max operand stack size
+     * @see com.shade.lang.compiler.assembler.Assembler#getMaxStackSize()
+     */
+    public short getMaxStack() {
+        return maxStack;
+    }
+
     @SuppressWarnings("unchecked")
     @Nullable
     public <T extends Attribute<T>> T getSingleAttribute(@NotNull AttributeDescriptor<T> descriptor) {
@@ -88,8 +338,82 @@ public class Chunk extends ScriptObject {
         return attributes;
     }
 
+    @NotNull
+    private static int[] decode(@NotNull byte[] code) {
+        final int[] decoded = new int[code.length];
+
+        for (int pc = 0; pc < code.length; ) {
+            final Operation operation = Operation.of(code[pc]);
+
+            decoded[pc] = code[pc];
+
+            if (operation == null) {
+                // Leave it for the interpreter to report
+                break;
+            }
+
+            int position = pc + 1;
+            int operand = pc + 1;
+
+            for (OperandType type : operation.getOperands()) {
+                switch (type) {
+                    case IMM_8:
+                        decoded[operand++] = code[position];
+                        break;
+                    case IMM_16:
+                        decoded[operand++] = (short) ((code[position] & 0xff) << 8 | code[position + 1] & 0xff);
+                        break;
+                    case IMM_32:
+                        decoded[operand++] = (code[position] & 0xff) << 24 | (code[position + 1] & 0xff) << 16 | (code[position + 2] & 0xff) << 8 | code[position + 3] & 0xff;
+                        break;
+                    case CONSTANT:
+                        decoded[operand++] = (code[position] & 0xff) << 8 | code[position + 1] & 0xff;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unsupported operand type: " + type);
+                }
+                position += type.getSize();
+            }
+
+            pc = position;
+        }
+
+        return decoded;
+    }
+
     @Override
     public String toString() {
         return "[Code Object " + Integer.toHexString(hashCode()) + "]";
     }
+
+    @NotNull
+    private static Guard[] sortGuards(@NotNull Guard[] guards) {
+        final Guard[] sorted = guards.clone();
+
+        // Handler of an inner guard always precedes the outer one's
+        Arrays.sort(sorted, Comparator
+            .comparingInt(Guard::getStart)
+            .thenComparing(Comparator.comparingInt(Guard::getEnd).reversed())
+            .thenComparing(Comparator.comparingInt(Guard::getOffset).reversed()));
+
+        return sorted;
+    }
+
+    @NotNull
+    private static int[] linkGuards(@NotNull Guard[] guards) {
+        final int[] parents = new int[guards.length];
+        final int[] enclosing = new int[guards.length];
+        int depth = 0;
+
+        for (int index = 0; index < guards.length; index++) {
+            while (depth > 0 && guards[enclosing[depth - 1]].getEnd() < guards[index].getEnd()) {
+                depth--;
+            }
+
+            parents[index] = depth > 0 ? enclosing[depth - 1] : -1;
+            enclosing[depth++] = index;
+        }
+
+        return parents;
+    }
 }
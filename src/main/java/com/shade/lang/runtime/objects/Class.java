@@ -22,7 +22,10 @@ public class Class extends ScriptObject {
 
         for (Class base : bases) {
             base.subclasses.add(new WeakReference<>(this));
-            attributes.putAll(base.attributes);
+
+            for (String attribute : base.shape.getNames()) {
+                setAttribute(attribute, base.getAttribute(attribute));
+            }
         }
     }
 
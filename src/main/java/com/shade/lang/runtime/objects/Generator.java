@@ -0,0 +1,115 @@
+package com.shade.lang.runtime.objects;
+
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.OperandStack;
+import com.shade.lang.runtime.frames.GeneratorFrame;
+import com.shade.lang.runtime.objects.function.RuntimeFunction;
+import com.shade.lang.util.annotations.NotNull;
+
+/**
+ * Suspended execution of a generator function, returned when such a function is called.
+ * <p>
+ * A generator holds a copy of its frame's locals and operands while it's suspended.
+ * Resuming it pushes a {@link GeneratorFrame} with this state restored, and yielding
+ * copies the state back and stores the yielded value into the variable of the loop
+ * that resumed the generator. The copy is reused between iterations, so a generator
+ * that keeps the same amount of operands does not allocate when it's resumed.
+ */
+public class Generator extends ScriptObject {
+    private final RuntimeFunction function;
+    private ScriptObject[] state;
+    private int pc;
+    private int target;
+    private int resumePc;
+    private boolean running;
+    private boolean finished;
+
+    public Generator(@NotNull RuntimeFunction function, @NotNull ScriptObject[] locals) {
+        super(true);
+        this.function = function;
+        this.state = locals;
+    }
+
+    /**
+     * Pushes the frame of this generator onto the machine's call stack.
+     *
+     * @param machine  machine to resume this generator on
+     * @param target   position inside operand stack to store the next yielded value to
+     * @param resumePc position of the resuming instruction the caller returns to once this generator finishes
+     */
+    public void resume(@NotNull Machine machine, int target, int resumePc) {
+        final OperandStack stack = machine.getOperandStack();
+        final Chunk chunk = function.getChunk();
+        final int locals = stack.size();
+
+        stack.reserve(chunk.getLocals() + chunk.getMaxStack());
+        stack.push(state, 0, state.length);
+
+        final GeneratorFrame frame = new GeneratorFrame(function.getModule(), function, this, locals, locals + chunk.getLocals());
+        frame.pc = pc;
+
+        this.target = target;
+        this.resumePc = resumePc;
+        this.running = true;
+
+        machine.profilerBeginFrame(frame);
+        machine.getCallStack().push(frame);
+    }
+
+    /**
+     * Pops the frame of this generator, which must be at the top of the machine's
+     * call stack, and passes the value at the top of the operand stack to the caller.
+     *
+     * @param machine machine this generator is running on
+     * @param frame   frame of this generator
+     */
+    public void suspend(@NotNull Machine machine, @NotNull GeneratorFrame frame) {
+        final OperandStack stack = machine.getOperandStack();
+        final ScriptObject value = stack.pop();
+        final int size = stack.size() - frame.getLocals();
+
+        if (state.length != size) {
+            state = new ScriptObject[size];
+        }
+
+        stack.pop(state, 0, size);
+        stack.set(target, value);
+
+        pc = frame.pc;
+        running = false;
+
+        machine.getCallStack().pop();
+        machine.profilerEndFrame(frame);
+    }
+
+    /**
+     * Marks this generator as finished after its frame has returned or was unwound by a panic.
+     */
+    public void finish() {
+        state = null;
+        running = false;
+        finished = true;
+    }
+
+    @NotNull
+    public RuntimeFunction getFunction() {
+        return function;
+    }
+
+    public int getResumePc() {
+        return resumePc;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public String toString() {
+        return "[Generator '" + function.getName() + "']";
+    }
+}
@@ -3,20 +3,14 @@ package com.shade.lang.runtime.objects;
 import com.shade.lang.runtime.objects.function.BoundFunction;
 import com.shade.lang.runtime.objects.function.Function;
 import com.shade.lang.util.annotations.NotNull;
-
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import com.shade.lang.util.annotations.Nullable;
 
 public class Instance extends ScriptObject {
     private final Class base;
-    private final Map<Class, Map<String, ScriptObject>> instanceAttributes;
 
     public Instance(@NotNull Class base) {
         super(false);
         this.base = base;
-        this.instanceAttributes = getInstanceAttributes0();
-        this.attributes.putAll(getOwnInstanceAttributes());
     }
 
     @NotNull
@@ -24,32 +18,56 @@ public class Instance extends ScriptObject {
         return base;
     }
 
-    @NotNull
-    public Map<Class, Map<String, ScriptObject>> getInstanceAttributes() {
-        return instanceAttributes;
-    }
+    /**
+     * Returns an attribute of this instance. If this instance has no
+     * such attribute, it is resolved through its class, and methods
+     * are bound to this instance upon every call.
+     *
+     * @param name name of the attribute
+     * @return attribute or {@code null} if there's no such attribute
+     */
+    @Override
+    public ScriptObject getAttribute(String name) {
+        final ScriptObject attribute = super.getAttribute(name);
 
-    @NotNull
-    private Map<Class, Map<String, ScriptObject>> getInstanceAttributes0() {
-        final Map<Class, Map<String, ScriptObject>> instanceAttributes = new HashMap<>();
-        final Class[] resolutionOrder = base.getResolutionOrder();
+        if (attribute != null) {
+            return attribute;
+        }
 
-        for (int index = resolutionOrder.length - 1; index >= 0; index--) {
-            final Class cls = resolutionOrder[index];
-            final Map<String, ScriptObject> attributes = new LinkedHashMap<>();
+        final ScriptObject member = base.getAttribute(name);
 
-            for (Map.Entry<String, ScriptObject> entry : cls.attributes.entrySet()) {
-                attributes.put(entry.getKey(), getInstantiatedAttribute(entry.getValue()));
-            }
+        if (member != null) {
+            return getInstantiatedAttribute(member);
+        }
+
+        return null;
+    }
 
-            instanceAttributes.put(cls, attributes);
+    /**
+     * Returns an unbound method of this instance's class
+     * with the specified {@code name}. Such method must be
+     * called with this instance as its first argument.
+     *
+     * @param name name of the method
+     * @return method or {@code null} if there's no such method
+     */
+    @Nullable
+    public Function getMethod(String name) {
+        if (shape.indexOf(name) >= 0) {
+            return null;
         }
 
-        return instanceAttributes;
+        final ScriptObject member = base.getAttribute(name);
+
+        if (member instanceof Function && isMethod((Function) member)) {
+            return (Function) member;
+        }
+
+        return null;
     }
 
     @NotNull
-    private ScriptObject getInstantiatedAttribute(@NotNull ScriptObject attribute) {
+    ScriptObject getInstantiatedAttribute(@NotNull ScriptObject attribute) {
         if (attribute instanceof Function) {
             final Function function = (Function) attribute;
 
@@ -57,7 +75,7 @@ public class Instance extends ScriptObject {
                 throw new IllegalArgumentException("Attribute function already bound: " + attribute);
             }
 
-            if (!function.getName().contains("<init>")) {
+            if (isMethod(function)) {
                 // TODO: This is OK for now, but we can do better
                 //       when static functions will be introduced.
                 return new BoundFunction(function, (byte) (function.getArity() - 1), new ScriptObject[]{this});
@@ -67,9 +85,8 @@ public class Instance extends ScriptObject {
         return attribute;
     }
 
-    @NotNull
-    public Map<String, ScriptObject> getOwnInstanceAttributes() {
-        return instanceAttributes.get(base);
+    private static boolean isMethod(@NotNull Function function) {
+        return !(function instanceof BoundFunction) && !function.getName().contains("<init>");
     }
 
     @Override
@@ -4,18 +4,28 @@ import com.shade.lang.util.annotations.NotNull;
 
 public class Proxy extends ScriptObject {
     private final Instance instance;
+    private final Class base;
 
     public Proxy(@NotNull Instance instance, Class base) {
         super(false);
         this.instance = instance;
-        this.attributes.putAll(instance.getAttributes());
-        this.attributes.putAll(instance.getInstanceAttributes().get(base));
+        this.base = base;
     }
 
     @Override
     public void setAttribute(String name, ScriptObject value) {
         instance.setAttribute(name, value);
-        attributes.put(name, value);
+    }
+
+    @Override
+    public ScriptObject getAttribute(String name) {
+        final ScriptObject attribute = base.getAttribute(name);
+
+        if (attribute != null) {
+            return instance.getInstantiatedAttribute(attribute);
+        }
+
+        return instance.getAttribute(name);
     }
 
     public Instance getInstance() {
@@ -1,27 +1,77 @@
 package com.shade.lang.runtime.objects;
 
-import java.util.HashMap;
-import java.util.Map;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.Arrays;
 
 public abstract class ScriptObject {
-    protected final Map<String, ScriptObject> attributes;
+    private static final ScriptObject[] EMPTY_SLOTS = new ScriptObject[0];
+
     protected final boolean immutable;
+    protected Shape shape;
+    protected ScriptObject[] slots;
 
     public ScriptObject(boolean immutable) {
-        this.attributes = new HashMap<>();
         this.immutable = immutable;
+        this.shape = Shape.EMPTY;
+        this.slots = EMPTY_SLOTS;
     }
 
     public void setAttribute(String name, ScriptObject value) {
-        attributes.put(name, value);
+        int index = shape.indexOf(name);
+
+        if (index < 0) {
+            shape = shape.add(name);
+            index = shape.indexOf(name);
+
+            if (index >= slots.length) {
+                slots = Arrays.copyOf(slots, Math.max(index + 1, slots.length << 1));
+            }
+        }
+
+        slots[index] = value;
     }
 
     public ScriptObject getAttribute(String name) {
-        return attributes.get(name);
+        final int index = shape.indexOf(name);
+        return index >= 0 ? slots[index] : null;
+    }
+
+    /**
+     * Checks whether the attribute with the specified {@code name} is computed
+     * by {@link #getAttribute(String)} rather than stored in a slot. Such
+     * attributes cannot be assigned, otherwise the stored slot would be
+     * hidden by the computed value and found by inline caches instead of it.
+     *
+     * @param name name of the attribute
+     * @return {@code true} if the attribute is computed
+     */
+    public boolean isComputedAttribute(String name) {
+        return false;
+    }
+
+    /**
+     * Returns the shape describing layout of this object's attributes.
+     * <p>
+     * Attributes that are computed or resolved elsewhere rather than
+     * stored in slots (see {@link #getAttribute(String)}) must not be
+     * present in the shape.
+     *
+     * @return shape of this object
+     */
+    @NotNull
+    public Shape getShape() {
+        return shape;
     }
 
-    public Map<String, ScriptObject> getAttributes() {
-        return attributes;
+    /**
+     * Returns a value stored in the slot at the specified {@code index}.
+     *
+     * @param index index of the slot, obtained from {@link #getShape()}
+     * @return value of the slot
+     */
+    public ScriptObject getSlot(int index) {
+        return slots[index];
     }
 
     public boolean isImmutable() {
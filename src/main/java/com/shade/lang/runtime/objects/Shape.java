@@ -0,0 +1,108 @@
+package com.shade.lang.runtime.objects;
+
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Describes layout of a {@link ScriptObject}'s attributes by
+ * mapping their names to indices of slots holding their values.
+ * <p>
+ * Objects that received the same attributes in the same order share
+ * the same shape. Shared shapes never change: adding an attribute
+ * moves an object to another shape, and such transitions are cached.
+ * <p>
+ * An object whose shape grows beyond {@link #MAX_SHARED_SIZE} attributes
+ * gets a private shape that is extended in place instead.
+ * <p>
+ * In both cases, an index of an attribute never changes once it was
+ * assigned, so a pair of shape and index may be safely cached.
+ * <p>
+ * Shared shapes are used by all machines at once, so their
+ * transitions may be looked up and added from many threads.
+ */
+public class Shape {
+    public static final int MAX_SHARED_SIZE = 64;
+
+    public static final Shape EMPTY = new Shape(new LinkedHashMap<>(), true);
+
+    private final Map<String, Integer> indices;
+    private final boolean shared;
+    private final Map<String, Shape> transitions;
+
+    private Shape(@NotNull Map<String, Integer> indices, boolean shared) {
+        this.indices = indices;
+        this.shared = shared;
+        this.transitions = shared ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * Returns an index of the slot holding attribute with the specified {@code name}.
+     *
+     * @param name name of the attribute
+     * @return index of the slot or {@code -1} if this shape has no such attribute
+     */
+    public int indexOf(@NotNull String name) {
+        final Integer index = indices.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns a shape that contains all attributes of this
+     * shape and an attribute with the specified {@code name}
+     * at index equal to {@link #size()} of this shape.
+     *
+     * @param name name of the attribute to add
+     * @return shape with the attribute added
+     */
+    @NotNull
+    public Shape add(@NotNull String name) {
+        if (!shared) {
+            indices.put(name, indices.size());
+            return this;
+        }
+
+        final Shape shape = transitions.get(name);
+
+        if (shape != null) {
+            return shape;
+        }
+
+        if (size() < MAX_SHARED_SIZE) {
+            return transitions.computeIfAbsent(name, key -> new Shape(extend(key), true));
+        }
+
+        return new Shape(extend(name), false);
+    }
+
+    @NotNull
+    private Map<String, Integer> extend(@NotNull String name) {
+        final Map<String, Integer> indices = new LinkedHashMap<>(this.indices);
+        indices.put(name, indices.size());
+        return indices;
+    }
+
+    /**
+     * Returns names of attributes of this shape ordered by their indices.
+     *
+     * @return names of attributes
+     */
+    @NotNull
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(indices.keySet());
+    }
+
+    public int size() {
+        return indices.size();
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    @Override
+    public String toString() {
+        return "[Shape " + indices.keySet() + "]";
+    }
+}
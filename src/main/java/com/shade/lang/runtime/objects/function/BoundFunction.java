@@ -3,7 +3,6 @@ package com.shade.lang.runtime.objects.function;
 import com.shade.lang.runtime.Machine;
 import com.shade.lang.runtime.objects.ScriptObject;
 import com.shade.lang.util.annotations.NotNull;
-import com.shade.lang.util.annotations.Nullable;
 
 public class BoundFunction extends Function {
     private final Function function;
@@ -15,25 +14,22 @@ public class BoundFunction extends Function {
         this.boundArguments = boundArguments;
     }
 
-    @Nullable
     @Override
-    protected ScriptObject[] prepare(@NotNull Machine machine, int argc) {
-        final ScriptObject[] locals = super.prepare(machine, argc);
+    protected int prepare(@NotNull Machine machine, int argc) {
+        final int count = super.prepare(machine, argc);
 
-        if (locals == null) {
-            return null;
+        if (count < 0) {
+            return count;
         }
 
-        final ScriptObject[] boundLocals = new ScriptObject[locals.length + boundArguments.length];
-        System.arraycopy(boundArguments, 0, boundLocals, 0, boundArguments.length);
-        System.arraycopy(locals, 0, boundLocals, boundArguments.length, locals.length);
+        machine.getOperandStack().insert(boundArguments, count);
 
-        return boundLocals;
+        return count + boundArguments.length;
     }
 
     @Override
-    protected void invoke(@NotNull Machine machine, @NotNull ScriptObject[] arguments) {
-        function.invoke(machine, arguments);
+    protected void invoke0(@NotNull Machine machine, int argc) {
+        function.invoke0(machine, argc);
     }
 
     @NotNull
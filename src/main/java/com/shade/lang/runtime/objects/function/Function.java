@@ -1,14 +1,12 @@
 package com.shade.lang.runtime.objects.function;
 
 import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.OperandStack;
 import com.shade.lang.runtime.objects.Chunk;
 import com.shade.lang.runtime.objects.ScriptObject;
 import com.shade.lang.runtime.objects.module.Module;
 import com.shade.lang.runtime.objects.value.Value;
 import com.shade.lang.util.annotations.NotNull;
-import com.shade.lang.util.annotations.Nullable;
-
-import java.util.Stack;
 
 public abstract class Function extends ScriptObject {
     protected final Module module;
@@ -25,61 +23,64 @@ public abstract class Function extends ScriptObject {
     }
 
     public final void invoke(@NotNull Machine machine, int argc) {
-        final ScriptObject[] arguments = prepare(machine, argc);
+        final int count = prepare(machine, argc);
 
-        if (arguments == null) {
+        if (count < 0) {
             return;
         }
 
-        invoke(machine, arguments);
+        invoke0(machine, count);
     }
 
-    protected abstract void invoke(@NotNull Machine machine, @NotNull ScriptObject[] arguments);
-
-    @Nullable
-    protected ScriptObject[] prepare(@NotNull Machine machine, int argc) {
+    /**
+     * Invokes this function with {@code argc} arguments that
+     * are placed at the top of the machine's operand stack.
+     * <p>
+     * Arguments must be kept in place so they become first
+     * locals of the frame this function executes in.
+     *
+     * @param machine machine to invoke this function on
+     * @param argc    amount of arguments on the operand stack
+     */
+    protected abstract void invoke0(@NotNull Machine machine, int argc);
+
+    /**
+     * Validates supplied arguments and rearranges them on
+     * the operand stack to match this function's signature.
+     *
+     * @param machine machine to invoke this function on
+     * @param argc    amount of arguments on the operand stack
+     * @return amount of prepared arguments on the operand stack or {@code -1} if validation failed
+     */
+    protected int prepare(@NotNull Machine machine, int argc) {
         final boolean variadic = (flags & Chunk.FLAG_VARIADIC) != 0;
 
         if (!variadic && argc != arity) {
-            machine.panic(String.format(
+            machine.panic(() -> String.format(
                 "Function '%s' accepts exactly %d argument%s but %s %s provided",
                 name, arity, arity != 1 ? "s" : "", argc, argc != 1 ? "were" : "was"
             ), true);
 
-            return null;
+            return -1;
         }
 
         if (variadic && arity - 1 > argc) {
-            machine.panic(String.format(
+            machine.panic(() -> String.format(
                 "Function '%s' accepts %d or more arguments but %s %s provided",
                 name, arity - 1, argc, argc != 1 ? "were" : "was"
             ), true);
 
-            return null;
+            return -1;
         }
 
-        final ScriptObject[] locals = new ScriptObject[arity];
-        final Stack<ScriptObject> stack = machine.getOperandStack();
-
         if (variadic) {
+            final OperandStack stack = machine.getOperandStack();
             final ScriptObject[] variadicLocals = new ScriptObject[argc - arity + 1];
-
-            for (int index = argc - arity; index >= 0; index--) {
-                variadicLocals[index] = stack.pop();
-            }
-
-            locals[arity - 1] = Value.from(variadicLocals);
-
-            for (int index = arity - 2; index >= 0; index--) {
-                locals[index] = stack.pop();
-            }
-        } else {
-            for (int index = arity - 1; index >= 0; index--) {
-                locals[index] = stack.pop();
-            }
+            stack.pop(variadicLocals, 0, variadicLocals.length);
+            stack.push(Value.from(variadicLocals));
         }
 
-        return locals;
+        return arity;
     }
 
     @NotNull
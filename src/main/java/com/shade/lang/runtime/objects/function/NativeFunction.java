@@ -18,20 +18,24 @@ public class NativeFunction extends Function {
     }
 
     @Override
-    public void invoke(@NotNull Machine machine, @NotNull ScriptObject[] arguments) {
+    protected void invoke0(@NotNull Machine machine, int argc) {
+        final ScriptObject[] arguments = new ScriptObject[argc];
+        machine.getOperandStack().pop(arguments, 0, argc);
+
         final Frame frame = new NativeFrame(module, this, machine.getOperandStack().size());
         machine.profilerBeginFrame(frame);
         machine.getCallStack().push(frame);
 
         Object result = prototype.invoke(machine, arguments);
 
-        if (!(result instanceof Value)) {
+        if (!(result instanceof ScriptObject)) {
             result = Value.from(result);
         }
 
         if (result != null) {
             machine.getOperandStack().push((ScriptObject) result);
             machine.getCallStack().pop();
+            machine.profilerEndFrame(frame);
         }
     }
 
@@ -1,9 +1,14 @@
 package com.shade.lang.runtime.objects.function;
 
 import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.OperandStack;
 import com.shade.lang.runtime.frames.Frame;
+import com.shade.lang.runtime.frames.GeneratorFrame;
 import com.shade.lang.runtime.frames.RuntimeFrame;
+import com.shade.lang.runtime.jit.CompiledChunk;
+import com.shade.lang.runtime.jit.JitCompiler;
 import com.shade.lang.runtime.objects.Chunk;
+import com.shade.lang.runtime.objects.Generator;
 import com.shade.lang.runtime.objects.ScriptObject;
 import com.shade.lang.runtime.objects.module.Module;
 import com.shade.lang.util.annotations.NotNull;
@@ -17,14 +22,88 @@ public class RuntimeFunction extends Function {
     }
 
     @Override
-    protected void invoke(@NotNull Machine machine, @NotNull ScriptObject[] arguments) {
-        final ScriptObject[] locals = new ScriptObject[chunk.getLocals()];
-        System.arraycopy(arguments, 0, locals, 0, arguments.length);
+    protected void invoke0(@NotNull Machine machine, int argc) {
+        final OperandStack stack = machine.getOperandStack();
 
-        final Frame frame = new RuntimeFrame(module, this, locals, machine.getOperandStack().size());
+        if (isGenerator()) {
+            final ScriptObject[] locals = new ScriptObject[chunk.getLocals()];
+            stack.pop(locals, 0, argc);
+            stack.push(new Generator(this, locals));
+            return;
+        }
+
+        final int locals = stack.size() - argc;
+
+        stack.reserve(chunk.getLocals() - argc + chunk.getMaxStack());
+        stack.extend(chunk.getLocals() - argc);
+
+        final Frame frame = new RuntimeFrame(module, this, locals, stack.size());
 
         machine.profilerBeginFrame(frame);
         machine.getCallStack().push(frame);
+
+        if (JitCompiler.ENABLE_JIT) {
+            final CompiledChunk compiled = JitCompiler.getCompiledChunk(this);
+
+            if (compiled != null) {
+                machine.execute(frame, compiled);
+            }
+        }
+    }
+
+    /**
+     * Checks whether this function can be invoked in place of the supplied {@code frame}.
+     *
+     * @param frame frame to replace
+     * @return {@code true} if neither this function nor the frame belong to a generator
+     */
+    public boolean canInvokeTail(@NotNull Frame frame) {
+        return frame instanceof RuntimeFrame && !(frame instanceof GeneratorFrame) && !isGenerator();
+    }
+
+    /**
+     * Invokes this function in place of the supplied {@code frame}, which must be
+     * at the top of the call stack. Arguments are moved into the frame's local
+     * slots, so the call stack does not grow. If this function is the one the
+     * frame executes, the frame itself is restarted instead of being replaced.
+     * <p>
+     * The replacing frame is always interpreted, even if this function is compiled,
+     * because compiled code runs on the JVM's own stack. Generators can neither
+     * replace a frame nor be replaced, see {@link #canInvokeTail(Frame)}.
+     *
+     * @param machine machine to invoke this function on
+     * @param frame   frame to replace
+     * @param argc    amount of arguments on the operand stack
+     */
+    public void invokeTail(@NotNull Machine machine, @NotNull RuntimeFrame frame, int argc) {
+        if (!canInvokeTail(frame)) {
+            throw new IllegalArgumentException("Cannot invoke '" + name + "' in place of " + frame);
+        }
+
+        final int count = prepare(machine, argc);
+
+        if (count < 0) {
+            return;
+        }
+
+        final OperandStack stack = machine.getOperandStack();
+        final int locals = frame.getLocals();
+
+        stack.moveTop(locals, count);
+        stack.reserve(chunk.getLocals() - count + chunk.getMaxStack());
+        stack.extend(chunk.getLocals() - count);
+
+        if (frame.getFunction() == this) {
+            frame.pc = 0;
+            return;
+        }
+
+        final Frame replacement = new RuntimeFrame(module, this, locals, stack.size());
+
+        machine.getCallStack().pop();
+        machine.profilerEndFrame(frame);
+        machine.profilerBeginFrame(replacement);
+        machine.getCallStack().push(replacement);
     }
 
     @NotNull
@@ -32,6 +111,17 @@ public class RuntimeFunction extends Function {
         return chunk;
     }
 
+    /**
+     * Returns whether this function contains {@code yield} statements.
+     * Calling such function returns a {@link Generator} instead of
+     * executing its body.
+     *
+     * @return {@code true} if this function is a generator
+     */
+    public boolean isGenerator() {
+        return (flags & Chunk.FLAG_GENERATOR) != 0;
+    }
+
     @Override
     public String toString() {
         return "[Function '" + name + "']";
@@ -8,18 +8,17 @@ import com.shade.lang.runtime.objects.module.builtin.BuiltinCore;
 import com.shade.lang.runtime.objects.value.ArrayValue;
 import com.shade.lang.runtime.objects.value.NoneValue;
 import com.shade.lang.runtime.objects.value.Value;
+import com.shade.lang.util.ClassDefiner;
 import com.shade.lang.util.annotations.NotNull;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Type;
-import sun.misc.Unsafe;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
 import static org.objectweb.asm.Opcodes.*;
@@ -67,8 +66,6 @@ public abstract class NativeModule extends Module {
     }
 
     private static final class BridgeGenerator {
-        private static final Unsafe UNSAFE = getUnsafe();
-
         public Class<?> generate(@NotNull NativeModule host, @NotNull Method method, @NotNull FunctionDescriptor descriptor) {
             if (method.getParameterCount() == 0 || method.getParameterTypes()[0] != Machine.class) {
                 throw new IllegalArgumentException("Method should accept `Machine` as first argument");
@@ -132,7 +129,7 @@ public abstract class NativeModule extends Module {
                 mv.visitEnd();
             }
 
-            return UNSAFE.defineAnonymousClass(host.getClass(), cw.toByteArray(), null);
+            return ClassDefiner.defineAnonymousClass(host.getClass(), cw.toByteArray());
         }
 
         private static void emitCast(MethodVisitor visitor, String name, Class<?> type) {
@@ -222,16 +219,5 @@ public abstract class NativeModule extends Module {
                 visitor.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(boxedType), boxedTypeGetter, "()" + Type.getDescriptor(type), false);
             }
         }
-
-        @NotNull
-        private static Unsafe getUnsafe() {
-            try {
-                final Field instanceField = Unsafe.class.getDeclaredField("theUnsafe");
-                instanceField.setAccessible(true);
-                return (Unsafe) instanceField.get(null);
-            } catch (Exception e) {
-                throw new IllegalStateException("Cannot obtain sun.misc.Unsafe", e);
-            }
-        }
     }
 }
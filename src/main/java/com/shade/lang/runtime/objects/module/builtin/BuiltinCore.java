@@ -6,6 +6,13 @@ import com.shade.lang.runtime.objects.ScriptObject;
 import com.shade.lang.runtime.objects.module.NativeModule;
 import com.shade.lang.runtime.objects.module.NativeModuleProvider;
 import com.shade.lang.runtime.objects.value.ArrayValue;
+import com.shade.lang.runtime.objects.value.BooleanValue;
+import com.shade.lang.runtime.objects.value.DictValue;
+import com.shade.lang.runtime.objects.value.FloatArrayValue;
+import com.shade.lang.runtime.objects.value.IntArrayValue;
+import com.shade.lang.runtime.objects.value.ListValue;
+import com.shade.lang.runtime.objects.value.NoneValue;
+import com.shade.lang.runtime.objects.value.NumericArrayValue;
 import com.shade.lang.runtime.objects.value.Value;
 
 import java.util.Arrays;
@@ -49,6 +56,183 @@ public class BuiltinCore extends NativeModule implements NativeModuleProvider {
         return new ArrayValue(dst);
     }
 
+    @FunctionDescriptor
+    public static Object list(Machine machine, ScriptObject... args) {
+        return new ListValue(args);
+    }
+
+    @FunctionDescriptor
+    public static Object append(Machine machine, ScriptObject list, ScriptObject value) {
+        final ListValue target = asList(machine, list);
+        if (target == null) {
+            return null;
+        }
+        target.append(value);
+        return NoneValue.INSTANCE;
+    }
+
+    @FunctionDescriptor
+    public static Object insert(Machine machine, ScriptObject list, int index, ScriptObject value) {
+        final ListValue target = asList(machine, list);
+        if (target == null || !target.insert(machine, index, value)) {
+            return null;
+        }
+        return NoneValue.INSTANCE;
+    }
+
+    @FunctionDescriptor
+    public static Object remove(Machine machine, ScriptObject list, int index) {
+        final ListValue target = asList(machine, list);
+        return target != null ? target.remove(machine, index) : null;
+    }
+
+    @FunctionDescriptor
+    public static Object slice(Machine machine, ScriptObject list, int begin, int end) {
+        final ListValue target = asList(machine, list);
+        return target != null ? target.slice(machine, begin, end) : null;
+    }
+
+    @FunctionDescriptor(name = "as_array")
+    public static Object asArray(Machine machine, ScriptObject list) {
+        final ListValue target = asList(machine, list);
+        return target != null ? new ArrayValue(target.toArray()) : null;
+    }
+
+    private static ListValue asList(Machine machine, ScriptObject object) {
+        if (!(object instanceof ListValue)) {
+            machine.panic(() -> "Object '" + object + "' is not a list", true);
+            return null;
+        }
+        return (ListValue) object;
+    }
+
+    @FunctionDescriptor
+    public static Object dict(Machine machine, ScriptObject... args) {
+        if (args.length % 2 != 0) {
+            machine.panic("Expected even amount of arguments (key-value pairs)", true);
+            return null;
+        }
+        final DictValue dict = new DictValue(args.length / 2);
+        for (int index = 0; index < args.length; index += 2) {
+            dict.put(args[index], args[index + 1]);
+        }
+        return dict;
+    }
+
+    @FunctionDescriptor
+    public static Object contains(Machine machine, ScriptObject dict, ScriptObject key) {
+        final DictValue target = asDict(machine, dict);
+        return target != null ? BooleanValue.valueOf(target.contains(key)) : null;
+    }
+
+    @FunctionDescriptor
+    public static Object get(Machine machine, ScriptObject dict, ScriptObject key, ScriptObject fallback) {
+        final DictValue target = asDict(machine, dict);
+        if (target == null) {
+            return null;
+        }
+        final ScriptObject value = target.get(key);
+        return value != null ? value : fallback;
+    }
+
+    @FunctionDescriptor
+    public static Object delete(Machine machine, ScriptObject dict, ScriptObject key) {
+        final DictValue target = asDict(machine, dict);
+        return target != null ? BooleanValue.valueOf(target.remove(key) != null) : null;
+    }
+
+    @FunctionDescriptor
+    public static Object keys(Machine machine, ScriptObject dict) {
+        final DictValue target = asDict(machine, dict);
+        return target != null ? new ArrayValue(target.getKeys()) : null;
+    }
+
+    @FunctionDescriptor
+    public static Object values(Machine machine, ScriptObject dict) {
+        final DictValue target = asDict(machine, dict);
+        return target != null ? new ArrayValue(target.getValues()) : null;
+    }
+
+    private static DictValue asDict(Machine machine, ScriptObject object) {
+        if (!(object instanceof DictValue)) {
+            machine.panic(() -> "Object '" + object + "' is not a dict", true);
+            return null;
+        }
+        return (DictValue) object;
+    }
+
+    @FunctionDescriptor(name = "int_array")
+    public static Object intArray(Machine machine, int size) {
+        return checkSize(machine, size) ? new IntArrayValue(new int[size]) : null;
+    }
+
+    @FunctionDescriptor(name = "float_array")
+    public static Object floatArray(Machine machine, int size) {
+        return checkSize(machine, size) ? new FloatArrayValue(new float[size]) : null;
+    }
+
+    @FunctionDescriptor
+    public static Object fill(Machine machine, ScriptObject array, ScriptObject value) {
+        final NumericArrayValue target = asNumericArray(machine, array);
+        return target != null && target.fill(machine, value) ? NoneValue.INSTANCE : null;
+    }
+
+    @FunctionDescriptor
+    public static Object copy(Machine machine, ScriptObject source, int from, ScriptObject target, int to, int count) {
+        final NumericArrayValue array = asNumericArray(machine, source);
+        return array != null && array.copy(machine, from, target, to, count) ? NoneValue.INSTANCE : null;
+    }
+
+    @FunctionDescriptor
+    public static Object sum(Machine machine, ScriptObject array) {
+        final NumericArrayValue target = asNumericArray(machine, array);
+        return target != null ? target.sum() : null;
+    }
+
+    @FunctionDescriptor
+    public static Object min(Machine machine, ScriptObject array) {
+        final NumericArrayValue target = asNumericArray(machine, array);
+        return target != null ? target.min(machine) : null;
+    }
+
+    @FunctionDescriptor
+    public static Object max(Machine machine, ScriptObject array) {
+        final NumericArrayValue target = asNumericArray(machine, array);
+        return target != null ? target.max(machine) : null;
+    }
+
+    @FunctionDescriptor
+    public static Object sort(Machine machine, ScriptObject array) {
+        final NumericArrayValue target = asNumericArray(machine, array);
+        if (target == null) {
+            return null;
+        }
+        target.sort();
+        return NoneValue.INSTANCE;
+    }
+
+    @FunctionDescriptor
+    public static Object search(Machine machine, ScriptObject array, ScriptObject value) {
+        final NumericArrayValue target = asNumericArray(machine, array);
+        return target != null ? target.search(machine, value) : null;
+    }
+
+    private static NumericArrayValue asNumericArray(Machine machine, ScriptObject object) {
+        if (!(object instanceof NumericArrayValue)) {
+            machine.panic(() -> "Object '" + object + "' is not a numeric array", true);
+            return null;
+        }
+        return (NumericArrayValue) object;
+    }
+
+    private static boolean checkSize(Machine machine, int size) {
+        if (size < 0) {
+            machine.panic(() -> "Array size is negative: " + size, true);
+            return false;
+        }
+        return true;
+    }
+
     @FunctionDescriptor
     public static void debug(Machine machine, ScriptObject... args) {
         Frame frame = machine.getCallStack().get(machine.getCallStack().size() - 2);
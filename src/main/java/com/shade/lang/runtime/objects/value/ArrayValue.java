@@ -13,7 +13,19 @@ public class ArrayValue extends Value implements Index, MutableIndex {
     public ArrayValue(ScriptObject[] values) {
         super(false);
         this.values = values;
-        setAttribute("length", Value.from(values.length));
+    }
+
+    @Override
+    public boolean isComputedAttribute(String name) {
+        return "length".equals(name);
+    }
+
+    @Override
+    public ScriptObject getAttribute(String name) {
+        if ("length".equals(name)) {
+            return Value.from(values.length);
+        }
+        return super.getAttribute(name);
     }
 
     @Override
@@ -42,7 +54,7 @@ public class ArrayValue extends Value implements Index, MutableIndex {
         int idx = ((IntegerValue) index).getValue();
 
         if (idx >= values.length) {
-            machine.panic("Index out of range (index is " + idx + ", size is " + values.length + ")", true);
+            machine.panic(() -> "Index out of range (index is " + idx + ", size is " + values.length + ")", true);
             return null;
         }
 
@@ -76,6 +88,11 @@ public class ArrayValue extends Value implements Index, MutableIndex {
         return Arrays.equals(values, value1.values);
     }
 
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
     @Override
     public String toString() {
         if (enterPrint(this)) {
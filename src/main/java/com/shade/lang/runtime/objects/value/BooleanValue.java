@@ -3,12 +3,19 @@ package com.shade.lang.runtime.objects.value;
 import com.shade.lang.runtime.Machine;
 
 public class BooleanValue extends Value {
+    public static final BooleanValue TRUE = new BooleanValue(true);
+    public static final BooleanValue FALSE = new BooleanValue(false);
+
     private final boolean value;
 
-    public BooleanValue(boolean value) {
+    private BooleanValue(boolean value) {
         this.value = value;
     }
 
+    public static BooleanValue valueOf(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
     @Override
     public Boolean getBoolean(Machine machine) {
         return value;
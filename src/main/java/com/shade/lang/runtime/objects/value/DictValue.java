@@ -0,0 +1,324 @@
+package com.shade.lang.runtime.objects.value;
+
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.runtime.objects.extension.Index;
+import com.shade.lang.runtime.objects.extension.MutableIndex;
+import com.shade.lang.util.annotations.NotNull;
+import com.shade.lang.util.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dictionary of values that preserves insertion order of its keys.
+ * <p>
+ * Entries are appended to parallel arrays of keys, values and hashes, and
+ * the hash table itself only holds positions of entries. The table uses
+ * open addressing with linear probing and is kept at most half full.
+ * Removed entries leave holes in the entry arrays that are compacted when
+ * the arrays are full, and removed positions are deleted from the table
+ * by shifting subsequent positions of the same cluster back, so lookups
+ * never have to skip tombstones.
+ * <p>
+ * Keys are compared using {@link ScriptObject#equals(Object)}, the same
+ * way as by operator {@code ==}, except that {@link StringValue} and
+ * {@link IntegerValue} keys are hashed and compared directly. Keys that
+ * are mutated while being in a dictionary will not be found anymore.
+ */
+public class DictValue extends Value implements Index, MutableIndex {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int EMPTY = -1;
+
+    private ScriptObject[] keys;
+    private ScriptObject[] values;
+    private int[] hashes;
+    private int[] table;
+    private int count;
+    private int size;
+
+    public DictValue() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public DictValue(int capacity) {
+        super(false);
+        allocate(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1));
+    }
+
+    @Nullable
+    public ScriptObject get(@NotNull ScriptObject key) {
+        final int index = find(key, hash(key));
+        return index != EMPTY ? values[index] : null;
+    }
+
+    public boolean contains(@NotNull ScriptObject key) {
+        return find(key, hash(key)) != EMPTY;
+    }
+
+    public void put(@NotNull ScriptObject key, @NotNull ScriptObject value) {
+        final int hash = hash(key);
+        final int index = find(key, hash);
+
+        if (index != EMPTY) {
+            values[index] = value;
+            return;
+        }
+
+        if (count == keys.length) {
+            resize();
+        }
+
+        keys[count] = key;
+        values[count] = value;
+        hashes[count] = hash;
+        table[findEmptySlot(hash)] = count;
+        count++;
+        size++;
+    }
+
+    /**
+     * Removes the entry with the specified {@code key}.
+     *
+     * @param key key of the entry
+     * @return removed value or {@code null} if there's no such entry
+     */
+    @Nullable
+    public ScriptObject remove(@NotNull ScriptObject key) {
+        final int mask = table.length - 1;
+        final int hash = hash(key);
+
+        for (int slot = hash & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            final int index = table[slot];
+
+            if (hashes[index] == hash && equals(keys[index], key)) {
+                final ScriptObject value = values[index];
+                keys[index] = null;
+                values[index] = null;
+                size--;
+                deleteSlot(slot);
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    @NotNull
+    public ScriptObject[] getKeys() {
+        return collect(keys);
+    }
+
+    @NotNull
+    public ScriptObject[] getValues() {
+        return collect(values);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isComputedAttribute(String name) {
+        return "length".equals(name);
+    }
+
+    @Override
+    public ScriptObject getAttribute(String name) {
+        if ("length".equals(name)) {
+            return IntegerValue.valueOf(size);
+        }
+        return super.getAttribute(name);
+    }
+
+    @Override
+    public ScriptObject getIndex(Machine machine, ScriptObject index) {
+        final ScriptObject value = get(index);
+        if (value == null) {
+            machine.panic(() -> "Key not found: " + index.toDisplayString(), true);
+        }
+        return value;
+    }
+
+    @Override
+    public void setIndex(Machine machine, ScriptObject index, ScriptObject value) {
+        put(index, value);
+    }
+
+    @Override
+    public Object getValue() {
+        final Map<ScriptObject, ScriptObject> map = new LinkedHashMap<>();
+        for (int index = 0; index < count; index++) {
+            if (keys[index] != null) {
+                map.put(keys[index], values[index]);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public Boolean getBoolean(Machine machine) {
+        return size > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DictValue that = (DictValue) o;
+        if (size != that.size) return false;
+        for (int index = 0; index < count; index++) {
+            if (keys[index] != null && !values[index].equals(that.get(keys[index]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (int index = 0; index < count; index++) {
+            if (keys[index] != null) {
+                result += keys[index].hashCode() ^ values[index].hashCode();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "{}";
+        }
+        if (enterPrint(this)) {
+            return "{...}";
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append('{');
+        for (int index = 0; index < count; index++) {
+            if (keys[index] == null) {
+                continue;
+            }
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(keys[index].toDisplayString());
+            builder.append(": ");
+            builder.append(values[index].toDisplayString());
+        }
+        leavePrint(this);
+        return builder.append('}').toString();
+    }
+
+    private int find(@NotNull ScriptObject key, int hash) {
+        final int mask = table.length - 1;
+
+        for (int slot = hash & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            final int index = table[slot];
+
+            if (hashes[index] == hash && equals(keys[index], key)) {
+                return index;
+            }
+        }
+
+        return EMPTY;
+    }
+
+    private int findEmptySlot(int hash) {
+        final int mask = table.length - 1;
+        int slot = hash & mask;
+
+        while (table[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void deleteSlot(int slot) {
+        final int mask = table.length - 1;
+        int hole = slot;
+
+        for (int next = (slot + 1) & mask; table[next] != EMPTY; next = (next + 1) & mask) {
+            final int home = hashes[table[next]] & mask;
+
+            /* Position may be moved into the hole only if its home slot is not between the hole and itself */
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+
+        table[hole] = EMPTY;
+    }
+
+    private void resize() {
+        final ScriptObject[] oldKeys = keys;
+        final ScriptObject[] oldValues = values;
+        final int[] oldHashes = hashes;
+        final int oldCount = count;
+
+        allocate(size >= keys.length >> 1 ? keys.length << 1 : keys.length);
+
+        for (int index = 0; index < oldCount; index++) {
+            if (oldKeys[index] != null) {
+                keys[count] = oldKeys[index];
+                values[count] = oldValues[index];
+                hashes[count] = oldHashes[index];
+                table[findEmptySlot(oldHashes[index])] = count;
+                count++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new ScriptObject[capacity];
+        values = new ScriptObject[capacity];
+        hashes = new int[capacity];
+        table = new int[capacity << 1];
+        Arrays.fill(table, EMPTY);
+        count = 0;
+    }
+
+    @NotNull
+    private ScriptObject[] collect(@NotNull ScriptObject[] source) {
+        final ScriptObject[] result = new ScriptObject[size];
+        for (int index = 0, position = 0; index < count; index++) {
+            if (keys[index] != null) {
+                result[position++] = source[index];
+            }
+        }
+        return result;
+    }
+
+    private static int hash(@NotNull ScriptObject key) {
+        final int hash;
+
+        if (key instanceof StringValue) {
+            hash = ((StringValue) key).getValue().hashCode();
+        } else if (key instanceof IntegerValue) {
+            hash = ((IntegerValue) key).intValue();
+        } else {
+            hash = key.hashCode();
+        }
+
+        /* Spread higher bits downwards, since only lower bits select a slot */
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(@NotNull ScriptObject a, @NotNull ScriptObject b) {
+        if (a == b) {
+            return true;
+        }
+        if (a instanceof StringValue && b instanceof StringValue) {
+            return ((StringValue) a).getValue().equals(((StringValue) b).getValue());
+        }
+        if (a instanceof IntegerValue && b instanceof IntegerValue) {
+            return ((IntegerValue) a).intValue() == ((IntegerValue) b).intValue();
+        }
+        return a.equals(b);
+    }
+}
@@ -0,0 +1,131 @@
+package com.shade.lang.runtime.objects.value;
+
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Array of floats. Integer values are converted
+ * to floats when stored into this array.
+ */
+public class FloatArrayValue extends NumericArrayValue {
+    private final float[] values;
+
+    public FloatArrayValue(@NotNull float[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int length() {
+        return values.length;
+    }
+
+    @Override
+    public boolean fill(@NotNull Machine machine, @NotNull ScriptObject value) {
+        if (!checkValue(machine, value)) {
+            return false;
+        }
+        Arrays.fill(values, toFloat(value));
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public Value sum() {
+        double result = 0;
+        for (float value : values) {
+            result += value;
+        }
+        return new FloatValue((float) result);
+    }
+
+    @Override
+    public Value min(@NotNull Machine machine) {
+        if (!checkEmpty(machine)) {
+            return null;
+        }
+        float result = values[0];
+        for (float value : values) {
+            result = Math.min(result, value);
+        }
+        return new FloatValue(result);
+    }
+
+    @Override
+    public Value max(@NotNull Machine machine) {
+        if (!checkEmpty(machine)) {
+            return null;
+        }
+        float result = values[0];
+        for (float value : values) {
+            result = Math.max(result, value);
+        }
+        return new FloatValue(result);
+    }
+
+    @Override
+    public void sort() {
+        Arrays.sort(values);
+    }
+
+    @Override
+    public Value search(@NotNull Machine machine, @NotNull ScriptObject value) {
+        if (!checkValue(machine, value)) {
+            return null;
+        }
+        return IntegerValue.valueOf(Arrays.binarySearch(values, toFloat(value)));
+    }
+
+    @Override
+    public ScriptObject getIndex(Machine machine, ScriptObject index) {
+        final int idx = getIndexValue(machine, index);
+        return idx >= 0 ? new FloatValue(values[idx]) : null;
+    }
+
+    @Override
+    public void setIndex(Machine machine, ScriptObject index, ScriptObject value) {
+        final int idx = getIndexValue(machine, index);
+        if (idx >= 0 && checkValue(machine, value)) {
+            values[idx] = toFloat(value);
+        }
+    }
+
+    private static boolean checkValue(@NotNull Machine machine, @NotNull ScriptObject value) {
+        if (!(value instanceof FloatValue) && !(value instanceof IntegerValue)) {
+            machine.panic(() -> "Expected value to be float or integer, got '" + value + "'", true);
+            return false;
+        }
+        return true;
+    }
+
+    private static float toFloat(@NotNull ScriptObject value) {
+        if (value instanceof IntegerValue) {
+            return ((IntegerValue) value).intValue();
+        }
+        return ((FloatValue) value).floatValue();
+    }
+
+    @Override
+    public float[] getValue() {
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(values, ((FloatArrayValue) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
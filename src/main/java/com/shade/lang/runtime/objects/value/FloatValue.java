@@ -69,8 +69,24 @@ public class FloatValue extends Value {
         return value > 0.0f;
     }
 
+    public float floatValue() {
+        return value;
+    }
+
     @Override
     public Float getValue() {
         return value;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Float.floatToIntBits(value) == Float.floatToIntBits(((FloatValue) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Float.floatToIntBits(value);
+    }
 }
@@ -0,0 +1,120 @@
+package com.shade.lang.runtime.objects.value;
+
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.Arrays;
+
+public class IntArrayValue extends NumericArrayValue {
+    private final int[] values;
+
+    public IntArrayValue(@NotNull int[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int length() {
+        return values.length;
+    }
+
+    @Override
+    public boolean fill(@NotNull Machine machine, @NotNull ScriptObject value) {
+        if (!checkValue(machine, value)) {
+            return false;
+        }
+        Arrays.fill(values, ((IntegerValue) value).intValue());
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public Value sum() {
+        int result = 0;
+        for (int value : values) {
+            result += value;
+        }
+        return IntegerValue.valueOf(result);
+    }
+
+    @Override
+    public Value min(@NotNull Machine machine) {
+        if (!checkEmpty(machine)) {
+            return null;
+        }
+        int result = values[0];
+        for (int value : values) {
+            result = Math.min(result, value);
+        }
+        return IntegerValue.valueOf(result);
+    }
+
+    @Override
+    public Value max(@NotNull Machine machine) {
+        if (!checkEmpty(machine)) {
+            return null;
+        }
+        int result = values[0];
+        for (int value : values) {
+            result = Math.max(result, value);
+        }
+        return IntegerValue.valueOf(result);
+    }
+
+    @Override
+    public void sort() {
+        Arrays.sort(values);
+    }
+
+    @Override
+    public Value search(@NotNull Machine machine, @NotNull ScriptObject value) {
+        if (!checkValue(machine, value)) {
+            return null;
+        }
+        return IntegerValue.valueOf(Arrays.binarySearch(values, ((IntegerValue) value).intValue()));
+    }
+
+    @Override
+    public ScriptObject getIndex(Machine machine, ScriptObject index) {
+        final int idx = getIndexValue(machine, index);
+        return idx >= 0 ? IntegerValue.valueOf(values[idx]) : null;
+    }
+
+    @Override
+    public void setIndex(Machine machine, ScriptObject index, ScriptObject value) {
+        final int idx = getIndexValue(machine, index);
+        if (idx >= 0 && checkValue(machine, value)) {
+            values[idx] = ((IntegerValue) value).intValue();
+        }
+    }
+
+    private static boolean checkValue(@NotNull Machine machine, @NotNull ScriptObject value) {
+        if (!(value instanceof IntegerValue)) {
+            machine.panic(() -> "Expected value to be integer, got '" + value + "'", true);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int[] getValue() {
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(values, ((IntArrayValue) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
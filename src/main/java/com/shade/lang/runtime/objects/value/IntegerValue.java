@@ -3,16 +3,43 @@ package com.shade.lang.runtime.objects.value;
 import com.shade.lang.runtime.Machine;
 
 public class IntegerValue extends Value {
+    public static final int CACHE_LOW = Integer.getInteger("ash.cache.int.low", -128);
+    public static final int CACHE_HIGH = Integer.getInteger("ash.cache.int.high", 1023);
+
+    private static final IntegerValue[] CACHE = new IntegerValue[Math.max(0, CACHE_HIGH - CACHE_LOW + 1)];
+
+    static {
+        for (int index = 0; index < CACHE.length; index++) {
+            CACHE[index] = new IntegerValue(CACHE_LOW + index);
+        }
+    }
+
     private final int value;
 
-    public IntegerValue(int value) {
+    private IntegerValue(int value) {
         this.value = value;
     }
 
+    /**
+     * Returns an {@link IntegerValue} representing the supplied {@code value}.
+     * <p>
+     * Values within range of {@link #CACHE_LOW} and {@link #CACHE_HIGH}
+     * (inclusive) are cached and always return the same instance.
+     *
+     * @param value the value
+     * @return an {@link IntegerValue} representing {@code value}
+     */
+    public static IntegerValue valueOf(int value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return CACHE[value - CACHE_LOW];
+        }
+        return new IntegerValue(value);
+    }
+
     @Override
     public Value add(Machine machine, Value other) {
         if (other instanceof IntegerValue) {
-            return new IntegerValue(value + ((IntegerValue) other).value);
+            return valueOf(value + ((IntegerValue) other).value);
         }
         if (other instanceof FloatValue) {
             return new FloatValue(value + ((FloatValue) other).getValue());
@@ -23,7 +50,7 @@ public class IntegerValue extends Value {
     @Override
     public Value sub(Machine machine, Value other) {
         if (other instanceof IntegerValue) {
-            return new IntegerValue(value - ((IntegerValue) other).value);
+            return valueOf(value - ((IntegerValue) other).value);
         }
         if (other instanceof FloatValue) {
             return new FloatValue(value - ((FloatValue) other).getValue());
@@ -34,7 +61,7 @@ public class IntegerValue extends Value {
     @Override
     public Value mul(Machine machine, Value other) {
         if (other instanceof IntegerValue) {
-            return new IntegerValue(value * ((IntegerValue) other).value);
+            return valueOf(value * ((IntegerValue) other).value);
         }
         if (other instanceof FloatValue) {
             return new FloatValue(value * ((FloatValue) other).getValue());
@@ -45,7 +72,7 @@ public class IntegerValue extends Value {
     @Override
     public Value div(Machine machine, Value other) {
         if (other instanceof IntegerValue) {
-            return new IntegerValue(value / ((IntegerValue) other).value);
+            return valueOf(value / ((IntegerValue) other).value);
         }
         if (other instanceof FloatValue) {
             return new FloatValue(value / ((FloatValue) other).getValue());
@@ -69,8 +96,24 @@ public class IntegerValue extends Value {
         return value > 0;
     }
 
+    public int intValue() {
+        return value;
+    }
+
     @Override
     public Integer getValue() {
         return value;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return value == ((IntegerValue) o).value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
 }
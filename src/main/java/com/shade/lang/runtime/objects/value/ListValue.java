@@ -0,0 +1,220 @@
+package com.shade.lang.runtime.objects.value;
+
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.runtime.objects.extension.Index;
+import com.shade.lang.runtime.objects.extension.MutableIndex;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Growable list of values.
+ * <p>
+ * Unlike {@link ArrayValue}, whose size is fixed, elements are kept in an
+ * array with spare capacity that grows twice when full, so appending
+ * an element takes amortized constant time.
+ */
+public class ListValue extends Value implements Index, MutableIndex {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final ScriptObject[] EMPTY_ELEMENTS = new ScriptObject[0];
+
+    private ScriptObject[] elements;
+    private int size;
+
+    public ListValue() {
+        super(false);
+        this.elements = EMPTY_ELEMENTS;
+    }
+
+    public ListValue(@NotNull ScriptObject[] elements) {
+        this(elements.clone(), elements.length);
+    }
+
+    private ListValue(@NotNull ScriptObject[] elements, int size) {
+        super(false);
+        this.elements = elements;
+        this.size = size;
+    }
+
+    public void append(@NotNull ScriptObject value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Inserts {@code value} before the element at the specified {@code index}.
+     *
+     * @param machine machine to panic on if index is out of range
+     * @param index   position to insert at, from zero to size of this list inclusive
+     * @param value   value to insert
+     * @return {@code false} if index is out of range
+     */
+    public boolean insert(@NotNull Machine machine, int index, @NotNull ScriptObject value) {
+        if (index < 0 || index > size) {
+            machine.panic(() -> "Index out of range (index is " + index + ", size is " + size + ")", true);
+            return false;
+        }
+        if (size == elements.length) {
+            grow();
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the element at the specified {@code index}.
+     *
+     * @param machine machine to panic on if index is out of range
+     * @param index   position of the element
+     * @return removed element or {@code null} if index is out of range
+     */
+    public ScriptObject remove(@NotNull Machine machine, int index) {
+        if (!checkIndex(machine, index)) {
+            return null;
+        }
+        final ScriptObject value = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        return value;
+    }
+
+    /**
+     * Creates a new list containing elements of this list from
+     * {@code begin} inclusive to {@code end} exclusive. Negative
+     * positions are counted from the end of this list.
+     *
+     * @param machine machine to panic on if range is invalid
+     * @param begin   position of the first element
+     * @param end     position following the last element
+     * @return new list or {@code null} if range is invalid
+     */
+    public ListValue slice(@NotNull Machine machine, int begin, int end) {
+        final int from = begin < 0 ? begin + size : begin;
+        final int to = end < 0 ? end + size : end;
+        if (from < 0 || to > size || from > to) {
+            machine.panic(() -> "Invalid slice range (range is " + begin + ".." + end + ", size is " + size + ")", true);
+            return null;
+        }
+        return new ListValue(Arrays.copyOfRange(elements, from, to), to - from);
+    }
+
+    @NotNull
+    public ScriptObject[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isComputedAttribute(String name) {
+        return "length".equals(name);
+    }
+
+    @Override
+    public ScriptObject getAttribute(String name) {
+        if ("length".equals(name)) {
+            return IntegerValue.valueOf(size);
+        }
+        return super.getAttribute(name);
+    }
+
+    @Override
+    public ScriptObject getIndex(Machine machine, ScriptObject index) {
+        final int idx = getIndexValue(machine, index);
+        return idx >= 0 ? elements[idx] : null;
+    }
+
+    @Override
+    public void setIndex(Machine machine, ScriptObject index, ScriptObject value) {
+        final int idx = getIndexValue(machine, index);
+        if (idx >= 0) {
+            elements[idx] = value;
+        }
+    }
+
+    private int getIndexValue(Machine machine, ScriptObject index) {
+        if (!(index instanceof IntegerValue)) {
+            machine.panic("Expected index to be integer", true);
+            return -1;
+        }
+        final int idx = ((IntegerValue) index).getValue();
+        return checkIndex(machine, idx) ? idx : -1;
+    }
+
+    private boolean checkIndex(Machine machine, int index) {
+        if (index < 0) {
+            machine.panic("Index is negative", true);
+            return false;
+        }
+        if (index >= size) {
+            machine.panic(() -> "Index out of range (index is " + index + ", size is " + size + ")", true);
+            return false;
+        }
+        return true;
+    }
+
+    private void grow() {
+        elements = Arrays.copyOf(elements, Math.max(INITIAL_CAPACITY, elements.length << 1));
+    }
+
+    @Override
+    public Object getValue() {
+        return Collections.unmodifiableList(Arrays.asList(elements).subList(0, size));
+    }
+
+    @Override
+    public Boolean getBoolean(Machine machine) {
+        return size > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ListValue that = (ListValue) o;
+        if (size != that.size) return false;
+        for (int index = 0; index < size; index++) {
+            if (!elements[index].equals(that.elements[index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int index = 0; index < size; index++) {
+            result = 31 * result + elements[index].hashCode();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "[]";
+        }
+        if (enterPrint(this)) {
+            return "[...]";
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append('[');
+        for (int index = 0; index < size; index++) {
+            if (index > 0) {
+                builder.append(", ");
+            }
+            builder.append(elements[index].toDisplayString());
+        }
+        leavePrint(this);
+        return builder.append(']').toString();
+    }
+}
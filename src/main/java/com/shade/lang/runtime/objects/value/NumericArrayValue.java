@@ -0,0 +1,134 @@
+package com.shade.lang.runtime.objects.value;
+
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.runtime.objects.extension.Index;
+import com.shade.lang.runtime.objects.extension.MutableIndex;
+import com.shade.lang.util.annotations.NotNull;
+
+/**
+ * Fixed-size array of numbers backed by a primitive array.
+ * <p>
+ * Elements are boxed only when read by index and unboxed when
+ * assigned, so large arrays take as much memory as their Java
+ * counterparts. Bulk operations work on the primitive array directly.
+ *
+ * @see IntArrayValue
+ * @see FloatArrayValue
+ */
+public abstract class NumericArrayValue extends Value implements Index, MutableIndex {
+    protected NumericArrayValue() {
+        super(false);
+    }
+
+    public abstract int length();
+
+    /**
+     * Assigns {@code value} to every element of this array.
+     *
+     * @param machine machine to panic on if value has incompatible type
+     * @param value   value to assign
+     * @return {@code false} if value has incompatible type
+     */
+    public abstract boolean fill(@NotNull Machine machine, @NotNull ScriptObject value);
+
+    /**
+     * Copies {@code count} elements of this array starting at {@code from}
+     * to the {@code target} array of the same type starting at {@code to}.
+     *
+     * @param machine machine to panic on if arrays or ranges are incompatible
+     * @param from    position of the first element in this array
+     * @param target  array to copy elements to
+     * @param to      position of the first element in the target array
+     * @param count   amount of elements to copy
+     * @return {@code false} if arrays or ranges are incompatible
+     */
+    public boolean copy(@NotNull Machine machine, int from, @NotNull ScriptObject target, int to, int count) {
+        if (target.getClass() != getClass()) {
+            machine.panic(() -> "Cannot copy elements of '" + this + "' to '" + target + "'", true);
+            return false;
+        }
+        final int length = ((NumericArrayValue) target).length();
+        if (count < 0 || from < 0 || to < 0 || count > length() - from || count > length - to) {
+            machine.panic(() -> "Invalid copy range (from " + from + " to " + to + ", count is " + count + ")", true);
+            return false;
+        }
+        System.arraycopy(getValue(), from, ((NumericArrayValue) target).getValue(), to, count);
+        return true;
+    }
+
+    @NotNull
+    public abstract Value sum();
+
+    /**
+     * Returns the smallest element of this array.
+     *
+     * @param machine machine to panic on if this array is empty
+     * @return smallest element or {@code null} if this array is empty
+     */
+    public abstract Value min(@NotNull Machine machine);
+
+    /**
+     * Returns the largest element of this array.
+     *
+     * @param machine machine to panic on if this array is empty
+     * @return largest element or {@code null} if this array is empty
+     */
+    public abstract Value max(@NotNull Machine machine);
+
+    public abstract void sort();
+
+    /**
+     * Searches for {@code value} in this array, which must be sorted.
+     *
+     * @param machine machine to panic on if value has incompatible type
+     * @param value   value to search for
+     * @return index of the value if found, otherwise {@code -(insertion point) - 1};
+     * or {@code null} if value has incompatible type
+     * @see java.util.Arrays#binarySearch(int[], int)
+     */
+    public abstract Value search(@NotNull Machine machine, @NotNull ScriptObject value);
+
+    @Override
+    public boolean isComputedAttribute(String name) {
+        return "length".equals(name);
+    }
+
+    @Override
+    public ScriptObject getAttribute(String name) {
+        if ("length".equals(name)) {
+            return IntegerValue.valueOf(length());
+        }
+        return super.getAttribute(name);
+    }
+
+    @Override
+    public Boolean getBoolean(Machine machine) {
+        return length() > 0;
+    }
+
+    protected boolean checkEmpty(@NotNull Machine machine) {
+        if (length() == 0) {
+            machine.panic("Array is empty", true);
+            return false;
+        }
+        return true;
+    }
+
+    protected int getIndexValue(@NotNull Machine machine, @NotNull ScriptObject index) {
+        if (!(index instanceof IntegerValue)) {
+            machine.panic("Expected index to be integer", true);
+            return -1;
+        }
+        final int idx = ((IntegerValue) index).intValue();
+        if (idx < 0) {
+            machine.panic("Index is negative", true);
+            return -1;
+        }
+        if (idx >= length()) {
+            machine.panic(() -> "Index out of range (index is " + idx + ", size is " + length() + ")", true);
+            return -1;
+        }
+        return idx;
+    }
+}
@@ -3,27 +3,145 @@ package com.shade.lang.runtime.objects.value;
 import com.shade.lang.runtime.Machine;
 import com.shade.lang.runtime.objects.ScriptObject;
 import com.shade.lang.runtime.objects.extension.Index;
+import com.shade.lang.util.annotations.NotNull;
 
+/**
+ * Immutable string.
+ * <p>
+ * Strings produced by appending to a string that was itself produced by
+ * concatenation may be backed by a buffer shared with the strings they were
+ * made of. Such string is a prefix of the buffer, and the buffer is never
+ * changed within that prefix, so appending to the string that ends exactly
+ * where the buffer does only appends to the buffer, and repeated
+ * {@code s += x} takes amortized linear time instead of quadratic. The
+ * string is flattened into a Java string once it's actually read. Results
+ * of a single concatenation are plain Java strings.
+ * <p>
+ * The shared buffer is retained for as long as any of such strings is
+ * reachable.
+ * <p>
+ * Single-character strings of Latin-1 characters are cached,
+ * so indexing such strings does not allocate.
+ */
 public class StringValue extends Value implements Index {
-    private final String value;
+    /**
+     * Concatenation results shorter than this are never backed by a buffer.
+     */
+    private static final int BUFFER_THRESHOLD = 64;
+
+    private static final StringValue[] CHARACTERS = new StringValue[256];
+
+    static {
+        for (int index = 0; index < CHARACTERS.length; index++) {
+            CHARACTERS[index] = new StringValue(String.valueOf((char) index));
+        }
+    }
+
+    private final StringBuilder buffer;
+    private final int length;
+    private final boolean concatenated;
+    private volatile String value;
 
     public StringValue(String value) {
+        this(value, false);
+    }
+
+    private StringValue(@NotNull String value, boolean concatenated) {
+        this.buffer = null;
+        this.length = value.length();
+        this.concatenated = concatenated;
         this.value = value;
-        setAttribute("length", Value.from(value.length()));
+    }
+
+    private StringValue(@NotNull StringBuilder buffer, int length) {
+        this.buffer = buffer;
+        this.length = length;
+        this.concatenated = true;
+    }
+
+    /**
+     * Returns a {@link StringValue} consisting of the supplied character.
+     * <p>
+     * Latin-1 characters are cached and always return the same instance.
+     *
+     * @param value the character
+     * @return a {@link StringValue} representing {@code value}
+     */
+    @NotNull
+    public static StringValue valueOf(char value) {
+        if (value < CHARACTERS.length) {
+            return CHARACTERS[value];
+        }
+        return new StringValue(String.valueOf(value));
+    }
+
+    /**
+     * Concatenates string representations of the supplied {@code values}.
+     *
+     * @param values values to concatenate
+     * @return concatenated string
+     */
+    @NotNull
+    public static StringValue concat(@NotNull ScriptObject[] values) {
+        final StringBuilder builder = new StringBuilder();
+        for (ScriptObject value : values) {
+            builder.append(value);
+        }
+        return new StringValue(builder.toString());
+    }
+
+    @Override
+    public boolean isComputedAttribute(String name) {
+        return "length".equals(name);
+    }
+
+    @Override
+    public ScriptObject getAttribute(String name) {
+        if ("length".equals(name)) {
+            return IntegerValue.valueOf(length);
+        }
+        return super.getAttribute(name);
     }
 
     @Override
     public Value add(Machine machine, Value other) {
-        return new StringValue(value + other);
+        final String suffix = other.toString();
+
+        if (buffer != null) {
+            synchronized (buffer) {
+                if (buffer.length() == length) {
+                    buffer.append(suffix);
+                    return new StringValue(buffer, buffer.length());
+                }
+            }
+        }
+
+        final String prefix = getValue();
+        final int length = prefix.length() + suffix.length();
+
+        /* Only strings that are appended to repeatedly get a buffer */
+        if (!concatenated || length < BUFFER_THRESHOLD) {
+            return new StringValue(prefix.concat(suffix), true);
+        }
+
+        final StringBuilder buffer = new StringBuilder(length << 1).append(prefix).append(suffix);
+        return new StringValue(buffer, length);
     }
 
     @Override
     public Boolean getBoolean(Machine machine) {
-        return value.length() > 0;
+        return length > 0;
     }
 
     @Override
-    public Object getValue() {
+    public String getValue() {
+        String value = this.value;
+        if (value == null) {
+            synchronized (buffer) {
+                value = buffer.substring(0, length);
+            }
+            this.value = value;
+        }
         return value;
     }
 
@@ -34,18 +152,41 @@ public class StringValue extends Value implements Index {
             return null;
         }
 
-        int idx = ((IntegerValue) index).getValue();
+        final int idx = ((IntegerValue) index).intValue();
+
+        if (idx < 0) {
+            machine.panic("Index is negative", true);
+            return null;
+        }
 
-        if (idx >= value.length()) {
-            machine.panic("Index out of range (index is " + idx + ", size is " + value.length() + ")", true);
+        if (idx >= length) {
+            machine.panic(() -> "Index out of range (index is " + idx + ", size is " + length + ")", true);
             return null;
         }
 
-        return Value.from(String.valueOf(value.charAt(idx)));
+        return valueOf(getValue().charAt(idx));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StringValue that = (StringValue) o;
+        return length == that.length && getValue().equals(that.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+        return getValue().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
     }
 
     @Override
     public String toDisplayString() {
-        return '\'' + value + '\'';
+        return '\'' + getValue() + '\'';
     }
 }
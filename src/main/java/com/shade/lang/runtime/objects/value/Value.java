@@ -20,15 +20,15 @@ public abstract class Value extends ScriptObject {
         if (value == null) {
             return null;
         } else if (value instanceof Integer) {
-            return new IntegerValue((int) value);
+            return IntegerValue.valueOf((int) value);
         } else if (value instanceof Long) {
-            return new IntegerValue((int) (long) value);
+            return IntegerValue.valueOf((int) (long) value);
         } else if (value instanceof Float) {
             return new FloatValue((float) value);
         } else if (value instanceof String) {
             return new StringValue((String) value);
         } else if (value instanceof Boolean) {
-            return new BooleanValue((Boolean) value);
+            return BooleanValue.valueOf((Boolean) value);
         } else if (value instanceof ScriptObject[]) {
             return new ArrayValue((ScriptObject[]) value);
         } else if (value instanceof Value) {
@@ -40,32 +40,32 @@ public abstract class Value extends ScriptObject {
     public abstract Object getValue();
 
     public Value add(Machine machine, Value other) {
-        machine.panic(String.format("Unsupported operands for operator '+': '%s' and '%s'", getValue(), other.getValue()), true);
+        machine.panic(() -> String.format("Unsupported operands for operator '+': '%s' and '%s'", getValue(), other.getValue()), true);
         return null;
     }
 
     public Value sub(Machine machine, Value other) {
-        machine.panic(String.format("Unsupported operands for operator '-': '%s' and '%s'", getValue(), other.getValue()), true);
+        machine.panic(() -> String.format("Unsupported operands for operator '-': '%s' and '%s'", getValue(), other.getValue()), true);
         return null;
     }
 
     public Value mul(Machine machine, Value other) {
-        machine.panic(String.format("Unsupported operands for operator '*': '%s' and '%s'", getValue(), other.getValue()), true);
+        machine.panic(() -> String.format("Unsupported operands for operator '*': '%s' and '%s'", getValue(), other.getValue()), true);
         return null;
     }
 
     public Value div(Machine machine, Value other) {
-        machine.panic(String.format("Unsupported operands for operator '/': '%s' and '%s'", getValue(), other.getValue()), true);
+        machine.panic(() -> String.format("Unsupported operands for operator '/': '%s' and '%s'", getValue(), other.getValue()), true);
         return null;
     }
 
     public Integer compare(Machine machine, Value other) {
-        machine.panic(String.format("Cannot compare values: '%s' and '%s'", getValue(), other.getValue()), true);
+        machine.panic(() -> String.format("Cannot compare values: '%s' and '%s'", getValue(), other.getValue()), true);
         return null;
     }
 
     public Boolean getBoolean(Machine machine) {
-        machine.panic(String.format("Cannot reinterpret value as a boolean: '%s'", getValue()), true);
+        machine.panic(() -> String.format("Cannot reinterpret value as a boolean: '%s'", getValue()), true);
         return null;
     }
 
@@ -79,7 +79,7 @@ public abstract class Value extends ScriptObject {
 
     @Override
     public int hashCode() {
-        return Objects.hash(getValue());
+        return Objects.hashCode(getValue());
     }
 
     @Override
@@ -88,9 +88,10 @@ public abstract class Value extends ScriptObject {
     }
 
     /**
-     * The print stack used to track cyclic objects.
+     * The print stack used to track cyclic objects. Each thread
+     * has its own stack, so machines may print values concurrently.
      */
-    private static final Stack<ScriptObject> PRINT_STACK = new Stack<>();
+    private static final ThreadLocal<Stack<ScriptObject>> PRINT_STACK = ThreadLocal.withInitial(Stack::new);
 
     /**
      * Pushes the supplied <code>object</code> onto the print stack (if not present) to prevent
@@ -102,12 +103,13 @@ public abstract class Value extends ScriptObject {
      * If so, {@link #leavePrint(ScriptObject)} must be called with the same object.
      */
     protected static boolean enterPrint(@NotNull ScriptObject object) {
-        for (int index = PRINT_STACK.size() - 1; index >= 0; index--) {
-            if (PRINT_STACK.get(index) == object) {
+        final Stack<ScriptObject> stack = PRINT_STACK.get();
+        for (int index = stack.size() - 1; index >= 0; index--) {
+            if (stack.get(index) == object) {
                 return true;
             }
         }
-        PRINT_STACK.push(object);
+        stack.push(object);
         return false;
     }
 
@@ -118,9 +120,10 @@ public abstract class Value extends ScriptObject {
      * @param object the object to remove from the print stack
      */
     protected static void leavePrint(@NotNull ScriptObject object) {
-        if (PRINT_STACK.peek() != object) {
+        final Stack<ScriptObject> stack = PRINT_STACK.get();
+        if (stack.peek() != object) {
             throw new IllegalArgumentException("leavePrint must be preceded by enterPrint on the same object");
         }
-        PRINT_STACK.pop();
+        stack.pop();
     }
 }
@@ -0,0 +1,131 @@
+package com.shade.lang.tool;
+
+import com.shade.lang.compiler.assembler.Disassembler;
+import com.shade.lang.compiler.assembler.Instruction;
+import com.shade.lang.compiler.assembler.Operand;
+import com.shade.lang.compiler.assembler.Operation;
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.objects.Chunk;
+import com.shade.lang.runtime.objects.module.Module;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Prints execution counters collected while {@link Machine#ENABLE_COUNTERS} is set.
+ * <p>
+ * Opcode counters are printed as a table sorted by the amount of executed
+ * instructions. Chunk counters are printed as a disassembly listing where
+ * each instruction is prefixed with the amount of its executions and its
+ * share among all instructions of the chunk. Chunks of functions and
+ * classes declared by a chunk are printed after it, named after them.
+ * <p>
+ * Counts of the hottest instructions and their neighbours show
+ * which specializations and superinstructions would pay off.
+ */
+public final class CounterDump {
+    private CounterDump() {
+    }
+
+    /**
+     * Prints opcode counters of the {@code machine}, skipping opcodes that were never executed.
+     *
+     * @param machine machine to print counters of
+     * @param out     destination stream
+     */
+    public static void printOpcodes(@NotNull Machine machine, @NotNull PrintStream out) {
+        final long[] counters = machine.getOpcodeCounters();
+        final long total = Arrays.stream(counters).sum();
+
+        Arrays.stream(Operation.values())
+            .filter(operation -> counters[operation.getOpcode() & 0xff] > 0)
+            .sorted((a, b) -> Long.compare(counters[b.getOpcode() & 0xff], counters[a.getOpcode() & 0xff]))
+            .forEach(operation -> {
+                final long count = counters[operation.getOpcode() & 0xff];
+                out.printf("%14d %6.2f%% %s%n", count, count * 100.0D / total, operation);
+            });
+    }
+
+    /**
+     * Prints annotated listings of the module's chunk and all chunks declared by it.
+     *
+     * @param module module to print chunks of
+     * @param out    destination stream
+     */
+    public static void printModule(@NotNull Module module, @NotNull PrintStream out) {
+        if (module.getChunk() != null) {
+            printChunk(module.getName(), module.getName(), module.getChunk(), out);
+        }
+    }
+
+    /**
+     * Prints annotated listing of the {@code chunk} and all chunks declared by it.
+     * Chunks that were never executed are skipped.
+     *
+     * @param module name of the module declaring the chunk
+     * @param name   name of the chunk
+     * @param chunk  chunk to print
+     * @param out    destination stream
+     */
+    public static void printChunk(@NotNull String module, @NotNull String name, @NotNull Chunk chunk, @NotNull PrintStream out) {
+        final long[] counters = chunk.getExecutionCounters();
+        final long total = Arrays.stream(counters).sum();
+        final Object[] constants = chunk.getConstants();
+        final Disassembler disassembler = new Disassembler(
+            ByteBuffer.wrap(chunk.getCode()),
+            index -> index >= 0 && index < constants.length ? constants[index] : null
+        );
+
+        if (total > 0) {
+            out.printf("--- %s (%d instruction(-s) executed) ---%n", name, total);
+        }
+
+        final Map<String, Chunk> declared = new LinkedHashMap<>();
+        int position = 0;
+
+        try {
+            while (true) {
+                final Optional<Instruction> next = disassembler.next();
+
+                if (!next.isPresent()) {
+                    break;
+                }
+
+                final Instruction instruction = next.get();
+                final Operand[] operands = instruction.getOperands();
+
+                if (total > 0) {
+                    out.printf("%14d %6.2f%% %08x %-22s %s%s%n",
+                        counters[position],
+                        counters[position] * 100.0D / total,
+                        position,
+                        instruction.getOperation(),
+                        Arrays.stream(operands)
+                            .map(operand -> operand.getValue() instanceof Chunk ? "<chunk>" : operand.toDisplayString())
+                            .collect(Collectors.joining(" ")),
+                        instruction.getOperation().isJump()
+                            ? String.format(" (-> %08x)", position + instruction.getSize() + operands[0].getImm16())
+                            : "");
+                }
+
+                if (instruction.getOperation() == Operation.MAKE_FUNCTION || instruction.getOperation() == Operation.MAKE_CLASS) {
+                    declared.put((String) operands[0].getValue(), (Chunk) operands[1].getValue());
+                }
+
+                position += instruction.getSize();
+            }
+        } catch (Disassembler.DisassemblerException e) {
+            out.println("Cannot disassemble chunk '" + name + "': " + e.getMessage());
+        }
+
+        for (Map.Entry<String, Chunk> entry : declared.entrySet()) {
+            printChunk(module, module + '/' + entry.getKey(), entry.getValue(), out);
+        }
+    }
+}
@@ -20,7 +20,7 @@ import java.util.zip.CRC32;
 
 public class ModuleSerializer {
     // @formatter:off
-    public static final int FILE_VERSION        = 3;
+    public static final int FILE_VERSION        = 9;
     public static final int FILE_SIGNATURE      = ('A' << 24) | ('S' << 16) | ('H' << 8) | (FILE_VERSION & 0xff);
 
     public static final byte CONSTANT_NONE      = 1;
@@ -32,7 +32,6 @@ public class ModuleSerializer {
     // @formatter:on
 
     private static final Logger LOG = Logger.getLogger(ModuleSerializer.class.getName());
-    private static Map<String, AttributeDescriptor<?>> availableAttributeDescriptors;
 
     private ModuleSerializer() {
     }
@@ -56,6 +55,7 @@ public class ModuleSerializer {
         os.writeByte(chunk.getArguments());
         os.writeByte(chunk.getBoundArguments());
         os.writeByte(chunk.getLocals());
+        os.writeShort(chunk.getMaxStack());
 
         os.writeInt(chunk.getCode().length);
         os.write(chunk.getCode());
@@ -161,6 +161,7 @@ public class ModuleSerializer {
         final byte arguments = is.readByte();
         final byte boundArguments = is.readByte();
         final byte locals = is.readByte();
+        final short maxStack = is.readShort();
 
         final byte[] code = new byte[is.readInt()];
         if (is.read(code) != code.length) {
@@ -223,7 +224,7 @@ public class ModuleSerializer {
             }
         }
 
-        return new Chunk(
+        final Chunk chunk = new Chunk(
             code,
             constants,
             guards,
@@ -231,8 +232,13 @@ public class ModuleSerializer {
             arguments,
             boundArguments,
             locals,
+            maxStack,
             attributes.toArray(new Attribute[0])
         );
+
+        chunk.materializeConstants();
+
+        return chunk;
     }
 
     @NotNull
@@ -259,22 +265,34 @@ public class ModuleSerializer {
 
     @NotNull
     public static Map<String, AttributeDescriptor<?>> availableAttributeDescriptors() {
-        if (availableAttributeDescriptors == null) {
-            availableAttributeDescriptors = new HashMap<>();
+        return AttributeDescriptors.INSTANCE;
+    }
+
+    /**
+     * Holds descriptors of all available attributes. They are looked up
+     * once, when the class is initialized, which also makes them
+     * safe to use from machines running on different threads.
+     */
+    private static final class AttributeDescriptors {
+        private static final Map<String, AttributeDescriptor<?>> INSTANCE = Collections.unmodifiableMap(load());
+
+        @NotNull
+        private static Map<String, AttributeDescriptor<?>> load() {
+            final Map<String, AttributeDescriptor<?>> descriptors = new HashMap<>();
             for (AttributeProvider provider : ServiceLoader.load(AttributeProvider.class)) {
                 final Iterator<AttributeDescriptor<?>> iterator = provider.attributes();
                 while (iterator.hasNext()) {
                     final AttributeDescriptor<?> descriptor = iterator.next();
                     final String name = descriptor.getName();
-                    if (availableAttributeDescriptors.containsKey(name)) {
+                    if (descriptors.containsKey(name)) {
                         LOG.severe(() -> "Duplicated descriptor for attribute '" + name + "': " + descriptor.getClass().getName());
                         continue;
                     }
-                    availableAttributeDescriptors.put(name, descriptor);
+                    descriptors.put(name, descriptor);
                 }
             }
+            return descriptors;
         }
-        return Collections.unmodifiableMap(availableAttributeDescriptors);
     }
 
     public static class DebugAttributeProvider implements AttributeProvider {
@@ -14,6 +14,7 @@ public class LineNumberTableAttribute implements Attribute<LineNumberTableAttrib
     public static final Descriptor DESCRIPTOR = new Descriptor();
 
     private final Map<Integer, Location> locations;
+    private volatile Index index;
 
     public LineNumberTableAttribute(@NotNull Map<Integer, Location> locations) {
         this.locations = locations;
@@ -34,6 +35,40 @@ public class LineNumberTableAttribute implements Attribute<LineNumberTableAttrib
         return locations.get(position);
     }
 
+    /**
+     * Finds location information for the closest address that precedes or
+     * equals the specified one. Unlike {@link #getLocationByAddress(int)},
+     * it works for any address, not only for those that start a statement.
+     *
+     * @param position compiled code position
+     * @return location that consists of <code>line-row</code> pair or <code>null</code> if not present
+     */
+    @Nullable
+    public Location getNearestLocation(int position) {
+        Index index = this.index;
+
+        if (index == null) {
+            index = this.index = new Index(locations);
+        }
+
+        int low = 0;
+        int high = index.addresses.length - 1;
+        Location result = null;
+
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+
+            if (index.addresses[middle] <= position) {
+                result = index.locations[middle];
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Finds location information for specified line number inside source code.
      *
@@ -76,6 +111,20 @@ public class LineNumberTableAttribute implements Attribute<LineNumberTableAttrib
         }
     }
 
+    private static class Index {
+        private final int[] addresses;
+        private final Location[] locations;
+
+        Index(@NotNull Map<Integer, Location> locations) {
+            this.addresses = locations.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            this.locations = new Location[addresses.length];
+
+            for (int index = 0; index < addresses.length; index++) {
+                this.locations[index] = locations.get(addresses[index]);
+            }
+        }
+    }
+
     private static class Descriptor implements AttributeDescriptor<LineNumberTableAttribute> {
         @Override
         public LineNumberTableAttribute load(@NotNull DataInputStream is) throws IOException {
@@ -0,0 +1,43 @@
+package com.shade.lang.util;
+
+import com.shade.lang.util.annotations.NotNull;
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+
+/**
+ * Defines classes generated at runtime, such as bridges of native
+ * functions and compiled chunks.
+ * <p>
+ * Classes are defined as anonymous classes of their host, so they can
+ * access everything their host can and are unloaded once unreachable.
+ */
+public final class ClassDefiner {
+    private static final Unsafe UNSAFE = getUnsafe();
+
+    private ClassDefiner() {
+    }
+
+    /**
+     * Defines an anonymous class from the supplied {@code bytes}.
+     *
+     * @param host  class whose access rights and class loader the defined class shares
+     * @param bytes bytes of the class file
+     * @return defined class
+     */
+    @NotNull
+    public static Class<?> defineAnonymousClass(@NotNull Class<?> host, @NotNull byte[] bytes) {
+        return UNSAFE.defineAnonymousClass(host, bytes, null);
+    }
+
+    @NotNull
+    private static Unsafe getUnsafe() {
+        try {
+            final Field instanceField = Unsafe.class.getDeclaredField("theUnsafe");
+            instanceField.setAccessible(true);
+            return (Unsafe) instanceField.get(null);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot obtain sun.misc.Unsafe", e);
+        }
+    }
+}
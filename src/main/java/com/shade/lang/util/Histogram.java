@@ -0,0 +1,150 @@
+package com.shade.lang.util;
+
+import com.shade.lang.util.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of non-negative values, such as latencies in nanoseconds.
+ * <p>
+ * Values are counted in logarithmic buckets: each power of two is split into
+ * {@link #SUB_BUCKETS} buckets of equal width, so that a value reported by
+ * {@link #getPercentile(double)} is within 12.5% of the recorded one.
+ * Values below {@link #SUB_BUCKETS} are counted exactly.
+ * <p>
+ * Recording never allocates. This class is not synchronized.
+ */
+public class Histogram {
+    public static final int SUB_BUCKETS = 8;
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public Histogram() {
+    }
+
+    public Histogram(@NotNull Histogram other) {
+        add(other);
+    }
+
+    /**
+     * Records a single {@code value}. Negative values are recorded as zero.
+     *
+     * @param value value to record
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+
+        if (value < min) {
+            min = value;
+        }
+
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Adds all values recorded by the {@code other} histogram to this one.
+     *
+     * @param other histogram to add
+     */
+    public void add(@NotNull Histogram other) {
+        for (int index = 0; index < BUCKETS; index++) {
+            counts[index] += other.counts[index];
+        }
+
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Returns an estimate of the value below which the specified
+     * {@code percentile} of recorded values fall.
+     *
+     * @param percentile percentile between {@code 0} and {@code 100}
+     * @return upper bound of the bucket holding the percentile, or {@code 0} if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += counts[index];
+
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, upperBoundOf(index)));
+            }
+        }
+
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMin() {
+        return count > 0 ? min : 0;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count > 0 ? (double) sum / count : 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS | mantissa;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        final long lower = (long) (SUB_BUCKETS | index & (SUB_BUCKETS - 1)) << shift;
+
+        return lower + (1L << shift) - 1;
+    }
+}
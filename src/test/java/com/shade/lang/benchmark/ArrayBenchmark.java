@@ -0,0 +1,19 @@
+package com.shade.lang.benchmark;
+
+import com.shade.lang.runtime.Machine;
+
+/**
+ * Compares filling and summing an array of boxed values with an array
+ * backed by primitive integers, and bulk operations on the latter.
+ */
+public class ArrayBenchmark {
+    private static final int COUNT = 1_000_000;
+
+    public static void main(String[] args) {
+        final Machine machine = Benchmark.createMachine("arrays");
+
+        Benchmark.run("array/boxed", () -> Benchmark.call(machine, "arrays", "boxed", COUNT));
+        Benchmark.run("array/primitive", () -> Benchmark.call(machine, "arrays", "primitive", COUNT));
+        Benchmark.run("array/bulk", () -> Benchmark.call(machine, "arrays", "bulk", COUNT));
+    }
+}
@@ -0,0 +1,97 @@
+package com.shade.lang.benchmark;
+
+import com.shade.lang.runtime.CodeCache;
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.objects.module.NativeModuleProvider;
+import com.shade.lang.util.annotations.NotNull;
+
+import java.nio.file.Paths;
+import java.util.ServiceLoader;
+
+/**
+ * Minimal harness for benchmarks that run scripts from {@code src/test/resources/benchmark}.
+ * <p>
+ * Each benchmark is run for a number of warm-up iterations, so that
+ * hot functions get compiled, followed by measured iterations.
+ */
+public final class Benchmark {
+    public static final int WARMUP_ITERATIONS = Integer.getInteger("ash.benchmark.warmup", 5);
+    public static final int MEASURE_ITERATIONS = Integer.getInteger("ash.benchmark.iterations", 10);
+
+    private Benchmark() {
+    }
+
+    /**
+     * Creates a new machine that can load both standard and benchmark modules.
+     *
+     * @param module name of the benchmark module to load
+     * @return machine with loaded module
+     */
+    @NotNull
+    public static Machine createMachine(@NotNull String module) {
+        return createMachine(module, new CodeCache());
+    }
+
+    /**
+     * Creates a new machine that can load both standard and benchmark
+     * modules and shares compiled modules through {@code codeCache}.
+     *
+     * @param module    name of the benchmark module to load
+     * @param codeCache cache of compiled modules
+     * @return machine with loaded module
+     */
+    @NotNull
+    public static Machine createMachine(@NotNull String module, @NotNull CodeCache codeCache) {
+        final Machine machine = new Machine(codeCache);
+        machine.getSearchRoots().add(Paths.get("src/main/resources"));
+        machine.getSearchRoots().add(Paths.get("src/test/resources/benchmark"));
+
+        for (NativeModuleProvider provider : ServiceLoader.load(NativeModuleProvider.class)) {
+            machine.load(provider.create(machine));
+        }
+
+        machine.load(module);
+
+        if (machine.isHalted()) {
+            throw new IllegalStateException("Cannot load benchmark module '" + module + "'");
+        }
+
+        return machine;
+    }
+
+    /**
+     * Runs the supplied {@code body} and prints the time spent per iteration.
+     *
+     * @param name name of the benchmark
+     * @param body code to measure
+     */
+    public static void run(@NotNull String name, @NotNull Runnable body) {
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+            body.run();
+        }
+
+        long min = Long.MAX_VALUE;
+        long total = 0;
+
+        for (int iteration = 0; iteration < MEASURE_ITERATIONS; iteration++) {
+            final long start = System.nanoTime();
+            body.run();
+            final long elapsed = System.nanoTime() - start;
+            min = Math.min(min, elapsed);
+            total += elapsed;
+        }
+
+        System.out.printf("%-24s avg: %8.3fms, min: %8.3fms%n", name, total / 1e6D / MEASURE_ITERATIONS, min / 1e6D);
+    }
+
+    /**
+     * Calls the supplied function of a benchmark module and fails if machine panics.
+     */
+    public static void call(@NotNull Machine machine, @NotNull String module, @NotNull String function, Object... args) {
+        machine.call(module, function, args);
+
+        if (machine.isHalted()) {
+            throw new IllegalStateException("Benchmark '" + module + "/" + function + "' has failed");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.shade.lang.benchmark;
+
+import com.shade.lang.runtime.Machine;
+
+/**
+ * Compares lookups in a dictionary with linear lookups in a list
+ * of key-value pairs. The latter is quadratic, so it's measured
+ * on a much smaller amount of keys.
+ */
+public class DictBenchmark {
+    private static final int COUNT = 100_000;
+    private static final int PAIRS_COUNT = 1_000;
+
+    public static void main(String[] args) {
+        final Machine machine = Benchmark.createMachine("dicts");
+
+        Benchmark.run("dict/insert", () -> Benchmark.call(machine, "dicts", "insert", COUNT));
+        Benchmark.run("dict/lookup", () -> Benchmark.call(machine, "dicts", "lookup", COUNT));
+        Benchmark.run("dict/lookup-1k", () -> Benchmark.call(machine, "dicts", "lookup", PAIRS_COUNT));
+        Benchmark.run("pairs/lookup-1k", () -> Benchmark.call(machine, "dicts", "pairs", PAIRS_COUNT));
+    }
+}
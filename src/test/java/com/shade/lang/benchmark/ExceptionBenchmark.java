@@ -0,0 +1,21 @@
+package com.shade.lang.benchmark;
+
+import com.shade.lang.runtime.Machine;
+
+/**
+ * Measures throughput of panics that are immediately recovered: explicit
+ * throws, operator errors whose messages are never observed, nested guards
+ * and unwinding through several frames.
+ */
+public class ExceptionBenchmark {
+    private static final int COUNT = 100_000;
+
+    public static void main(String[] args) {
+        final Machine machine = Benchmark.createMachine("exceptions");
+
+        Benchmark.run("exceptions/throw", () -> Benchmark.call(machine, "exceptions", "thrown", COUNT));
+        Benchmark.run("exceptions/operator", () -> Benchmark.call(machine, "exceptions", "operator", COUNT));
+        Benchmark.run("exceptions/nested", () -> Benchmark.call(machine, "exceptions", "nested", COUNT));
+        Benchmark.run("exceptions/unwind", () -> Benchmark.call(machine, "exceptions", "unwind", COUNT / 10));
+    }
+}
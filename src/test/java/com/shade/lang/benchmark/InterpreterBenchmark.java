@@ -0,0 +1,23 @@
+package com.shade.lang.benchmark;
+
+import com.shade.lang.runtime.Machine;
+
+/**
+ * Measures the interpreter core on calls, attribute accesses and branches.
+ * <p>
+ * Compilation of hot functions into JVM classes is disabled
+ * unless {@code ash.jit.enable} is set explicitly.
+ */
+public class InterpreterBenchmark {
+    public static void main(String[] args) {
+        if (System.getProperty("ash.jit.enable") == null) {
+            System.setProperty("ash.jit.enable", "false");
+        }
+
+        final Machine machine = Benchmark.createMachine("interpreter");
+
+        Benchmark.run("interpreter/fibonacci", () -> Benchmark.call(machine, "interpreter", "fibonacci", 24));
+        Benchmark.run("interpreter/points", () -> Benchmark.call(machine, "interpreter", "points", 100_000));
+        Benchmark.run("interpreter/branches", () -> Benchmark.call(machine, "interpreter", "branches", 500_000));
+    }
+}
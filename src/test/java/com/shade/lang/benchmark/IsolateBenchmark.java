@@ -0,0 +1,69 @@
+package com.shade.lang.benchmark;
+
+import com.shade.lang.runtime.CodeCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures throughput of independent machines running in parallel.
+ * <p>
+ * Every request creates a new machine that shares compiled modules with
+ * all other machines through a single {@link CodeCache}, loads the
+ * benchmark module and calls a function of it. The same amount of
+ * requests is served by a growing number of threads, up to the
+ * number of available processors or {@code ash.benchmark.threads}.
+ */
+public class IsolateBenchmark {
+    private static final int REQUESTS = Integer.getInteger("ash.benchmark.requests", 2000);
+
+    public static void main(String[] args) throws Exception {
+        final CodeCache codeCache = new CodeCache();
+        final int processors = Integer.getInteger("ash.benchmark.threads", Runtime.getRuntime().availableProcessors());
+
+        serve(codeCache, processors, REQUESTS);
+
+        double baseline = 0;
+
+        for (int threads = 1; ; threads = Math.min(threads << 1, processors)) {
+            final long start = System.nanoTime();
+            serve(codeCache, threads, REQUESTS);
+            final long elapsed = System.nanoTime() - start;
+
+            final double throughput = REQUESTS / (elapsed / 1e9D);
+
+            if (threads == 1) {
+                baseline = throughput;
+            }
+
+            System.out.printf("isolate/%-16s %10.1f req/s, speedup: %5.2fx%n", threads + " threads", throughput, throughput / baseline);
+
+            if (threads == processors) {
+                break;
+            }
+        }
+    }
+
+    private static void serve(CodeCache codeCache, int threads, int requests) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            final List<Future<?>> futures = new ArrayList<>(requests);
+
+            for (int request = 0; request < requests; request++) {
+                futures.add(executor.submit(() -> {
+                    Benchmark.call(Benchmark.createMachine("interpreter", codeCache), "interpreter", "points", 1000);
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.shade.lang.benchmark;
+
+import com.shade.lang.runtime.Machine;
+
+/**
+ * Compares building lists by appending to a growable list with
+ * copying a fixed-size array on every element. The latter is
+ * quadratic, so it's measured on a much smaller amount of elements.
+ */
+public class ListBenchmark {
+    private static final int COUNT = 1_000_000;
+    private static final int COPY_COUNT = 10_000;
+
+    public static void main(String[] args) {
+        final Machine machine = Benchmark.createMachine("lists");
+
+        Benchmark.run("list/append", () -> Benchmark.call(machine, "lists", "append", COUNT));
+        Benchmark.run("list/sum", () -> Benchmark.call(machine, "lists", "sum", COUNT));
+        Benchmark.run("list/append-10k", () -> Benchmark.call(machine, "lists", "append", COPY_COUNT));
+        Benchmark.run("array/copy-10k", () -> Benchmark.call(machine, "lists", "copy", COPY_COUNT));
+    }
+}
@@ -0,0 +1,19 @@
+package com.shade.lang.benchmark;
+
+import com.shade.lang.runtime.Machine;
+
+/**
+ * Compares counted {@code for} loops with loops driven by
+ * the iterator protocol of the {@code range} standard module.
+ */
+public class RangeBenchmark {
+    private static final int COUNT = 1_000_000;
+
+    public static void main(String[] args) {
+        final Machine machine = Benchmark.createMachine("loops");
+
+        Benchmark.run("range/counted", () -> Benchmark.call(machine, "loops", "counted", COUNT));
+        Benchmark.run("range/iterator", () -> Benchmark.call(machine, "loops", "iterator", COUNT));
+        Benchmark.run("range/while", () -> Benchmark.call(machine, "loops", "manual", COUNT));
+    }
+}
@@ -0,0 +1,40 @@
+package com.shade.lang.benchmark;
+
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.Sampler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures overhead of the sampling profiler by running the interpreter
+ * benchmark without sampling and with sampling at the default interval.
+ * <p>
+ * The interval can be overridden with {@code ash.sampler.interval}, in milliseconds.
+ * Compilation of hot functions into JVM classes is disabled
+ * unless {@code ash.jit.enable} is set explicitly.
+ */
+public class SamplerBenchmark {
+    private static final long INTERVAL = Long.getLong("ash.sampler.interval", Sampler.DEFAULT_INTERVAL_MILLIS);
+
+    public static void main(String[] args) {
+        if (System.getProperty("ash.jit.enable") == null) {
+            System.setProperty("ash.jit.enable", "false");
+        }
+
+        final Machine machine = Benchmark.createMachine("interpreter");
+
+        run(machine, "sampler/off");
+        final Sampler sampler = machine.startSampling(INTERVAL, TimeUnit.MILLISECONDS);
+        run(machine, "sampler/on");
+        machine.stopSampling();
+        run(machine, "sampler/off");
+
+        System.out.printf("%d sample(-s) of %d unique stack(-s)%n", sampler.getSamples(), sampler.getCollapsedStacks().split("\n").length);
+    }
+
+    private static void run(Machine machine, String name) {
+        Benchmark.run(name + "/fibonacci", () -> Benchmark.call(machine, "interpreter", "fibonacci", 24));
+        Benchmark.run(name + "/points", () -> Benchmark.call(machine, "interpreter", "points", 100_000));
+        Benchmark.run(name + "/branches", () -> Benchmark.call(machine, "interpreter", "branches", 500_000));
+    }
+}
@@ -0,0 +1,22 @@
+package com.shade.lang.benchmark;
+
+import com.shade.lang.runtime.Machine;
+
+/**
+ * Measures repeated string concatenation, interpolation, character
+ * access, and parsing of a long json string literal that is built
+ * character by character.
+ */
+public class StringBenchmark {
+    private static final int COUNT = 100_000;
+    private static final int JSON_COUNT = 2_000;
+
+    public static void main(String[] args) {
+        final Machine machine = Benchmark.createMachine("strings");
+
+        Benchmark.run("string/append", () -> Benchmark.call(machine, "strings", "append", COUNT));
+        Benchmark.run("string/interpolate", () -> Benchmark.call(machine, "strings", "interpolate", COUNT));
+        Benchmark.run("string/index", () -> Benchmark.call(machine, "strings", "index", COUNT));
+        Benchmark.run("string/json", () -> Benchmark.call(machine, "strings", "parse_json", JSON_COUNT));
+    }
+}
@@ -1,17 +1,21 @@
 package com.shade.lang.test;
 
 import com.shade.lang.compiler.assembler.Assembler;
+import com.shade.lang.compiler.assembler.Operand;
+import com.shade.lang.compiler.assembler.Operation;
 import com.shade.lang.compiler.parser.ScriptException;
 import com.shade.lang.compiler.parser.node.Node;
 import com.shade.lang.compiler.parser.node.context.Context;
-import com.shade.lang.compiler.parser.node.expr.BinaryExpression;
-import com.shade.lang.compiler.parser.node.expr.LoadConstantExpression;
-import com.shade.lang.compiler.parser.node.expr.UnaryExpression;
+import com.shade.lang.compiler.parser.node.expr.*;
 import com.shade.lang.compiler.parser.node.stmt.*;
 import com.shade.lang.compiler.parser.token.Region;
 import com.shade.lang.compiler.parser.token.TokenKind;
+import com.shade.lang.runtime.objects.Chunk;
+import com.shade.lang.runtime.objects.function.Guard;
 import com.shade.lang.runtime.objects.module.Module;
+import com.shade.lang.tool.serialization.attributes.Attribute;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 import java.io.PrintWriter;
@@ -36,6 +40,28 @@ public class AssemblerTest {
         });
     }
 
+    @Test
+    public void testDecodedCode() {
+        Chunk chunk = new Chunk(new byte[]{
+            OP_PUSH, (byte) 0x80, 0x01,
+            OP_JUMP, (byte) 0xff, (byte) 0xfa,
+            OP_CALL_METHOD, 0x00, 0x02, 0x03,
+            OP_RETURN
+        }, new Object[0], new Guard[0], (byte) 0, (byte) 0, (byte) 0, (byte) 0, (short) 0, new Attribute[0]);
+
+        Assert.assertArrayEquals(chunk.getDecodedCode(), new int[]{
+            OP_PUSH, 0x8001, 0,
+            OP_JUMP, -6, 0,
+            OP_CALL_METHOD, 2, 3, 0,
+            OP_RETURN
+        });
+
+        chunk.setOpcode(10, OP_POP);
+
+        Assert.assertEquals(OP_POP, chunk.getCode()[10]);
+        Assert.assertEquals(OP_POP, chunk.getDecodedCode()[10]);
+    }
+
     @Test
     public void testBinOp() throws ScriptException {
         ByteBuffer result = compile(new BinaryExpression(
@@ -67,6 +93,21 @@ public class AssemblerTest {
         });
     }
 
+    @Test
+    public void testTailCall() throws ScriptException {
+        ByteBuffer result = compile(new ReturnStatement(
+            new CallExpression(new LoadConstantExpression<>(1, region), Collections.singletonList(new LoadConstantExpression<>(2, region)), region),
+            region
+        ));
+
+        Assert.assertArrayEquals(result.array(), new byte[]{
+            OP_PUSH, 0x00, 0x00,
+            OP_PUSH, 0x00, 0x01,
+            OP_TAIL_CALL, 0x01,
+            OP_RETURN
+        });
+    }
+
     @Test
     public void testReturn() throws ScriptException {
         ByteBuffer result = compile(new ReturnStatement(
@@ -150,6 +191,41 @@ public class AssemblerTest {
         });
     }
 
+    @Test
+    public void testMethodCall() throws ScriptException {
+        Assembler result = assemble(context, new CallExpression(
+            new LoadAttributeExpression(new LoadConstantExpression<>("abc", region), "def", region),
+            Collections.singletonList(new LoadConstantExpression<>(1, region)),
+            region
+        ));
+        Assert.assertEquals(Arrays.asList(1, "abc", "def"), result.getConstants());
+        Assert.assertArrayEquals(result.assemble().array(), new byte[]{
+            OP_PUSH, 0x00, 0x00,
+            OP_PUSH, 0x00, 0x01,
+            OP_CALL_METHOD, 0x00, 0x02, 0x01
+        });
+    }
+
+    @Test
+    public void testSuperinstructions() {
+        Assume.assumeTrue(Assembler.ENABLE_SUPERINSTRUCTIONS);
+
+        Assembler result = new Assembler();
+        result.emit(Operation.GET_LOCAL, Operand.imm8(0));
+        result.emit(Operation.GET_LOCAL, Operand.imm8(1));
+        result.emit(Operation.GET_LOCAL, Operand.imm8(2));
+        result.getPosition();
+        result.emit(Operation.PUSH, Operand.constant("abc"));
+        result.emit(Operation.GET_LOCAL, Operand.imm8(3));
+        result.emit(Operation.GET_ATTRIBUTE, Operand.constant("def"));
+        Assert.assertArrayEquals(result.assemble().array(), new byte[]{
+            OP_GET_LOCAL2, 0x00, 0x01,
+            OP_GET_LOCAL, 0x02,
+            OP_PUSH, 0x00, 0x00,
+            OP_GET_LOCAL_ATTRIBUTE, 0x03, 0x00, 0x01
+        });
+    }
+
     private Assembler assemble(Context context, Node node) throws ScriptException {
         Assembler assembler = new Assembler();
         node.compile(context, assembler);
@@ -0,0 +1,45 @@
+package com.shade.lang.test;
+
+import com.shade.lang.compiler.assembler.Operand;
+import com.shade.lang.runtime.objects.Chunk;
+import com.shade.lang.runtime.objects.function.Guard;
+import com.shade.lang.tool.serialization.attributes.Attribute;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GuardTest {
+    @Test
+    public void testNestedGuards() {
+        final Guard outer = new Guard(0, 100, 200, Operand.UNDEFINED);
+        final Guard first = new Guard(10, 20, 30, Operand.UNDEFINED);
+        final Guard second = new Guard(40, 80, 90, Operand.UNDEFINED);
+        final Guard innermost = new Guard(50, 60, 70, Operand.UNDEFINED);
+        final Chunk chunk = createChunk(innermost, first, second, outer);
+
+        Assert.assertNull(chunk.findGuard(0));
+        Assert.assertSame(outer, chunk.findGuard(1));
+        Assert.assertSame(first, chunk.findGuard(11));
+        Assert.assertSame(first, chunk.findGuard(20));
+        Assert.assertSame(outer, chunk.findGuard(21));
+        Assert.assertSame(second, chunk.findGuard(41));
+        Assert.assertSame(innermost, chunk.findGuard(60));
+        Assert.assertSame(second, chunk.findGuard(61));
+        Assert.assertSame(outer, chunk.findGuard(85));
+        Assert.assertNull(chunk.findGuard(101));
+    }
+
+    @Test
+    public void testGuardsWithSameStart() {
+        final Guard recover = new Guard(0, 10, 20, 0);
+        final Guard clean = new Guard(0, 30, 40, 1);
+        final Chunk chunk = createChunk(recover, clean);
+
+        Assert.assertSame(recover, chunk.findGuard(5));
+        Assert.assertSame(clean, chunk.findGuard(15));
+        Assert.assertNull(chunk.findGuard(31));
+    }
+
+    private static Chunk createChunk(Guard... guards) {
+        return new Chunk(new byte[0], new Object[0], guards, (byte) 0, (byte) 0, (byte) 0, (byte) 0, (short) 0, new Attribute<?>[0]);
+    }
+}
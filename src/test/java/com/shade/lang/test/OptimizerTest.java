@@ -3,7 +3,9 @@ package com.shade.lang.test;
 import com.shade.lang.compiler.optimizer.Optimizer;
 import com.shade.lang.compiler.parser.node.Node;
 import com.shade.lang.compiler.parser.node.expr.BinaryExpression;
+import com.shade.lang.compiler.parser.node.expr.ConcatExpression;
 import com.shade.lang.compiler.parser.node.expr.LoadConstantExpression;
+import com.shade.lang.compiler.parser.node.expr.LoadSymbolExpression;
 import com.shade.lang.compiler.parser.node.expr.LogicalExpression;
 import com.shade.lang.compiler.parser.node.expr.UnaryExpression;
 import com.shade.lang.compiler.parser.node.stmt.BlockStatement;
@@ -128,6 +130,41 @@ public class OptimizerTest {
         );
     }
 
+    @Test
+    public void testConcatFolding() {
+        assertOptimized(
+            new LoadConstantExpression<>("abc", region),
+            new ConcatExpression(
+                Arrays.asList(
+                    new LoadConstantExpression<>("a", region),
+                    new LoadConstantExpression<>("b", region),
+                    new LoadConstantExpression<>("c", region)
+                ),
+                region
+            )
+        );
+
+        assertOptimized(
+            new ConcatExpression(
+                Arrays.asList(
+                    new LoadConstantExpression<>("ab", region),
+                    new LoadSymbolExpression("x", region),
+                    new LoadConstantExpression<>("c", region)
+                ),
+                region
+            ),
+            new ConcatExpression(
+                Arrays.asList(
+                    new LoadConstantExpression<>("a", region),
+                    new LoadConstantExpression<>("b", region),
+                    new LoadSymbolExpression("x", region),
+                    new LoadConstantExpression<>("c", region)
+                ),
+                region
+            )
+        );
+    }
+
     private void assertOptimized(Node expected, Node actual) {
         Node optimized = new Optimizer(Integer.MAX_VALUE).optimize(actual, OPTIMIZER_PASSES_COUNT);
         Assert.assertEquals(expected, optimized);
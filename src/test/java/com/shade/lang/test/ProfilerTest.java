@@ -0,0 +1,60 @@
+package com.shade.lang.test;
+
+import com.shade.lang.runtime.Profiler;
+import com.shade.lang.runtime.frames.Frame;
+import com.shade.lang.runtime.frames.NativeFrame;
+import com.shade.lang.runtime.objects.function.NativeFunction;
+import com.shade.lang.runtime.objects.module.Module;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProfilerTest {
+    private final Module module = new Module("test", "<test>");
+    private final NativeFunction outer = new NativeFunction(module, "outer", (byte) 0, (byte) 0, (machine, args) -> null);
+    private final NativeFunction inner = new NativeFunction(module, "inner", (byte) 0, (byte) 0, (machine, args) -> null);
+
+    @Test
+    public void testSelfAndTotalTime() {
+        final Profiler profiler = new Profiler();
+        final Frame outerFrame = new NativeFrame(module, outer, 0);
+        final Frame recursiveFrame = new NativeFrame(module, outer, 0);
+        final Frame innerFrame = new NativeFrame(module, inner, 0);
+
+        profiler.begin(outerFrame);
+        profiler.begin(recursiveFrame);
+        profiler.begin(innerFrame);
+        profiler.end(innerFrame);
+        profiler.end(recursiveFrame);
+        profiler.end(outerFrame);
+
+        Assert.assertEquals(2, profiler.getEntries().size());
+
+        final Profiler.Entry outerEntry = profiler.getEntries().get(0);
+        final Profiler.Entry innerEntry = profiler.getEntries().get(1);
+
+        Assert.assertSame(outer, outerEntry.getFunction());
+        Assert.assertEquals(2, outerEntry.getCalls());
+        Assert.assertEquals(2, outerEntry.getHistogram().getCount());
+        Assert.assertEquals(outerEntry.getTotalTime(), outerEntry.getSelfTime() + innerEntry.getTotalTime());
+        Assert.assertTrue(outerEntry.getHistogram().getMax() <= outerEntry.getTotalTime());
+
+        Assert.assertSame(inner, innerEntry.getFunction());
+        Assert.assertEquals(1, innerEntry.getCalls());
+        Assert.assertEquals(innerEntry.getTotalTime(), innerEntry.getSelfTime());
+    }
+
+    @Test
+    public void testUnwoundFrames() {
+        final Profiler profiler = new Profiler();
+        final Frame outerFrame = new NativeFrame(module, outer, 0);
+        final Frame innerFrame = new NativeFrame(module, inner, 0);
+
+        profiler.begin(outerFrame);
+        profiler.begin(innerFrame);
+        profiler.end(outerFrame);
+        profiler.end(innerFrame);
+
+        Assert.assertEquals(1, profiler.getEntries().get(0).getCalls());
+        Assert.assertEquals(1, profiler.getEntries().get(1).getCalls());
+    }
+}
@@ -0,0 +1,34 @@
+package com.shade.lang.test;
+
+import com.shade.lang.runtime.Machine;
+import com.shade.lang.runtime.Sampler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+public class SamplerTest {
+    @Test
+    public void testCollapsedStacks() {
+        final Machine machine = new Machine();
+        machine.getSearchRoots().add(Paths.get("src/test/resources/benchmark"));
+        machine.load("interpreter");
+
+        final Sampler sampler = machine.startSampling(1, TimeUnit.MILLISECONDS);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (sampler.getSamples() == 0 && System.nanoTime() < deadline) {
+            machine.call("interpreter", "fibonacci", 20);
+        }
+
+        Assert.assertSame(sampler, machine.stopSampling());
+        Assert.assertNull(machine.getSampler());
+        Assert.assertFalse(sampler.isRunning());
+        Assert.assertTrue(sampler.getSamples() > 0);
+
+        for (String line : sampler.getCollapsedStacks().split("\n")) {
+            Assert.assertTrue(line, line.matches("interpreter/fib:\\d+(;interpreter/fib:\\d+)* \\d+"));
+        }
+    }
+}
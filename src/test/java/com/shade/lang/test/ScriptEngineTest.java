@@ -0,0 +1,146 @@
+package com.shade.lang.test;
+
+import com.shade.lang.engine.CallHandle;
+import com.shade.lang.engine.ScriptEngine;
+import com.shade.lang.engine.ScriptEngineException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ScriptEngineTest {
+    private ScriptEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new ScriptEngine(
+            Arrays.asList(Paths.get("src/main/resources"), Paths.get("src/test/resources/benchmark")),
+            Collections.singletonList("interpreter"),
+            2,
+            16
+        );
+    }
+
+    @After
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    public void testTypedCall() {
+        final CallHandle<Integer> handle = engine.lookup("interpreter", "fibonacci", Integer.class, int.class);
+
+        Assert.assertEquals(Integer.valueOf(55), handle.invoke(10));
+        Assert.assertEquals(Integer.valueOf(6765), handle.invoke(20));
+        Assert.assertEquals(2, handle.getMetrics().getCompleted());
+        Assert.assertThrows(IllegalArgumentException.class, () -> handle.invoke("10"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> handle.invoke(1, 2));
+    }
+
+    @Test
+    public void testConcurrentCalls() throws Exception {
+        final CallHandle<Integer> handle = engine.lookup("interpreter", "fibonacci", Integer.class, int.class);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+
+            for (int index = 0; index < 64; index++) {
+                futures.add(executor.submit(() -> handle.invoke(15)));
+            }
+
+            for (Future<Integer> future : futures) {
+                Assert.assertEquals(Integer.valueOf(610), future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(64, handle.getMetrics().getCompleted());
+        Assert.assertEquals(0, handle.getMetrics().getFailed());
+    }
+
+    @Test
+    public void testPanicReplacesMachine() {
+        final CallHandle<Object> handle = engine.lookup("interpreter", "fibonacci");
+
+        for (int index = 0; index < 4; index++) {
+            Assert.assertThrows(ScriptEngineException.class, () -> handle.invoke("text"));
+        }
+
+        Assert.assertEquals(4, handle.getMetrics().getFailed());
+        Assert.assertEquals(55, handle.invoke(10));
+    }
+
+    @Test
+    public void testLostMachinesFailFast() throws Exception {
+        final Path root = Files.createTempDirectory("engine");
+        final Path source = Files.write(root.resolve("decrement.ash"), "def decrement(x) { return x - 1; }".getBytes());
+
+        try (ScriptEngine engine = new ScriptEngine(Collections.singletonList(root), Collections.singletonList("decrement"), 1, 4)) {
+            final CallHandle<Object> handle = engine.lookup("decrement", "decrement");
+
+            Assert.assertEquals(9, handle.invoke(10));
+
+            /* Machine can no longer be replaced once its module is gone */
+            Files.delete(source);
+
+            Assert.assertThrows(ScriptEngineException.class, () -> handle.invoke("text"));
+            Assert.assertThrows(ScriptEngineException.class, () -> handle.invoke(10));
+        } finally {
+            Files.walk(root).map(Path::toFile).sorted((a, b) -> b.compareTo(a)).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testCloseFailsPendingCalls() throws Exception {
+        final CallHandle<Integer> handle = engine.lookup("interpreter", "fibonacci", Integer.class, int.class);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+
+            for (int index = 0; index < 3; index++) {
+                futures.add(executor.submit(() -> handle.invoke(25)));
+            }
+
+            engine.close();
+
+            int failed = 0;
+
+            for (Future<Integer> future : futures) {
+                try {
+                    Assert.assertEquals(Integer.valueOf(75025), future.get());
+                } catch (ExecutionException e) {
+                    Assert.assertTrue(e.getCause() instanceof ScriptEngineException);
+                    failed++;
+                }
+            }
+
+            /* Only two machines exist, so at least one of the calls must have been waiting or late */
+            Assert.assertTrue(failed > 0);
+            Assert.assertThrows(ScriptEngineException.class, () -> handle.invoke(10));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMissingFunction() {
+        Assert.assertThrows(ScriptEngineException.class, () -> engine.lookup("interpreter", "missing"));
+        Assert.assertThrows(ScriptEngineException.class, () -> engine.lookup("missing", "fibonacci"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.shade.lang.test;
+
+import com.shade.lang.runtime.objects.Class;
+import com.shade.lang.runtime.objects.Instance;
+import com.shade.lang.runtime.objects.Shape;
+import com.shade.lang.runtime.objects.value.Value;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ShapeTest {
+    @Test
+    public void testSharedTransitions() {
+        final Class clazz = new Class("Test", new Class[0]);
+        final Instance a = clazz.instantiate();
+        final Instance b = clazz.instantiate();
+
+        Assert.assertSame(a.getShape(), b.getShape());
+
+        a.setAttribute("x", Value.from(1));
+        a.setAttribute("y", Value.from(2));
+        b.setAttribute("x", Value.from(3));
+        b.setAttribute("y", Value.from(4));
+
+        Assert.assertSame(a.getShape(), b.getShape());
+        Assert.assertEquals(Value.from(2), a.getAttribute("y"));
+        Assert.assertEquals(Value.from(4), b.getSlot(b.getShape().indexOf("y")));
+
+        b.setAttribute("x", Value.from(5));
+
+        Assert.assertSame(a.getShape(), b.getShape());
+        Assert.assertEquals(Value.from(5), b.getAttribute("x"));
+    }
+
+    @Test
+    public void testPrivateShape() {
+        final Class clazz = new Class("Test", new Class[0]);
+        final Instance instance = clazz.instantiate();
+
+        for (int index = 0; index <= Shape.MAX_SHARED_SIZE; index++) {
+            instance.setAttribute("a" + index, Value.from(index));
+        }
+
+        final Shape shape = instance.getShape();
+
+        Assert.assertFalse(shape.isShared());
+
+        instance.setAttribute("b", Value.from(0));
+
+        Assert.assertSame(shape, instance.getShape());
+        Assert.assertEquals(Shape.MAX_SHARED_SIZE, shape.indexOf("a" + Shape.MAX_SHARED_SIZE));
+        Assert.assertEquals(Value.from(Shape.MAX_SHARED_SIZE), instance.getAttribute("a" + Shape.MAX_SHARED_SIZE));
+    }
+
+    @Test
+    public void testConcurrentTransitions() throws Exception {
+        final String name = "concurrent" + System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final List<Future<Shape>> futures = new ArrayList<>();
+
+            for (int index = 0; index < 16; index++) {
+                futures.add(executor.submit(() -> Shape.EMPTY.add(name).add("x")));
+            }
+
+            for (Future<Shape> future : futures) {
+                Assert.assertSame(futures.get(0).get(), future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.shade.lang.test;
+
+import com.shade.lang.runtime.objects.Chunk;
+import com.shade.lang.runtime.objects.function.Guard;
+import com.shade.lang.runtime.objects.ScriptObject;
+import com.shade.lang.runtime.objects.value.ArrayValue;
+import com.shade.lang.runtime.objects.value.BooleanValue;
+import com.shade.lang.runtime.objects.value.DictValue;
+import com.shade.lang.runtime.objects.value.FloatValue;
+import com.shade.lang.runtime.objects.value.IntegerValue;
+import com.shade.lang.runtime.objects.value.ListValue;
+import com.shade.lang.runtime.objects.value.StringValue;
+import com.shade.lang.runtime.objects.value.Value;
+import com.shade.lang.tool.serialization.attributes.Attribute;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ValueTest {
+    private static final int CACHE_MISS = IntegerValue.CACHE_HIGH + 1;
+
+    @Test
+    public void testBooleanSingletons() {
+        Assert.assertSame(BooleanValue.TRUE, Value.from(true));
+        Assert.assertSame(BooleanValue.FALSE, Value.from(false));
+    }
+
+    @Test
+    public void testIntegerCache() {
+        Assert.assertSame(Value.from(IntegerValue.CACHE_LOW), Value.from(IntegerValue.CACHE_LOW));
+        Assert.assertSame(Value.from(IntegerValue.CACHE_HIGH), Value.from(IntegerValue.CACHE_HIGH));
+        Assert.assertNotSame(Value.from(IntegerValue.CACHE_HIGH + 1), Value.from(IntegerValue.CACHE_HIGH + 1));
+        Assert.assertEquals(Value.from(IntegerValue.CACHE_HIGH + 1), Value.from(IntegerValue.CACHE_HIGH + 1));
+    }
+
+    @Test
+    public void testCharacterCache() {
+        Assert.assertSame(StringValue.valueOf('a'), StringValue.valueOf('a'));
+        Assert.assertSame(StringValue.valueOf('\u00ff'), StringValue.valueOf('\u00ff'));
+        Assert.assertNotSame(StringValue.valueOf('\u0100'), StringValue.valueOf('\u0100'));
+        Assert.assertEquals(Value.from("\u0100"), StringValue.valueOf('\u0100'));
+    }
+
+    @Test
+    public void testConstantValues() {
+        final Chunk chunk = new Chunk(new byte[0], new Object[]{"hello", 12345}, new Guard[0], (byte) 0, (byte) 0, (byte) 0, (byte) 0, (short) 0, new Attribute[0]);
+        Assert.assertSame(chunk.getConstantObjects(), chunk.getConstantObjects());
+        Assert.assertEquals(Value.from("hello"), chunk.getConstantObjects()[0]);
+        Assert.assertEquals(Value.from(12345), chunk.getConstantObjects()[1]);
+        Assert.assertSame("hello", chunk.getConstantSymbols()[0]);
+        Assert.assertNull(chunk.getConstantSymbols()[1]);
+    }
+
+    @Test
+    public void testEqualValuesHaveEqualHashCodes() {
+        final Value[][] pairs = {
+            {Value.from(CACHE_MISS), Value.from(CACHE_MISS)},
+            {new FloatValue(1.5f), new FloatValue(1.5f)},
+            {Value.from("hello"), Value.from(new String("hello"))},
+            {new ArrayValue(new ScriptObject[]{Value.from(1)}), new ArrayValue(new ScriptObject[]{Value.from(1)})},
+            {new ListValue(new ScriptObject[]{Value.from(1)}), new ListValue(new ScriptObject[]{Value.from(1)})},
+        };
+
+        for (Value[] pair : pairs) {
+            Assert.assertEquals(pair[0], pair[1]);
+            Assert.assertEquals(pair[0].hashCode(), pair[1].hashCode());
+        }
+
+        Assert.assertNotEquals(Value.from(1), new FloatValue(1.0f));
+    }
+
+    @Test
+    public void testDictRemoval() {
+        final DictValue dict = new DictValue();
+
+        for (int index = 0; index < 1000; index++) {
+            dict.put(Value.from(index), Value.from(index * 2));
+        }
+
+        for (int index = 0; index < 1000; index += 3) {
+            Assert.assertEquals(Value.from(index * 2), dict.remove(Value.from(index)));
+        }
+
+        Assert.assertNull(dict.remove(Value.from(0)));
+        Assert.assertEquals(666, dict.size());
+
+        for (int index = 0; index < 1000; index++) {
+            Assert.assertEquals(index % 3 != 0, dict.contains(Value.from(index)));
+        }
+
+        Assert.assertEquals(Value.from(1), dict.getKeys()[0]);
+        Assert.assertEquals(Value.from(998), dict.getKeys()[665]);
+    }
+}